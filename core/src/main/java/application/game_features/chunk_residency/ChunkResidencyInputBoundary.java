@@ -0,0 +1,5 @@
+package application.game_features.chunk_residency;
+
+public interface ChunkResidencyInputBoundary {
+    ChunkResidencyOutputData execute(ChunkResidencyInputData inputData);
+}
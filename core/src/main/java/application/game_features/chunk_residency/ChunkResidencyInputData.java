@@ -0,0 +1,13 @@
+package application.game_features.chunk_residency;
+
+public class ChunkResidencyInputData {
+    private final int renderRadius;
+
+    public ChunkResidencyInputData(int renderRadius) {
+        this.renderRadius = renderRadius;
+    }
+
+    public int getRenderRadius() {
+        return renderRadius;
+    }
+}
@@ -0,0 +1,237 @@
+package application.game_features.chunk_residency;
+
+import application.game_features.generate_chunk.ChunkColumnCache;
+import application.gateways.ChunkRepository;
+import domain.player.Player;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.World;
+import domain.world.WorldMemoryReport;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the chunks held by the world within a memory budget.
+ * Chunks further than the hibernation distance from the player are compressed in memory, and empty
+ * chunks further than the eviction distance are dropped. The generation pipeline stores every chunk it hands
+ * out, so only chunks whose blocks changed since then are written again. Those are saved on the save workers
+ * and only leave the world once the repository has them, so a chunk requested again never loads an older copy.
+ * If the world is still over budget, the furthest hibernated chunks without entities are evicted too.
+ * Chunks holding entities are never evicted, so entity membership is always preserved.
+ * Cached generator columns beyond the eviction distance are dropped in the same pass.
+ * Distances are in chunks, measured horizontally, and never fall inside the render radius.
+ */
+public class ChunkResidencyInteractor implements ChunkResidencyInputBoundary {
+    // Keeps a ring of full chunks around the rendered ones for meshing borders and generation
+    private static final int MIN_MARGIN = 2;
+
+    private final World world;
+    private final ChunkRepository chunkRepository;
+    private final Player player;
+    private final long memoryBudgetBytes;
+    private final int hibernateDistance;
+    private final int evictDistance;
+    private final ChunkColumnCache columnCache;
+    private final Executor saveWorkers;
+    // Chunks being written before their eviction, evicted by the first update after the write finishes
+    private final List<PendingSave> pendingSaves = new ArrayList<>();
+
+    // Chunks outside the hibernation distance, packed as (distance << 32 | index) for sorting
+    private long[] candidateOrder = new long[256];
+    private long[] candidateKeys = new long[256];
+    private Chunk[] candidateChunks = new Chunk[256];
+    private int candidateCount;
+    private int centreX;
+    private int centreZ;
+    private int retainDistance;
+
+    private int lastChunkX = Integer.MAX_VALUE;
+    private int lastChunkZ = Integer.MAX_VALUE;
+    private ChunkResidencyOutputData lastOutput;
+
+    public ChunkResidencyInteractor(
+        World world,
+        ChunkRepository chunkRepository,
+        Player player,
+        long memoryBudgetBytes,
+        int hibernateDistance,
+        int evictDistance
+    ) {
+        this(world, chunkRepository, player, memoryBudgetBytes, hibernateDistance, evictDistance, null);
+    }
+
+    /**
+     * Saves changed chunks on the calling thread, before evicting them in the same update.
+     */
+    public ChunkResidencyInteractor(
+        World world,
+        ChunkRepository chunkRepository,
+        Player player,
+        long memoryBudgetBytes,
+        int hibernateDistance,
+        int evictDistance,
+        ChunkColumnCache columnCache
+    ) {
+        this(world, chunkRepository, player, memoryBudgetBytes, hibernateDistance, evictDistance, columnCache,
+            Runnable::run);
+    }
+
+    public ChunkResidencyInteractor(
+        World world,
+        ChunkRepository chunkRepository,
+        Player player,
+        long memoryBudgetBytes,
+        int hibernateDistance,
+        int evictDistance,
+        ChunkColumnCache columnCache,
+        Executor saveWorkers
+    ) {
+        this.world = world;
+        this.chunkRepository = chunkRepository;
+        this.player = player;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.hibernateDistance = hibernateDistance;
+        this.evictDistance = Math.max(evictDistance, hibernateDistance);
+        this.columnCache = columnCache;
+        this.saveWorkers = saveWorkers;
+    }
+
+    @Override
+    public ChunkResidencyOutputData execute(ChunkResidencyInputData inputData) {
+        int chunkX = (int) Math.floor(player.getPosition().x / Chunk.CHUNK_SIZE);
+        int chunkZ = (int) Math.floor(player.getPosition().z / Chunk.CHUNK_SIZE);
+        evictSavedChunks();
+
+        // Residency only changes when the player crosses into a new chunk
+        if (lastOutput != null && chunkX == lastChunkX && chunkZ == lastChunkZ) {
+            return lastOutput;
+        }
+        lastChunkX = chunkX;
+        lastChunkZ = chunkZ;
+
+        centreX = chunkX;
+        centreZ = chunkZ;
+        retainDistance = Math.max(hibernateDistance, inputData.getRenderRadius() + MIN_MARGIN);
+        int dropDistance = Math.max(evictDistance, retainDistance);
+
+        candidateCount = 0;
+        world.forEachChunk(this::collectCandidate);
+        Arrays.sort(candidateOrder, 0, candidateCount);
+
+        int hibernated = 0;
+        int evicted = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int index = (int) candidateOrder[i];
+            int distance = (int) (candidateOrder[i] >>> 32);
+            Chunk chunk = candidateChunks[index];
+
+            if (distance > dropDistance && !chunk.hasEntities()) {
+                if (evict(index)) evicted++;
+            } else if (chunk.hibernate()) {
+                hibernated++;
+            }
+        }
+        evicted += evictSavedChunks();
+
+        // Over budget, drop hibernated chunks from the furthest in until the world fits
+        WorldMemoryReport report = world.getMemoryReport();
+        long bytes = report.getTotalBytes();
+        for (int i = candidateCount - 1; i >= 0 && bytes > memoryBudgetBytes; i--) {
+            int index = (int) candidateOrder[i];
+            Chunk chunk = candidateChunks[index];
+            if (chunk == null || chunk.hasEntities()) continue;
+
+            // Chunks still being saved leave soon, so they count as gone
+            bytes -= chunk.estimateMemoryBytes();
+            if (evict(index)) evicted++;
+        }
+        evicted += evictSavedChunks();
+        if (bytes != report.getTotalBytes()) {
+            report = world.getMemoryReport();
+        }
+
+        Arrays.fill(candidateChunks, 0, candidateCount, null);
+        if (columnCache != null) {
+            columnCache.retainWithin(chunkX, chunkZ, dropDistance);
+        }
+        lastOutput = new ChunkResidencyOutputData(
+            report, memoryBudgetBytes, hibernated, evicted, world.getEvictedChunkCount(),
+            columnCache == null ? null : columnCache.getMetrics());
+        return lastOutput;
+    }
+
+    private void collectCandidate(long key, Chunk chunk) {
+        int distance = Math.max(Math.abs(ChunkKey.x(key) - centreX), Math.abs(ChunkKey.z(key) - centreZ));
+        if (distance <= retainDistance) return;
+
+        if (candidateCount == candidateKeys.length) {
+            int capacity = candidateCount * 2;
+            candidateOrder = Arrays.copyOf(candidateOrder, capacity);
+            candidateKeys = Arrays.copyOf(candidateKeys, capacity);
+            candidateChunks = Arrays.copyOf(candidateChunks, capacity);
+        }
+        candidateOrder[candidateCount] = ((long) distance << 32) | candidateCount;
+        candidateKeys[candidateCount] = key;
+        candidateChunks[candidateCount] = chunk;
+        candidateCount++;
+    }
+
+    /**
+     * Evicts the candidate at once if the repository already has it, otherwise starts saving it.
+     * Returns whether it left the world.
+     */
+    private boolean evict(int index) {
+        long key = candidateKeys[index];
+        Chunk chunk = candidateChunks[index];
+        candidateChunks[index] = null;
+        if (!chunk.hasUnsavedChanges()) {
+            world.evictChunk(key);
+            return true;
+        }
+        for (PendingSave pending : pendingSaves) {
+            if (pending.chunk == chunk) return false;
+        }
+        long version = chunk.getVersion();
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> {
+            chunkRepository.save(chunk);
+            chunk.markSaved(version);
+        }, saveWorkers);
+        pendingSaves.add(new PendingSave(key, chunk, write));
+        return false;
+    }
+
+    /**
+     * Evicts the chunks whose save has finished, unless they changed or took in entities since.
+     * Those stay in the world and are reconsidered by the next residency pass. Returns how many left.
+     */
+    private int evictSavedChunks() {
+        int evicted = 0;
+        for (int i = pendingSaves.size() - 1; i >= 0; i--) {
+            PendingSave pending = pendingSaves.get(i);
+            if (!pending.write.isDone()) continue;
+            pendingSaves.remove(i);
+            // Reports a failed save on the simulation thread
+            pending.write.join();
+            Chunk chunk = pending.chunk;
+            if (chunk.hasUnsavedChanges() || chunk.hasEntities() || world.getChunk(pending.key) != chunk) continue;
+            world.evictChunk(pending.key);
+            evicted++;
+        }
+        return evicted;
+    }
+
+    private static final class PendingSave {
+        private final long key;
+        private final Chunk chunk;
+        private final CompletableFuture<Void> write;
+
+        private PendingSave(long key, Chunk chunk, CompletableFuture<Void> write) {
+            this.key = key;
+            this.chunk = chunk;
+            this.write = write;
+        }
+    }
+}
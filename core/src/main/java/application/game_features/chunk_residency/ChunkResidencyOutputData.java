@@ -0,0 +1,79 @@
+package application.game_features.chunk_residency;
+
+import application.game_features.generate_chunk.ColumnCacheMetrics;
+import domain.world.WorldMemoryReport;
+
+public class ChunkResidencyOutputData {
+    private final WorldMemoryReport memoryReport;
+    private final long memoryBudgetBytes;
+    private final int hibernatedChunks;
+    private final int evictedChunks;
+    private final int totalEvictedChunks;
+    private final ColumnCacheMetrics columnCacheMetrics;
+
+    public ChunkResidencyOutputData(
+        WorldMemoryReport memoryReport,
+        long memoryBudgetBytes,
+        int hibernatedChunks,
+        int evictedChunks,
+        int totalEvictedChunks,
+        ColumnCacheMetrics columnCacheMetrics
+    ) {
+        this.memoryReport = memoryReport;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.hibernatedChunks = hibernatedChunks;
+        this.evictedChunks = evictedChunks;
+        this.totalEvictedChunks = totalEvictedChunks;
+        this.columnCacheMetrics = columnCacheMetrics;
+    }
+
+    /**
+     * Chunk counts and estimated heap of the chunks still held by the world.
+     */
+    public WorldMemoryReport getMemoryReport() {
+        return memoryReport;
+    }
+
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    public boolean isOverBudget() {
+        return memoryReport.getTotalBytes() > memoryBudgetBytes;
+    }
+
+    /**
+     * Number of chunks hibernated by the last pass.
+     */
+    public int getHibernatedChunks() {
+        return hibernatedChunks;
+    }
+
+    /**
+     * Number of chunks evicted by the last pass.
+     */
+    public int getEvictedChunks() {
+        return evictedChunks;
+    }
+
+    /**
+     * Number of chunks that are currently evicted and only held by the chunk repository.
+     */
+    public int getTotalEvictedChunks() {
+        return totalEvictedChunks;
+    }
+
+    /**
+     * Hit, miss and eviction counts of the generator column cache, or null if residency does not manage one.
+     */
+    public ColumnCacheMetrics getColumnCacheMetrics() {
+        return columnCacheMetrics;
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("%s, budget %d bytes, %d hibernated and %d evicted this pass, %d evicted total",
+            memoryReport, memoryBudgetBytes, hibernatedChunks, evictedChunks, totalEvictedChunks);
+        return columnCacheMetrics == null ? summary : summary + ", " + columnCacheMetrics;
+    }
+}
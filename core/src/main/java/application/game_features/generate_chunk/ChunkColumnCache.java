@@ -0,0 +1,151 @@
+package application.game_features.generate_chunk;
+
+import domain.collections.LongObjectMap;
+import domain.world.ChunkColumn;
+import domain.world.ChunkKey;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of generated columns, shared by generation workers so every chunk stacked in a column
+ * reuses one height map and, through the column, one set of spawn noise for population.
+ * Columns are split over lock stripes so workers asking for different columns rarely wait on each other.
+ * The residency pass drops columns far from the player with {@link #retainWithin}, and a stripe that still
+ * overflows drops the column furthest from where the player was last seen.
+ */
+public class ChunkColumnCache {
+    private static final int STRIPES = 16;
+
+    private final LongObjectMap<ChunkColumn>[] stripes;
+    private final int maxColumnsPerStripe;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Column the player was in during the last residency pass, used to pick overflow victims
+    private volatile int centreX;
+    private volatile int centreZ;
+
+    /**
+     * Loads a column that is not cached yet. Called with its stripe locked, so at most once per column.
+     */
+    public interface ColumnLoader {
+        ChunkColumn load(int columnX, int columnZ);
+    }
+
+    public ChunkColumnCache(int maxColumns) {
+        if (maxColumns <= 0) {
+            throw new IllegalArgumentException("maxColumns must be positive, got " + maxColumns);
+        }
+        maxColumnsPerStripe = Math.max(1, (maxColumns + STRIPES - 1) / STRIPES);
+        @SuppressWarnings("unchecked")
+        LongObjectMap<ChunkColumn>[] stripes = (LongObjectMap<ChunkColumn>[]) new LongObjectMap<?>[STRIPES];
+        this.stripes = stripes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LongObjectMap<>();
+        }
+    }
+
+    private static long key(int columnX, int columnZ) {
+        return ChunkKey.pack(columnX, 0, columnZ);
+    }
+
+    private LongObjectMap<ChunkColumn> stripeFor(long key) {
+        // Mix the bits so neighbouring columns land on different stripes
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (mixed >>> 60) & (STRIPES - 1)];
+    }
+
+    /**
+     * Returns the cached column, loading it the first time it is asked for.
+     */
+    public ChunkColumn get(int columnX, int columnZ, ColumnLoader loader) {
+        long key = key(columnX, columnZ);
+        LongObjectMap<ChunkColumn> stripe = stripeFor(key);
+        synchronized (stripe) {
+            ChunkColumn column = stripe.get(key);
+            if (column != null) {
+                hits.increment();
+                return column;
+            }
+            misses.increment();
+            column = loader.load(columnX, columnZ);
+            if (stripe.size() >= maxColumnsPerStripe) {
+                evictFurthest(stripe);
+            }
+            stripe.put(key, column);
+            return column;
+        }
+    }
+
+    public ChunkColumn getIfPresent(int columnX, int columnZ) {
+        long key = key(columnX, columnZ);
+        LongObjectMap<ChunkColumn> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Drops every column further than distance columns from the given one, measured horizontally.
+     * Returns how many columns were dropped.
+     */
+    public int retainWithin(int columnX, int columnZ, int distance) {
+        centreX = columnX;
+        centreZ = columnZ;
+        int dropped = 0;
+        long[] farKeys = new long[16];
+        for (LongObjectMap<ChunkColumn> stripe : stripes) {
+            synchronized (stripe) {
+                int count = 0;
+                for (ChunkColumn column : stripe.values()) {
+                    if (distanceTo(column, columnX, columnZ) <= distance) continue;
+                    if (count == farKeys.length) {
+                        farKeys = Arrays.copyOf(farKeys, count * 2);
+                    }
+                    farKeys[count++] = key(column.getColumnX(), column.getColumnZ());
+                }
+                for (int i = 0; i < count; i++) {
+                    stripe.remove(farKeys[i]);
+                }
+                dropped += count;
+            }
+        }
+        evictions.add(dropped);
+        return dropped;
+    }
+
+    private void evictFurthest(LongObjectMap<ChunkColumn> stripe) {
+        int x = centreX;
+        int z = centreZ;
+        ChunkColumn furthest = null;
+        int furthestDistance = -1;
+        for (ChunkColumn column : stripe.values()) {
+            int distance = distanceTo(column, x, z);
+            if (distance > furthestDistance) {
+                furthest = column;
+                furthestDistance = distance;
+            }
+        }
+        stripe.remove(key(furthest.getColumnX(), furthest.getColumnZ()));
+        evictions.increment();
+    }
+
+    private static int distanceTo(ChunkColumn column, int columnX, int columnZ) {
+        return Math.max(Math.abs(column.getColumnX() - columnX), Math.abs(column.getColumnZ() - columnZ));
+    }
+
+    public int size() {
+        int size = 0;
+        for (LongObjectMap<ChunkColumn> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public ColumnCacheMetrics getMetrics() {
+        return new ColumnCacheMetrics(size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,273 @@
+package application.game_features.generate_chunk;
+
+import application.game_features.populate_chunk.PopulateChunkInputBoundary;
+import application.game_features.populate_chunk.PopulateChunkInputData;
+import application.game_features.populate_chunk.PopulateChunkOutputData;
+import application.gateways.ChunkRepository;
+import domain.collections.LongHashSet;
+import domain.collections.LongObjectMap;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.GamePosition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Loads or generates chunks on worker threads and hands the finished chunks back to the simulation thread.
+ * Requests, polling and the pending checks belong to the simulation thread; only the loading and generating
+ * runs on the workers. At most maxInFlight chunks are handed to the workers at a time, counting finished
+ * chunks that have not been polled yet, so workers cannot run ahead of integration. Further requests wait
+ * in a queue until a slot frees up.
+ *
+ * <p>Queued requests are handed out most urgent first, as scored by the current {@link ChunkPriority},
+ * and are re-ordered when the priority changes. Requests still in the queue can be cancelled, for chunks
+ * that left the area around the player before a worker picked them up.
+ *
+ * <p>Given a populator, workers also plan each chunk's spawns so the simulation thread only has to commit them.
+ */
+public class ChunkGenerationPipeline {
+    private final GenerateChunkInputBoundary chunkGenerator;
+    private final PopulateChunkInputBoundary chunkPopulator;
+    private final ChunkRepository chunkRepository;
+    private final Executor workers;
+    private final int maxInFlight;
+
+    // Requested chunks that are queued, being generated or finished but not yet polled
+    private final LongHashSet pending = new LongHashSet();
+    // Cancelled requests stay in the heap until they reach the top or the heap is rebuilt
+    private PriorityQueue<Request> queue = new PriorityQueue<>();
+    private final LongObjectMap<Request> queued = new LongObjectMap<>();
+    private final BlockingQueue<Completed> completed = new LinkedBlockingQueue<>();
+    private ChunkPriority priority = ChunkPriority.NONE;
+    private long nextSequence;
+    private int inFlight;
+    private long cancelledCount;
+
+    public ChunkGenerationPipeline(
+        GenerateChunkInputBoundary chunkGenerator,
+        ChunkRepository chunkRepository,
+        Executor workers,
+        int maxInFlight
+    ) {
+        this(chunkGenerator, null, chunkRepository, workers, maxInFlight);
+    }
+
+    public ChunkGenerationPipeline(
+        GenerateChunkInputBoundary chunkGenerator,
+        PopulateChunkInputBoundary chunkPopulator,
+        ChunkRepository chunkRepository,
+        Executor workers,
+        int maxInFlight
+    ) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive, got " + maxInFlight);
+        }
+        this.chunkGenerator = chunkGenerator;
+        this.chunkPopulator = chunkPopulator;
+        this.chunkRepository = chunkRepository;
+        this.workers = workers;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Asks for the chunk at the given position. Positions that are already pending are ignored.
+     */
+    public void request(GamePosition position, int worldEndX) {
+        long key = ChunkKey.of(position);
+        if (!pending.add(key)) return;
+        Request request = new Request(key, new GenerateChunkInputData(position, worldEndX), nextSequence++);
+        request.score = priority.score(position);
+        queue.add(request);
+        queued.put(key, request);
+        submitQueued();
+    }
+
+    /**
+     * Re-orders the queued requests when the priority orders chunks differently from the current one.
+     */
+    public void setPriority(ChunkPriority priority) {
+        if (this.priority.equals(priority)) return;
+        this.priority = priority;
+        List<Request> live = new ArrayList<>(queued.size());
+        for (Request request : queued.values()) {
+            request.score = priority.score(request.inputData.getPosition());
+            live.add(request);
+        }
+        queue = new PriorityQueue<>(Math.max(1, live.size()));
+        queue.addAll(live);
+    }
+
+    /**
+     * Drops the request for the given chunk if no worker has picked it up yet.
+     * Returns whether it was dropped. Chunks already being generated still arrive.
+     */
+    public boolean cancel(long key) {
+        Request request = queued.remove(key);
+        if (request == null) return false;
+        request.cancelled = true;
+        pending.remove(key);
+        cancelledCount++;
+        return true;
+    }
+
+    public boolean isPending(long key) {
+        return pending.contains(key);
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Returns the next finished chunk, or null if none has finished yet.
+     */
+    public GeneratedChunk pollCompleted() {
+        Completed next = completed.poll();
+        return next == null ? null : accept(next);
+    }
+
+    /**
+     * Waits for the next finished chunk. Must only be called while something is pending.
+     */
+    public GeneratedChunk takeCompleted() {
+        if (!hasPending()) {
+            throw new IllegalStateException("No chunks are pending");
+        }
+        try {
+            return accept(completed.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a chunk", e);
+        }
+    }
+
+    public int getQueuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * Number of requests cancelled before a worker picked them up, since the pipeline was created.
+     */
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    public int getInFlightCount() {
+        return inFlight;
+    }
+
+    private GeneratedChunk accept(Completed next) {
+        pending.remove(ChunkKey.of(next.position));
+        inFlight--;
+        submitQueued();
+        if (next.error != null) {
+            throw new IllegalStateException("Failed to generate chunk at " + next.position, next.error);
+        }
+        return new GeneratedChunk(next.position, next.chunk, next.spawns);
+    }
+
+    private void submitQueued() {
+        while (inFlight < maxInFlight && !queued.isEmpty()) {
+            Request request = queue.poll();
+            if (request.cancelled) continue;
+            queued.remove(request.key);
+            GenerateChunkInputData inputData = request.inputData;
+            inFlight++;
+            workers.execute(() -> completed.add(loadOrGenerate(inputData)));
+        }
+    }
+
+    private Completed loadOrGenerate(GenerateChunkInputData inputData) {
+        try {
+            Optional<Chunk> stored = chunkRepository.findByPosition(inputData.getPosition());
+            Chunk chunk;
+            if (stored.isPresent()) {
+                chunk = stored.get();
+                chunk.markSaved(chunk.getVersion());
+            } else {
+                chunk = chunkGenerator.execute(inputData).getChunk();
+                long version = chunk.getVersion();
+                chunkRepository.save(chunk);
+                chunk.markSaved(version);
+            }
+            PopulateChunkOutputData spawns = chunkPopulator == null
+                ? null
+                : chunkPopulator.plan(new PopulateChunkInputData(chunk));
+            return new Completed(inputData.getPosition(), chunk, spawns, null);
+        } catch (Throwable e) {
+            // Reported on the simulation thread, otherwise the position would stay pending forever.
+            // Errors such as running out of memory count too, a worker must never finish without a result.
+            return new Completed(inputData.getPosition(), null, null, e);
+        }
+    }
+
+    private static final class Request implements Comparable<Request> {
+        private final long key;
+        private final GenerateChunkInputData inputData;
+        // Breaks ties so equally urgent chunks are generated in the order they were requested
+        private final long sequence;
+        private double score;
+        private boolean cancelled;
+
+        private Request(long key, GenerateChunkInputData inputData, long sequence) {
+            this.key = key;
+            this.inputData = inputData;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Request other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Completed {
+        private final GamePosition position;
+        private final Chunk chunk;
+        private final PopulateChunkOutputData spawns;
+        private final Throwable error;
+
+        private Completed(GamePosition position, Chunk chunk, PopulateChunkOutputData spawns, Throwable error) {
+            this.position = position;
+            this.chunk = chunk;
+            this.spawns = spawns;
+            this.error = error;
+        }
+    }
+
+    /**
+     * A chunk that finished loading or generating, with the position it was requested at.
+     */
+    public static final class GeneratedChunk {
+        private final GamePosition position;
+        private final Chunk chunk;
+        private final PopulateChunkOutputData spawns;
+
+        private GeneratedChunk(GamePosition position, Chunk chunk, PopulateChunkOutputData spawns) {
+            this.position = position;
+            this.chunk = chunk;
+            this.spawns = spawns;
+        }
+
+        public GamePosition getPosition() {
+            return position;
+        }
+
+        public Chunk getChunk() {
+            return chunk;
+        }
+
+        /**
+         * The spawns planned on the worker, or null if the pipeline has no populator.
+         */
+        public PopulateChunkOutputData getSpawns() {
+            return spawns;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package application.game_features.generate_chunk;
+
+import domain.world.ChunkKey;
+import domain.world.GamePosition;
+
+/**
+ * Orders chunk requests so the ones the player is about to see come first. The score grows with the distance
+ * from the player's chunk, and chunks behind the view direction count as further away than chunks in front.
+ * Lower scores are more urgent.
+ *
+ * <p>Two priorities are equal when they would order chunks the same way: same chunk and the same one of
+ * HEADINGS view directions. Callers can use this to skip re-ordering while the player only looks around a little.
+ */
+public final class ChunkPriority {
+    /**
+     * Orders every chunk the same, so requests are served in the order they were made.
+     */
+    public static final ChunkPriority NONE = new ChunkPriority(0, 0, 0, -1);
+
+    private static final int HEADINGS = 16;
+    // How many times higher a chunk straight behind the player scores than one straight ahead at the same distance
+    private static final double BEHIND_WEIGHT = 4;
+
+    private final int focusX;
+    private final int focusY;
+    private final int focusZ;
+    // One of HEADINGS directions around the y axis, or -1 without a view direction
+    private final int heading;
+    private final double viewX;
+    private final double viewZ;
+
+    private ChunkPriority(int focusX, int focusY, int focusZ, int heading) {
+        this.focusX = focusX;
+        this.focusY = focusY;
+        this.focusZ = focusZ;
+        this.heading = heading;
+        double angle = heading * 2 * Math.PI / HEADINGS;
+        viewX = heading < 0 ? 0 : Math.cos(angle);
+        viewZ = heading < 0 ? 0 : Math.sin(angle);
+    }
+
+    /**
+     * Focuses on the chunk containing the given world position. The direction may be null, or point straight
+     * up or down, in which case only distance counts.
+     */
+    public static ChunkPriority around(GamePosition position, GamePosition direction) {
+        // The same chunk the world puts the player in
+        long focus = ChunkKey.fromWorldPosition(position);
+        int heading = -1;
+        if (direction != null && (direction.x != 0 || direction.z != 0)) {
+            double angle = Math.atan2(direction.z, direction.x);
+            heading = Math.floorMod((int) Math.round(angle * HEADINGS / (2 * Math.PI)), HEADINGS);
+        }
+        return new ChunkPriority(ChunkKey.x(focus), ChunkKey.y(focus), ChunkKey.z(focus), heading);
+    }
+
+    public double score(int chunkX, int chunkY, int chunkZ) {
+        if (this == NONE) return 0;
+        double dx = chunkX - focusX;
+        double dy = chunkY - focusY;
+        double dz = chunkZ - focusZ;
+        double distance2 = dx * dx + dy * dy + dz * dz;
+        double horizontal = Math.sqrt(dx * dx + dz * dz);
+        if (heading < 0 || horizontal == 0) return distance2;
+
+        // 1 straight ahead, 0 straight behind
+        double facing = ((dx * viewX + dz * viewZ) / horizontal + 1) / 2;
+        return distance2 * (BEHIND_WEIGHT - (BEHIND_WEIGHT - 1) * facing);
+    }
+
+    public double score(GamePosition chunkPosition) {
+        return score((int) chunkPosition.x, (int) chunkPosition.y, (int) chunkPosition.z);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChunkPriority)) return false;
+        ChunkPriority other = (ChunkPriority) o;
+        return focusX == other.focusX && focusY == other.focusY && focusZ == other.focusZ && heading == other.heading
+            && (this == NONE) == (other == NONE);
+    }
+
+    @Override
+    public int hashCode() {
+        return ((focusX * 31 + focusY) * 31 + focusZ) * 31 + heading;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkPriority(" + focusX + ", " + focusY + ", " + focusZ + ", heading " + heading + ")";
+    }
+}
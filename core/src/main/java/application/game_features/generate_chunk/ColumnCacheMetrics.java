@@ -0,0 +1,49 @@
+package application.game_features.generate_chunk;
+
+public class ColumnCacheMetrics {
+    private final int cachedColumns;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public ColumnCacheMetrics(int cachedColumns, long hits, long misses, long evictions) {
+        this.cachedColumns = cachedColumns;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getCachedColumns() {
+        return cachedColumns;
+    }
+
+    /**
+     * Chunks that reused a column generated for another chunk stacked in it.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Columns that had to be generated.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        if (lookups == 0) return 0;
+        return (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d columns cached, %d hits, %d misses (%.1f%% hit rate), %d evicted",
+            cachedColumns, hits, misses, getHitRate() * 100, evictions);
+    }
+}
@@ -1,76 +1,208 @@
 package application.game_features.generate_chunk;
 
 import application.gateways.BlockRepository;
+import domain.world.Block;
 import domain.world.Chunk;
-import application.game_features.generate_chunk.noise.PerlinNoise;
+import domain.world.ChunkColumn;
+import domain.world.GamePosition;
+import domain.world.StructurePlacement;
+import application.game_features.generate_chunk.noise.DensityLattice;
+import application.game_features.generate_chunk.noise.NoiseGenerator;
 
 public class GenerateChunkInteractor implements GenerateChunkInputBoundary {
-    private final BlockRepository blockRepository;
+    // Raised whenever the same seed starts generating different blocks, so terrain saved earlier is not reused
+    public static final int GENERATOR_VERSION = 3;
+    // Enough columns to cover the render radius several times over, each is under 3 KB
+    private static final int MAX_CACHED_COLUMNS = 1024;
+    private static final int DEFAULT_SEED = 0;
+    // Keeps the cave noise unrelated to the surface noise of the same world seed
+    private static final int CAVE_SEED_SALT = 0x5F3759DF;
+    // Blocks between the points the cave density is sampled at, the rest is interpolated
+    private static final int CAVE_CELL_SIZE = 4;
+    // Density above which stone and dirt are carved out
+    private static final double CAVE_THRESHOLD = 0.68;
+    // The bottom layer of the world is never carved, so nothing can fall out of it
+    private static final int CAVE_FLOOR = 1;
+
+    private final Block air;
+    private final Block grass;
+    private final Block dirt;
+    private final Block stone;
+    // Generated columns, so the chunks stacked in a column share one height map
+    private final ChunkColumnCache columns;
+    private final NoiseGenerator terrainNoise;
+    // Null when the terrain is a plain height field
+    private final DensityLattice caveDensity;
+    // Null when no structures are stamped
+    private final StructureIndex structures;
 
     public GenerateChunkInteractor(BlockRepository blockRepository) {
-        this.blockRepository = blockRepository;
+        this(blockRepository, new ChunkColumnCache(MAX_CACHED_COLUMNS), terrainNoise(DEFAULT_SEED));
+    }
+
+    public GenerateChunkInteractor(BlockRepository blockRepository, ChunkColumnCache columns,
+                                   NoiseGenerator terrainNoise) {
+        this(blockRepository, columns, terrainNoise, caveNoise(terrainNoise.getSeed()));
+    }
+
+    /**
+     * @param caveNoise density noise that carves caves and overhangs out of the terrain, or null for none
+     */
+    public GenerateChunkInteractor(BlockRepository blockRepository, ChunkColumnCache columns,
+                                   NoiseGenerator terrainNoise, NoiseGenerator caveNoise) {
+        this(blockRepository, columns, terrainNoise, caveNoise, null);
     }
 
-    private static int getLocalHeight(int worldZ, double valleyScale, Chunk chunk, int worldX, int worldEndX,
+    /**
+     * @param structures where structures stand, each chunk stamps the ones inside it, or null for none
+     */
+    public GenerateChunkInteractor(BlockRepository blockRepository, ChunkColumnCache columns,
+                                   NoiseGenerator terrainNoise, NoiseGenerator caveNoise, StructureIndex structures) {
+        this.structures = structures;
+        this.columns = columns;
+        this.terrainNoise = terrainNoise;
+        caveDensity = caveNoise == null ? null : new DensityLattice(caveNoise, CAVE_CELL_SIZE);
+        air = blockRepository.findByName("AIR").orElseThrow();
+        grass = blockRepository.findByName("GRASS").orElseThrow();
+        dirt = blockRepository.findByName("DIRT").orElseThrow();
+        stone = blockRepository.findByName("STONE").orElseThrow();
+    }
+
+    /**
+     * The noise that shapes the terrain surface for the given world seed.
+     */
+    public static NoiseGenerator terrainNoise(int seed) {
+        return new NoiseGenerator(seed, 4, 0.6, 0.05f, 0);
+    }
+
+    /**
+     * The 3D density noise that carves caves for the given world seed.
+     */
+    public static NoiseGenerator caveNoise(int seed) {
+        return new NoiseGenerator(seed ^ CAVE_SEED_SALT, 2, 0.5, 0.04, 0);
+    }
+
+    private static int getLocalHeight(int worldZ, double valleyScale, ChunkColumn column, int worldX, int worldEndX,
                                       double perlinNoise) {
         // offset so the valley is centered on a chunk
         double valleyHeight = Math.min(8, (worldZ - 7) * (worldZ - 7) * valleyScale);
 
         // Chunks behind the start have a valley
-        if (chunk.getChunkX() < 0) {
+        if (column.getColumnX() < 0) {
             double valleyHeightZ = Math.min(8, worldX * worldX * valleyScale / 2);
             valleyHeight = Math.max(valleyHeight, valleyHeightZ);
         }
 
         // Chunks beyond the end have a valley
-        if (chunk.getChunkWorldX() > worldEndX) {
+        if (column.getColumnWorldX() > worldEndX) {
             double valleyHeightZ = Math.min(8, (worldX - worldEndX) * (worldX - worldEndX) * valleyScale / 2);
             valleyHeight = Math.max(valleyHeight, valleyHeightZ);
         }
         return (int) (perlinNoise * valleyHeight * valleyHeight);
     }
 
-    @Override
-    public GenerateChunkOutputData execute(GenerateChunkInputData inputData) {
-        Chunk chunk = new Chunk(inputData.getPosition());
-
+    private ChunkColumn generateColumn(int columnX, int columnZ, int worldEndX) {
+        ChunkColumn column = new ChunkColumn(columnX, columnZ);
         int chunkSize = Chunk.CHUNK_SIZE;
-        int worldEndX = inputData.getWorldEndX();
 
-        float scaleFactor = 0.05f;
         double valleyScale = (double) 1.0f / (chunkSize * chunkSize * 8);
+        double[] noise = new double[chunkSize * chunkSize];
+        terrainNoise.sampleGrid(noise, column.getColumnWorldX(), column.getColumnWorldZ(), chunkSize, chunkSize);
 
         for (int x = 0; x < chunkSize; x++) {
             for (int z = 0; z < chunkSize; z++) {
-                int worldX = x + chunk.getChunkWorldX();
-                int worldZ = z + chunk.getChunkWorldZ();
-                double perlinNoise = PerlinNoise.octavePerlin(worldX * scaleFactor, 0, worldZ * scaleFactor, 4, 0.6);
-                int height = getLocalHeight(worldZ, valleyScale, chunk, worldX, worldEndX, perlinNoise);
-                chunk.setHeight(x, height, z);
-                for (int h = 0; h < chunkSize; h++) {
-                    int worldY = h + chunk.getChunkWorldY();
-                    String type = getBlockByHeight(height, worldY);
-                    chunk.setBlock(x, h, z, blockRepository.findByName(type).orElseThrow());
+                int worldX = x + column.getColumnWorldX();
+                int worldZ = z + column.getColumnWorldZ();
+                double perlinNoise = noise[(x << Chunk.CHUNK_SHIFT) | z];
+                int height = getLocalHeight(worldZ, valleyScale, column, worldX, worldEndX, perlinNoise);
+                column.setHeight(x, z, height);
+            }
+        }
+        return column;
+    }
 
+    @Override
+    public GenerateChunkOutputData execute(GenerateChunkInputData inputData) {
+        int chunkSize = Chunk.CHUNK_SIZE;
+        int worldEndX = inputData.getWorldEndX();
+
+        GamePosition position = inputData.getPosition();
+        ChunkColumn column = columns.get((int) position.x, (int) position.z,
+            (columnX, columnZ) -> generateColumn(columnX, columnZ, worldEndX));
+        Chunk chunk = new Chunk(position, column);
+
+        // Chunks entirely above the surface stay a single run of AIR,
+        // and chunks entirely below the dirt layer become a single run of STONE
+        int chunkBottom = chunk.getChunkWorldY();
+        if (chunk.getMaxBlockHeight() < chunkBottom) {
+            chunk.fill(air);
+        } else if (chunk.getMinBlockHeight() - 3 >= chunkBottom + chunkSize) {
+            chunk.fill(stone);
+        } else {
+            for (int x = 0; x < chunkSize; x++) {
+                for (int z = 0; z < chunkSize; z++) {
+                    // Surface height relative to the bottom of this chunk
+                    int localHeight = chunk.getHeight(x, z) - chunkBottom;
+                    chunk.fillColumn(x, z, 0, localHeight - 3, stone);
+                    chunk.fillColumn(x, z, localHeight - 3, localHeight, dirt);
+                    chunk.fillColumn(x, z, localHeight, localHeight + 1, grass);
+                    chunk.fillColumn(x, z, localHeight + 1, chunkSize, air);
                 }
             }
         }
 
+        carveCaves(chunk);
+        if (structures != null) {
+            for (StructurePlacement placement
+                : structures.getPlacementsIntersecting(chunk.getChunkX(), chunk.getChunkY(), chunk.getChunkZ())) {
+                placement.stamp(chunk);
+            }
+        }
+
         // generate rails
         if (chunk.getChunkZ() == 0 && chunk.getChunkY() == 0) {
             for (int x = 0; x < chunkSize; x++) {
-                chunk.setBlock(x, 0, 5, blockRepository.findByName("STONE").orElseThrow());
-                chunk.setBlock(x, 0, 10, blockRepository.findByName("STONE").orElseThrow());
+                chunk.setBlock(x, 0, 5, stone);
+                chunk.setBlock(x, 0, 10, stone);
             }
         }
 
         return new GenerateChunkOutputData(chunk);
     }
 
-    private String getBlockByHeight(int height, int worldY) {
-        if (worldY > height) return "AIR";
-        if (worldY == height) return "GRASS";
-        if (worldY >= height - 3) return "DIRT";
-        return "STONE";
+    /**
+     * Carves out every block below the surface block whose cave density is above the threshold. Caves that
+     * reach the side of a hill leave overhangs. The surface block itself is kept, so the height map still
+     * tells where things can stand.
+     * The density is sampled on a coarse lattice, and chunks whose lattice stays below the threshold
+     * are skipped before interpolating.
+     */
+    private void carveCaves(Chunk chunk) {
+        if (caveDensity == null) return;
+
+        int chunkSize = Chunk.CHUNK_SIZE;
+        int chunkBottom = chunk.getChunkWorldY();
+        int lowest = Math.max(CAVE_FLOOR, chunkBottom);
+        int highest = Math.min(chunk.getMaxBlockHeight() - 1, chunkBottom + chunkSize - 1);
+        if (lowest > highest) return;
+
+        int points = caveDensity.latticePoints(chunkSize);
+        double[] lattice = new double[points * points * points];
+        double maxDensity = caveDensity.sampleLattice(lattice, chunk.getChunkWorldX(), chunkBottom,
+            chunk.getChunkWorldZ(), chunkSize);
+        if (maxDensity <= CAVE_THRESHOLD) return;
+
+        float[] density = new float[Chunk.CHUNK_VOLUME];
+        caveDensity.interpolate(lattice, chunkSize, density);
+        for (int x = 0; x < chunkSize; x++) {
+            for (int z = 0; z < chunkSize; z++) {
+                int top = Math.min(chunk.getHeight(x, z) - 1, highest) - chunkBottom;
+                for (int y = lowest - chunkBottom; y <= top; y++) {
+                    if (density[Chunk.index(x, y, z)] > CAVE_THRESHOLD) {
+                        chunk.setBlock(x, y, z, air);
+                    }
+                }
+            }
+        }
     }
 }
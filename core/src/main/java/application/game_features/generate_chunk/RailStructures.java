@@ -0,0 +1,76 @@
+package application.game_features.generate_chunk;
+
+import application.gateways.BlockRepository;
+import domain.entities.EntityType;
+import domain.world.Block;
+import domain.world.Structure;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The structures that stand along the rail. Each is built facing the track from its north side,
+ * so local z 0 is the edge nearest the track, and local y 0 sits on the valley floor.
+ * Zombies spawn one block higher than pickups, as they do on open ground.
+ */
+public final class RailStructures {
+    private RailStructures() {
+    }
+
+    public static List<Structure> create(BlockRepository blockRepository) {
+        Block air = blockRepository.findByName("AIR").orElseThrow();
+        Block dirt = blockRepository.findByName("DIRT").orElseThrow();
+        Block stone = blockRepository.findByName("STONE").orElseThrow();
+        return Arrays.asList(station(air, stone), barricade(dirt, stone), wreckedCarriage(air, stone));
+    }
+
+    /**
+     * A raised platform with a back wall and a roof on four pillars.
+     */
+    static Structure station(Block air, Block stone) {
+        return new Structure.StructureBuilder("station", 12, 5, 6)
+            .box(0, 0, 0, 11, 0, 5, stone)
+            .box(0, 1, 0, 11, 3, 4, air)
+            .box(0, 1, 5, 11, 3, 5, stone)
+            .box(0, 1, 1, 0, 3, 1, stone)
+            .box(11, 1, 1, 11, 3, 1, stone)
+            .box(5, 1, 5, 6, 2, 5, air)
+            .box(0, 4, 1, 11, 4, 5, stone)
+            .spawn(3, 1, 3, EntityType.PICKUP)
+            .spawn(8, 1, 3, EntityType.PICKUP)
+            .spawn(6, 2, 2, EntityType.ZOMBIE)
+            .build();
+    }
+
+    /**
+     * A broken wall of earth between stone posts, with zombies waiting behind it.
+     */
+    static Structure barricade(Block dirt, Block stone) {
+        return new Structure.StructureBuilder("barricade", 9, 3, 4)
+            .box(0, 0, 0, 8, 1, 0, dirt)
+            .box(0, 0, 0, 0, 2, 0, stone)
+            .box(4, 0, 0, 4, 2, 0, stone)
+            .box(8, 0, 0, 8, 2, 0, stone)
+            .box(6, 1, 0, 7, 1, 0, null)
+            .spawn(2, 1, 2, EntityType.ZOMBIE)
+            .spawn(6, 1, 3, EntityType.ZOMBIE)
+            .spawn(3, 0, 3, EntityType.PICKUP)
+            .build();
+    }
+
+    /**
+     * A derailed carriage lying beside the track, with holes in its shell and supplies inside.
+     */
+    static Structure wreckedCarriage(Block air, Block stone) {
+        return new Structure.StructureBuilder("wrecked_carriage", 10, 4, 4)
+            .box(0, 0, 0, 9, 3, 3, stone)
+            .box(1, 1, 1, 8, 2, 2, air)
+            .box(2, 2, 0, 3, 2, 0, air)
+            .box(6, 2, 0, 7, 2, 0, air)
+            .box(4, 3, 1, 5, 3, 2, air)
+            .box(9, 1, 1, 9, 2, 2, air)
+            .spawn(3, 1, 1, EntityType.PICKUP)
+            .spawn(6, 1, 2, EntityType.PICKUP)
+            .spawn(8, 1, 1, EntityType.ZOMBIE)
+            .build();
+    }
+}
@@ -0,0 +1,126 @@
+package application.game_features.generate_chunk;
+
+import domain.collections.LongObjectMap;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.Structure;
+import domain.world.StructurePlacement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Decides where structures stand along the rail and answers which placements a chunk has to stamp.
+ *
+ * <p>The world is split into regions of 4x4 chunk columns. The placements of a region depend only on the seed
+ * and the region coordinates, and every placement lies entirely inside its region, so a chunk only has to look
+ * at the region it is in and never at other chunks. Regions are planned on first use and kept, there are only
+ * two rows of them along the track. Safe to share between generation workers.
+ *
+ * <p>Structures stand on the flat valley floor beside the track, on the north side facing it in region row 0
+ * and mirrored on the south side in row -1. The first region is kept clear for the start of the game.
+ */
+public class StructureIndex {
+    public static final int REGION_SHIFT = 2;
+    public static final int REGION_BLOCKS = Chunk.CHUNK_SIZE << REGION_SHIFT;
+    // The valley floor is at height 0, structures stand on top of it
+    public static final int FLOOR_Y = 1;
+    // Nearest and furthest distance from the track along z, which runs between world z 5 and 10
+    private static final int NORTH_MIN_Z = 13;
+    private static final int SOUTH_MAX_Z = -1;
+    private static final int TRACK_GAP = 4;
+    private static final double PLACEMENT_CHANCE = 0.6;
+
+    private final int seed;
+    private final List<Structure> northTemplates;
+    private final List<Structure> southTemplates;
+    private final int worldEndX;
+    private final LongObjectMap<List<StructurePlacement>> regions = new LongObjectMap<>();
+
+    /**
+     * @param templates templates built facing the track from its north side
+     * @param worldEndX world x where the track ends, no structure reaches past it
+     */
+    public StructureIndex(int seed, List<Structure> templates, int worldEndX) {
+        this.seed = seed;
+        this.worldEndX = worldEndX;
+        northTemplates = new ArrayList<>(templates);
+        southTemplates = new ArrayList<>(templates.size());
+        for (Structure template : templates) {
+            if (template.getSizeX() > REGION_BLOCKS || template.getSizeZ() + TRACK_GAP + NORTH_MIN_Z > REGION_BLOCKS) {
+                throw new IllegalArgumentException("Structure " + template.getName() + " does not fit in a region");
+            }
+            southTemplates.add(template.mirrorZ());
+        }
+    }
+
+    public static int regionOf(int chunkCoordinate) {
+        return chunkCoordinate >> REGION_SHIFT;
+    }
+
+    /**
+     * Returns the placements of the given region. Regions away from the track have none.
+     */
+    public List<StructurePlacement> getPlacements(int regionX, int regionZ) {
+        if ((regionZ != 0 && regionZ != -1) || regionX < 1 || regionX * REGION_BLOCKS >= worldEndX) {
+            return Collections.emptyList();
+        }
+        long key = ChunkKey.pack(regionX, 0, regionZ);
+        synchronized (regions) {
+            List<StructurePlacement> placements = regions.get(key);
+            if (placements == null) {
+                placements = planRegion(regionX, regionZ);
+                regions.put(key, placements);
+            }
+            return placements;
+        }
+    }
+
+    /**
+     * Returns the placements that have blocks inside the given chunk.
+     */
+    public List<StructurePlacement> getPlacementsIntersecting(int chunkX, int chunkY, int chunkZ) {
+        List<StructurePlacement> placements = getPlacements(regionOf(chunkX), regionOf(chunkZ));
+        if (placements.isEmpty()) return placements;
+        List<StructurePlacement> intersecting = new ArrayList<>(placements.size());
+        for (StructurePlacement placement : placements) {
+            if (placement.intersectsChunk(chunkX, chunkY, chunkZ)) {
+                intersecting.add(placement);
+            }
+        }
+        return intersecting;
+    }
+
+    /**
+     * Mixes the seed with the region coordinates, so neighbouring regions draw unrelated values.
+     */
+    private long regionSeed(int regionX, int regionZ) {
+        long mixed = seed;
+        mixed = mixed * 0x9E3779B97F4A7C15L + regionX;
+        mixed = mixed * 0x9E3779B97F4A7C15L + regionZ;
+        // SplitMix64 finalizer
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    private List<StructurePlacement> planRegion(int regionX, int regionZ) {
+        Random random = new Random(regionSeed(regionX, regionZ));
+        if (northTemplates.isEmpty() || random.nextDouble() >= PLACEMENT_CHANCE) {
+            return Collections.emptyList();
+        }
+
+        boolean north = regionZ == 0;
+        int choice = random.nextInt(northTemplates.size());
+        Structure structure = north ? northTemplates.get(choice) : southTemplates.get(choice);
+        int regionWorldX = regionX * REGION_BLOCKS;
+        int originX = regionWorldX + random.nextInt(REGION_BLOCKS - structure.getSizeX() + 1);
+        if (originX + structure.getSizeX() > worldEndX) {
+            return Collections.emptyList();
+        }
+        int gap = random.nextInt(TRACK_GAP + 1);
+        int originZ = north ? NORTH_MIN_Z + gap : SOUTH_MAX_Z - gap - structure.getSizeZ() + 1;
+        return Collections.singletonList(new StructurePlacement(structure, originX, FLOOR_Y, originZ));
+    }
+}
@@ -0,0 +1,401 @@
+package application.game_features.generate_chunk.noise;
+
+import java.util.Arrays;
+
+// Adapted from https://adrianb.io/2014/08/09/perlinnoise.html
+/**
+ * Seeded Perlin noise with its own octave settings. Instances are immutable, so one generator can be
+ * shared by every generation worker and gives the same values on every thread.
+ * The sample methods take world coordinates and apply the configured scale, octaves and persistence.
+ * The perlin methods work directly in noise space.
+ */
+public final class NoiseGenerator {
+    private final int seed;
+    private final int octaves;
+    private final double persistence;
+    private final double scale;
+    private final double layer;
+
+    /**
+     * @param seed        mixed into every lattice hash
+     * @param octaves     number of octaves summed, each at twice the frequency of the last
+     * @param persistence amplitude of each octave relative to the one before
+     * @param scale       noise units per world block
+     * @param layer       noise space height of the plane read by the two dimensional sample methods,
+     *                    so features sharing a seed can read unrelated noise
+     */
+    public NoiseGenerator(int seed, int octaves, double persistence, double scale, double layer) {
+        if (octaves <= 0) {
+            throw new IllegalArgumentException("octaves must be positive, got " + octaves);
+        }
+        this.seed = seed;
+        this.octaves = octaves;
+        this.persistence = persistence;
+        this.scale = scale;
+        this.layer = layer;
+    }
+
+    /**
+     * Returns a generator with the same settings and a different seed.
+     */
+    public NoiseGenerator withSeed(int newSeed) {
+        return new NoiseGenerator(newSeed, octaves, persistence, scale, layer);
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public int getOctaves() {
+        return octaves;
+    }
+
+    public double getPersistence() {
+        return persistence;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getLayer() {
+        return layer;
+    }
+
+    /**
+     * Samples the configured noise at a world position, in the range 0 to 1.
+     */
+    public double sample(double worldX, double worldY, double worldZ) {
+        return octavePerlin(worldX * scale, worldY * scale, worldZ * scale, octaves, persistence);
+    }
+
+    /**
+     * Samples the configured noise at a world column, on the plane set by the layer.
+     */
+    public double sample(double worldX, double worldZ) {
+        return octavePerlin(worldX * scale, layer, worldZ * scale, octaves, persistence);
+    }
+
+    /**
+     * Samples the configured noise for a sizeX by sizeZ block area starting at the given world column,
+     * on the plane set by the layer. Values are laid out as [x][z], and agree with {@link #sample(double, double)}
+     * at each column to within rounding, as the grid steps from the scaled origin.
+     */
+    public void sampleGrid(double[] out, int worldX, int worldZ, int sizeX, int sizeZ) {
+        octavePerlinGrid(out, worldX * scale, layer, worldZ * scale, scale, sizeX, sizeZ, octaves, persistence);
+    }
+
+    /**
+     * Samples the configured noise for a block area like {@link #sampleGrid(double[], int, int, int, int)},
+     * into floats.
+     */
+    public void sampleGrid(float[] out, int worldX, int worldZ, int sizeX, int sizeZ) {
+        octavePerlinGrid(out, worldX * scale, layer, worldZ * scale, scale, sizeX, sizeZ, octaves, persistence);
+    }
+
+    private int intHash(int x, int y, int z) {
+        int p1 = 73856093;
+        int p2 = 19349663;
+        int p3 = 83492791;
+
+        // random hash might change to something else later
+        int result = (x * p1) ^ (y * p2) ^ (z * p3) ^ seed;
+        result = result * result * result * 60493;
+        return result ^ (result >> 13);
+    }
+
+    public double octavePerlin(double x, double y, double z, int octaves, double persistence) {
+        if (octaves <= 0) return 0;
+        double total = 0;
+        double frequency = 1;
+        double amplitude = 1;
+        double maxValue = 0;    // Used to normalize values
+        for (int i = 0; i < octaves; i++) {
+            total += perlin(x * frequency, y * frequency, z * frequency) * amplitude;
+            maxValue += amplitude;
+            amplitude *= persistence;
+            frequency *= 2;
+        }
+        return total / maxValue;
+    }
+
+    public double perlin(double x, double y, double z) {
+        int xi = (int) Math.floor(x);
+        int yi = (int) Math.floor(y);
+        int zi = (int) Math.floor(z);
+
+        double xf = x - xi;
+        double yf = y - yi;
+        double zf = z - zi;
+
+        double u = fade(xf);
+        double v = fade(yf);
+        double w = fade(zf);
+
+        // Hash values to add randomness
+        int aaa = intHash(xi, yi, zi);
+        int aba = intHash(xi, yi + 1, zi);
+        int aab = intHash(xi, yi, zi + 1);
+        int abb = intHash(xi, yi + 1, zi + 1);
+        int baa = intHash(xi + 1, yi, zi);
+        int bba = intHash(xi + 1, yi + 1, zi);
+        int bab = intHash(xi + 1, yi, zi + 1);
+        int bbb = intHash(xi + 1, yi + 1, zi + 1);
+
+        // The gradient function calculates the dot product between a pseudorandom
+        // gradient vector and the vector from the input coordinate to the 8
+        // surrounding points in its unit cube.
+        // This is all then lerped together as a sort of weighted average based on the faded (u,v,w)
+        // values we made earlier.
+        double x1, x2, y1, y2;
+        x1 = lerp(
+            grad(aaa, xf, yf, zf),
+            grad(baa, xf - 1, yf, zf),
+            u
+        );
+        x2 = lerp(
+            grad(aba, xf, yf - 1, zf),
+            grad(bba, xf - 1, yf - 1, zf),
+            u
+        );
+        y1 = lerp(x1, x2, v);
+
+        x1 = lerp(
+            grad(aab, xf, yf, zf - 1),
+            grad(bab, xf - 1, yf, zf - 1),
+            u
+        );
+        x2 = lerp(
+            grad(abb, xf, yf - 1, zf - 1),
+            grad(bbb, xf - 1, yf - 1, zf - 1),
+            u
+        );
+        y2 = lerp(x1, x2, v);
+        return (lerp(y1, y2, w) + 1) / 2;
+    }
+
+    /**
+     * Samples octavePerlin on a sizeX by sizeZ grid in the plane at height y into out, laid out as [x][z].
+     * Sample (i, k) is taken at (originX + i * step, y, originZ + k * step), worked out in double.
+     * At those coordinates it gives the same values as octavePerlin, but the lattice hashes are computed
+     * once per lattice cell instead of eight times per sample. Callers that build their coordinates
+     * another way, such as (worldX + i) * scale or a float product, only agree to within rounding.
+     */
+    public void octavePerlinGrid(double[] out, double originX, double y, double originZ, double step,
+        int sizeX, int sizeZ, int octaves, double persistence) {
+        GridKernel kernel = new GridKernel(sizeX, sizeZ, step, out.length);
+        double[] row = kernel.row;
+        Arrays.fill(out, 0, sizeX * sizeZ, 0);
+        double maxValue = 0;
+        double frequency = 1;
+        double amplitude = 1;
+        for (int octave = 0; octave < octaves; octave++) {
+            kernel.prepare(originZ, y, frequency);
+            for (int i = 0; i < sizeX; i++) {
+                kernel.sampleRow(originX + i * step, frequency);
+                int offset = i * sizeZ;
+                for (int k = 0; k < sizeZ; k++) {
+                    out[offset + k] += row[k] * amplitude;
+                }
+            }
+            maxValue += amplitude;
+            amplitude *= persistence;
+            frequency *= 2;
+        }
+        if (maxValue == 0) return;
+        for (int index = 0; index < sizeX * sizeZ; index++) {
+            out[index] /= maxValue;
+        }
+    }
+
+    /**
+     * Samples octavePerlin on a grid like the double version, summing the octaves straight into out.
+     * Each value is within float rounding of the double grid.
+     */
+    public void octavePerlinGrid(float[] out, double originX, double y, double originZ, double step,
+        int sizeX, int sizeZ, int octaves, double persistence) {
+        GridKernel kernel = new GridKernel(sizeX, sizeZ, step, out.length);
+        double[] row = kernel.row;
+        Arrays.fill(out, 0, sizeX * sizeZ, 0);
+        double maxValue = 0;
+        double amplitude = 1;
+        for (int octave = 0; octave < octaves; octave++) {
+            maxValue += amplitude;
+            amplitude *= persistence;
+        }
+        if (maxValue == 0) return;
+        // Each octave is weighted by its share of the total, so no second pass is needed to normalize
+        double frequency = 1;
+        double weight = 1 / maxValue;
+        for (int octave = 0; octave < octaves; octave++) {
+            kernel.prepare(originZ, y, frequency);
+            for (int i = 0; i < sizeX; i++) {
+                kernel.sampleRow(originX + i * step, frequency);
+                int offset = i * sizeZ;
+                for (int k = 0; k < sizeZ; k++) {
+                    out[offset + k] += (float) (row[k] * weight);
+                }
+            }
+            weight *= persistence;
+            frequency *= 2;
+        }
+    }
+
+    /**
+     * Samples perlin on a grid, like {@link #octavePerlinGrid} with a single octave.
+     */
+    public void perlinGrid(double[] out, double originX, double y, double originZ, double step,
+        int sizeX, int sizeZ) {
+        octavePerlinGrid(out, originX, y, originZ, step, sizeX, sizeZ, 1, 1);
+    }
+
+    /**
+     * Samples perlin on a grid into floats, like {@link #octavePerlinGrid} with a single octave.
+     */
+    public void perlinGrid(float[] out, double originX, double y, double originZ, double step,
+        int sizeX, int sizeZ) {
+        octavePerlinGrid(out, originX, y, originZ, step, sizeX, sizeZ, 1, 1);
+    }
+
+    /**
+     * Scratch state for sampling one octave of a grid a row of constant x at a time.
+     * The z and y lattice positions are worked out once per octave, the corner hashes once per x cell.
+     */
+    private final class GridKernel {
+        private final int sizeZ;
+        private final double step;
+        private final double[] row;
+        private final int[] zCell;
+        private final double[] zFrac;
+        private final double[] zFade;
+        // Corner hashes along z for the current x cell, as [corner][lattice z] with corners
+        // (x, y), (x, y + 1), (x + 1, y), (x + 1, y + 1)
+        private int[] hashes = new int[0];
+        private int cellCount;
+        private int firstCell;
+        private int yi;
+        private double yf;
+        private double v;
+        private int hashedX;
+        private boolean hashed;
+
+        private GridKernel(int sizeX, int sizeZ, double step, int outLength) {
+            if (sizeX <= 0 || sizeZ <= 0) {
+                throw new IllegalArgumentException("Grid must have at least one sample, got " + sizeX + "x" + sizeZ);
+            }
+            if (!(step > 0)) {
+                throw new IllegalArgumentException("Step must be positive, got " + step);
+            }
+            if (outLength < sizeX * sizeZ) {
+                throw new IllegalArgumentException("Output holds " + outLength + " values, need " + sizeX * sizeZ);
+            }
+            this.sizeZ = sizeZ;
+            this.step = step;
+            row = new double[sizeZ];
+            zCell = new int[sizeZ];
+            zFrac = new double[sizeZ];
+            zFade = new double[sizeZ];
+        }
+
+        private void prepare(double originZ, double y, double frequency) {
+            for (int k = 0; k < sizeZ; k++) {
+                double z = (originZ + k * step) * frequency;
+                zCell[k] = (int) Math.floor(z);
+                zFrac[k] = z - zCell[k];
+                zFade[k] = fade(zFrac[k]);
+            }
+            firstCell = zCell[0];
+            // One extra lattice point for the far side of the last cell
+            cellCount = zCell[sizeZ - 1] - firstCell + 2;
+            if (hashes.length < 4 * cellCount) {
+                hashes = new int[4 * cellCount];
+            }
+            double scaledY = y * frequency;
+            yi = (int) Math.floor(scaledY);
+            yf = scaledY - yi;
+            v = fade(yf);
+            hashed = false;
+        }
+
+        private void sampleRow(double x, double frequency) {
+            double scaledX = x * frequency;
+            int xi = (int) Math.floor(scaledX);
+            double xf = scaledX - xi;
+            double u = fade(xf);
+
+            if (!hashed || xi != hashedX) {
+                for (int c = 0; c < cellCount; c++) {
+                    int zi = firstCell + c;
+                    hashes[c] = intHash(xi, yi, zi);
+                    hashes[cellCount + c] = intHash(xi, yi + 1, zi);
+                    hashes[2 * cellCount + c] = intHash(xi + 1, yi, zi);
+                    hashes[3 * cellCount + c] = intHash(xi + 1, yi + 1, zi);
+                }
+                hashedX = xi;
+                hashed = true;
+            }
+
+            int n = cellCount;
+            for (int k = 0; k < sizeZ; k++) {
+                int c = zCell[k] - firstCell;
+                double zf = zFrac[k];
+                double x1 = lerp(grad(hashes[c], xf, yf, zf), grad(hashes[2 * n + c], xf - 1, yf, zf), u);
+                double x2 = lerp(grad(hashes[n + c], xf, yf - 1, zf), grad(hashes[3 * n + c], xf - 1, yf - 1, zf), u);
+                double y1 = lerp(x1, x2, v);
+
+                x1 = lerp(grad(hashes[c + 1], xf, yf, zf - 1), grad(hashes[2 * n + c + 1], xf - 1, yf, zf - 1), u);
+                x2 = lerp(grad(hashes[n + c + 1], xf, yf - 1, zf - 1),
+                    grad(hashes[3 * n + c + 1], xf - 1, yf - 1, zf - 1), u);
+                double y2 = lerp(x1, x2, v);
+                row[k] = (lerp(y1, y2, zFade[k]) + 1) / 2;
+            }
+        }
+    }
+
+    private static double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10); // 6t^5 - 15t^4 + 10t^3
+    }
+
+    // Source: http://riven8192.blogspot.com/2010/08/calculate-perlinnoise-twice-as-fast.html
+    public static double grad(int hash, double x, double y, double z) {
+        switch (hash & 0xF) {
+            case 0x0:
+                return x + y;
+            case 0x1:
+                return -x + y;
+            case 0x2:
+                return x - y;
+            case 0x3:
+                return -x - y;
+            case 0x4:
+                return x + z;
+            case 0x5:
+                return -x + z;
+            case 0x6:
+                return x - z;
+            case 0x7:
+                return -x - z;
+            case 0x8:
+                return y + z;
+            case 0x9:
+                return -y + z;
+            case 0xA:
+                return y - z;
+            case 0xB:
+                return -y - z;
+            case 0xC:
+                return y + x;
+            case 0xD:
+                return -y + z;
+            case 0xE:
+                return y - x;
+            default: // There should be no other case
+                return -y - z;
+        }
+    }
+
+    // Linear interpolation
+    private static double lerp(double a, double b, double x) {
+        return a + x * (b - a);
+    }
+}
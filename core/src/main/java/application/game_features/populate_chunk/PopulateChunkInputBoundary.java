@@ -1,5 +1,18 @@
 package application.game_features.populate_chunk;
 
 public interface PopulateChunkInputBoundary {
+    /**
+     * Plans and commits the entities of a chunk on the calling thread.
+     */
     void execute(PopulateChunkInputData inputData);
+
+    /**
+     * Decides which entities a chunk spawns without creating any, so it can run on a generation worker.
+     */
+    PopulateChunkOutputData plan(PopulateChunkInputData inputData);
+
+    /**
+     * Creates the planned entities. Must run on the simulation thread.
+     */
+    void commit(PopulateChunkOutputData outputData);
 }
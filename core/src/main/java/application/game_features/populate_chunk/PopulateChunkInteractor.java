@@ -1,5 +1,8 @@
 package application.game_features.populate_chunk;
 
+import application.game_features.generate_chunk.StructureIndex;
+import application.game_features.generate_chunk.noise.NoiseGenerator;
+import application.game_features.generate_entity.GenerateEntityInputData;
 import application.game_features.generate_entity.pickup.GeneratePickupInputData;
 import application.game_features.generate_entity.player_entity.GeneratePlayerEntityInputData;
 import application.game_features.generate_entity.train.GenerateTrainInputData;
@@ -8,55 +11,128 @@ import domain.entities.EntityFactory;
 import domain.items.Item;
 import domain.items.ItemTypes;
 import domain.world.Chunk;
+import domain.world.ChunkColumn;
 import domain.world.GamePosition;
-import application.game_features.generate_chunk.noise.PerlinNoise;
+import domain.world.StructurePlacement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
+/**
+ * Spawns zombies, pickups and the train, and whatever the structures in the chunk spawn. Planning only
+ * reads the chunk and its column and draws from a random generator seeded by the world seed and the chunk
+ * coordinates, so a chunk always plans the same spawns and planning can run on any thread. Entities are
+ * only created when the plan is committed.
+ */
 public class PopulateChunkInteractor implements PopulateChunkInputBoundary {
+    private static final float SCALE_FACTOR = 0.05f;
+    private static final int DEFAULT_SEED = 0;
+
     private final EntityFactory entityFactory;
-    private final Random random = new Random();
+    private final NoiseGenerator spawnNoise;
+    // Null when the world has no structures
+    private final StructureIndex structures;
 
     public PopulateChunkInteractor(EntityFactory entityFactory) {
+        this(entityFactory, spawnNoise(DEFAULT_SEED));
+    }
+
+    public PopulateChunkInteractor(EntityFactory entityFactory, NoiseGenerator spawnNoise) {
+        this(entityFactory, spawnNoise, null);
+    }
+
+    /**
+     * @param structures the structures stamped by the chunk generator, whose spawn points are populated here
+     */
+    public PopulateChunkInteractor(EntityFactory entityFactory, NoiseGenerator spawnNoise, StructureIndex structures) {
         this.entityFactory = entityFactory;
+        this.spawnNoise = spawnNoise;
+        this.structures = structures;
+    }
+
+    /**
+     * The noise that decides where zombies spawn for the given world seed.
+     * It reads a plane far from the terrain noise, so the two stay unrelated under the same seed.
+     */
+    public static NoiseGenerator spawnNoise(int seed) {
+        return new NoiseGenerator(seed, 1, 1, SCALE_FACTOR * 10, 100);
+    }
+
+    /**
+     * Computes the zombie spawn noise of a column once, so every chunk stacked in it reuses the same values.
+     */
+    private void ensureSpawnNoise(ChunkColumn column) {
+        if (column.hasSpawnNoise()) return;
+
+        int chunkSize = Chunk.CHUNK_SIZE;
+        double[] noise = new double[chunkSize * chunkSize];
+        spawnNoise.sampleGrid(noise, column.getColumnWorldX(), column.getColumnWorldZ(), chunkSize, chunkSize);
+        // Two threads may both compute it, but they produce the same values
+        column.setSpawnNoise(noise);
+    }
+
+    /**
+     * Mixes the world seed with the chunk coordinates, so neighbouring chunks draw unrelated values.
+     */
+    private long chunkSeed(Chunk chunk) {
+        long seed = spawnNoise.getSeed();
+        seed = seed * 0x9E3779B97F4A7C15L + chunk.getChunkX();
+        seed = seed * 0x9E3779B97F4A7C15L + chunk.getChunkY();
+        seed = seed * 0x9E3779B97F4A7C15L + chunk.getChunkZ();
+        // SplitMix64 finalizer
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return seed ^ (seed >>> 31);
     }
 
     @Override
     public void execute(PopulateChunkInputData inputData) {
+        commit(plan(inputData));
+    }
+
+    @Override
+    public void commit(PopulateChunkOutputData outputData) {
+        entityFactory.createAll(outputData.getSpawns());
+    }
+
+    @Override
+    public PopulateChunkOutputData plan(PopulateChunkInputData inputData) {
         Chunk chunk = inputData.getChunk();
         int chunkSize = Chunk.CHUNK_SIZE;
         int maxHeight = chunk.getChunkWorldY() + Chunk.CHUNK_SIZE - 1;
         int minHeight = chunk.getChunkWorldY();
+        List<GenerateEntityInputData> spawns = new ArrayList<>();
+        Random random = new Random(chunkSeed(chunk));
+        planStructureSpawns(chunk, random, spawns);
 
-        float scaleFactor = 0.05f;
         // We only spawn things on the surface so skip chunks that are below or in the air
-        if (chunk.getMaxBlockHeight() < minHeight || chunk.getMinBlockHeight() > maxHeight) {
-            return;
+        ChunkColumn column = chunk.getColumn();
+        if (column == null
+            || column.getMaxSurfaceHeight() < minHeight || column.getMinSurfaceHeight() > maxHeight) {
+            return new PopulateChunkOutputData(chunk, spawns);
         }
+        ensureSpawnNoise(column);
 
         for (int x = 0; x < chunkSize; x++) {
             for (int z = 0; z < chunkSize; z++) {
                 int worldX = x + chunk.getChunkWorldX();
                 int worldZ = z + chunk.getChunkWorldZ();
 
-                int surfaceHeight = chunk.getHeight(x, z);
+                int surfaceHeight = column.getHeight(x, z);
                 if (chunk.getChunkWorldY() < surfaceHeight) continue;
                 if (isValidSpawn(chunk, worldX, surfaceHeight + 2, worldZ, 100)) {
-                    double zombieNoise = PerlinNoise.perlin(
-                        worldX * scaleFactor * 10, 100f, worldZ * scaleFactor * 10
-                    );
-
-                    if (zombieNoise > 0.85) {
+                    if (column.getSpawnNoise(x, z) > 0.85) {
                         GamePosition pos = new GamePosition(worldX, surfaceHeight + 2, worldZ);
-                        entityFactory.create(new GenerateZombieInputData(pos));
+                        spawns.add(new GenerateZombieInputData(pos));
                     }
                 }
 
                 if (isValidSpawn(chunk, worldX, surfaceHeight + 1, worldZ, 80)) {
                     float spawnChance = 0.00075f;
                     if (random.nextFloat() < spawnChance) {
-                        Item item = randomPickupItem();
+                        Item item = randomPickupItem(random);
                         GamePosition pickupPos = new GamePosition(worldX, surfaceHeight + 1, worldZ);
-                        entityFactory.create(new GeneratePickupInputData(item, pickupPos));
+                        spawns.add(new GeneratePickupInputData(item, pickupPos));
                     }
                 }
             }
@@ -69,10 +145,40 @@ public class PopulateChunkInteractor implements PopulateChunkInputBoundary {
                 1f,
                 chunk.getChunkWorldZ() + (chunkSize / 2f)
             );
-            GenerateTrainInputData trainInput = new GenerateTrainInputData(centerPos);
-            entityFactory.create(trainInput);
-            GeneratePlayerEntityInputData playerInput = new GeneratePlayerEntityInputData(centerPos);
-            entityFactory.create(playerInput);
+            spawns.add(new GenerateTrainInputData(centerPos));
+            spawns.add(new GeneratePlayerEntityInputData(centerPos));
+        }
+        return new PopulateChunkOutputData(chunk, spawns);
+    }
+
+    /**
+     * Adds the spawn points of the structures in the chunk, keeping the same clear area around the start
+     * as the open ground.
+     */
+    private void planStructureSpawns(Chunk chunk, Random random, List<GenerateEntityInputData> spawns) {
+        if (structures == null) return;
+        int chunkX = chunk.getChunkX();
+        int chunkY = chunk.getChunkY();
+        int chunkZ = chunk.getChunkZ();
+        for (StructurePlacement placement : structures.getPlacementsIntersecting(chunkX, chunkY, chunkZ)) {
+            placement.forEachSpawnIn(chunkX, chunkY, chunkZ, (spawn, pos) -> {
+                float distanceSquared = pos.x * pos.x + pos.z * pos.z;
+                switch (spawn.getType()) {
+                    case ZOMBIE:
+                        if (distanceSquared > 100 * 100) {
+                            spawns.add(new GenerateZombieInputData(pos));
+                        }
+                        break;
+                    case PICKUP:
+                        if (distanceSquared > 80 * 80) {
+                            spawns.add(new GeneratePickupInputData(randomPickupItem(random), pos));
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException(
+                            placement + " cannot spawn " + spawn.getType() + ", only zombies and pickups");
+                }
+            });
         }
     }
 
@@ -83,7 +189,7 @@ public class PopulateChunkInteractor implements PopulateChunkInputBoundary {
     }
 
 
-    private Item randomPickupItem() {
+    private static Item randomPickupItem(Random random) {
         int roll = random.nextInt(100); // 0–99
         if (roll < 26) {                      // 26%
             return ItemTypes.WOOD_LOG;
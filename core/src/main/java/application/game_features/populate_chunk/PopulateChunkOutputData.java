@@ -0,0 +1,26 @@
+package application.game_features.populate_chunk;
+
+import application.game_features.generate_entity.GenerateEntityInputData;
+import domain.world.Chunk;
+import java.util.List;
+
+public class PopulateChunkOutputData {
+    private final Chunk chunk;
+    private final List<GenerateEntityInputData> spawns;
+
+    public PopulateChunkOutputData(Chunk chunk, List<GenerateEntityInputData> spawns) {
+        this.chunk = chunk;
+        this.spawns = spawns;
+    }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    /**
+     * Entities to create for the chunk, in the order they were planned.
+     */
+    public List<GenerateEntityInputData> getSpawns() {
+        return spawns;
+    }
+}
@@ -15,11 +15,11 @@ public class RemoveEntityInteractor implements RemoveEntityInputBoundary {
         pendingRemoval.clear();
 
         // COLLECT: Find what needs to die
-        for (Integer id : entityStorage.getAllIds()) {
+        entityStorage.forEachEntity(id -> {
             if (entityStorage.getEntityByID(id).isMarkedForRemoval()) {
                 pendingRemoval.add(id);
             }
-        }
+        });
 
         // KILL: Remove them using the IDs we collected
         for (Integer id : pendingRemoval) {
@@ -0,0 +1,150 @@
+package application.game_features.render_radius;
+
+import java.util.Arrays;
+
+/**
+ * The chunk columns of an area around the player, as offsets from the player's chunk. Every area used for
+ * streaming is convex, so each row of constant z offset is a single run of x offsets. Storing the runs lets
+ * two placements of an area be compared row by row, touching only the columns that differ.
+ *
+ * <p>The columns are also kept as a table sorted by distance from the centre, so an area can be filled
+ * nearest first when there is nothing to compare against. Footprints are immutable and built once per shape.
+ */
+final class ChunkFootprint {
+    private final int minDz;
+    // Inclusive x offset runs of each row from minDz up, empty rows have from > to
+    private final int[] rowFrom;
+    private final int[] rowTo;
+    // Column offsets packed as (dx << 16) | (dz & 0xFFFF), nearest first
+    private final int[] sortedColumns;
+
+    private ChunkFootprint(int minDz, int[] rowFrom, int[] rowTo) {
+        this.minDz = minDz;
+        this.rowFrom = rowFrom;
+        this.rowTo = rowTo;
+        sortedColumns = sortColumns();
+    }
+
+    /**
+     * Columns within the radius of the path from the centre to the lookahead, a disc when standing still.
+     */
+    static ChunkFootprint capsule(double radius, int lookaheadX, int lookaheadZ) {
+        int reach = (int) Math.ceil(radius);
+        int minDz = Math.min(lookaheadZ, 0) - reach;
+        int maxDz = Math.max(lookaheadZ, 0) + reach;
+        int minDx = Math.min(lookaheadX, 0) - reach;
+        int maxDx = Math.max(lookaheadX, 0) + reach;
+        int rows = maxDz - minDz + 1;
+        int[] rowFrom = new int[rows];
+        int[] rowTo = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            int dz = minDz + row;
+            int from = Integer.MAX_VALUE;
+            int to = Integer.MIN_VALUE;
+            for (int dx = minDx; dx <= maxDx; dx++) {
+                if (isWithinRadiusOfPath(dx, dz, lookaheadX, lookaheadZ, radius)) {
+                    from = Math.min(from, dx);
+                    to = Math.max(to, dx);
+                }
+            }
+            rowFrom[row] = from == Integer.MAX_VALUE ? 0 : from;
+            rowTo[row] = from == Integer.MAX_VALUE ? -1 : to;
+        }
+        return new ChunkFootprint(minDz, rowFrom, rowTo);
+    }
+
+    /**
+     * The square of the given radius around the centre, stretched along the lookahead.
+     */
+    static ChunkFootprint sweptSquare(int radius, int lookaheadX, int lookaheadZ) {
+        int minDz = Math.min(lookaheadZ, 0) - radius;
+        int maxDz = Math.max(lookaheadZ, 0) + radius;
+        int rows = maxDz - minDz + 1;
+        int[] rowFrom = new int[rows];
+        int[] rowTo = new int[rows];
+        Arrays.fill(rowFrom, Math.min(lookaheadX, 0) - radius);
+        Arrays.fill(rowTo, Math.max(lookaheadX, 0) + radius);
+        return new ChunkFootprint(minDz, rowFrom, rowTo);
+    }
+
+    /**
+     * Whether a column is within the radius of the path from the centre to the lookahead.
+     */
+    private static boolean isWithinRadiusOfPath(long dx, long dz, int lookaheadX, int lookaheadZ, double radius) {
+        long pathLength2 = (long) lookaheadX * lookaheadX + (long) lookaheadZ * lookaheadZ;
+        if (pathLength2 > 0) {
+            // Measure from the closest point on the path
+            double t = Math.max(0, Math.min(1, (double) (dx * lookaheadX + dz * lookaheadZ) / pathLength2));
+            double px = dx - t * lookaheadX;
+            double pz = dz - t * lookaheadZ;
+            return px * px + pz * pz <= radius * radius;
+        }
+        return dx * dx + dz * dz <= radius * radius;
+    }
+
+    private int[] sortColumns() {
+        int count = 0;
+        for (int row = 0; row < rowFrom.length; row++) {
+            count += Math.max(0, rowTo[row] - rowFrom[row] + 1);
+        }
+        long[] byDistance = new long[count];
+        int i = 0;
+        for (int row = 0; row < rowFrom.length; row++) {
+            int dz = minDz + row;
+            for (int dx = rowFrom[row]; dx <= rowTo[row]; dx++) {
+                long distance2 = (long) dx * dx + (long) dz * dz;
+                // Distance in the high bits, so sorting the longs sorts by distance
+                byDistance[i++] = (distance2 << 32) | (pack(dx, dz) & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(byDistance);
+        int[] sorted = new int[count];
+        for (i = 0; i < count; i++) {
+            sorted[i] = (int) byDistance[i];
+        }
+        return sorted;
+    }
+
+    static int pack(int dx, int dz) {
+        return (dx << 16) | (dz & 0xFFFF);
+    }
+
+    static int unpackDx(int packed) {
+        return packed >> 16;
+    }
+
+    static int unpackDz(int packed) {
+        return (short) packed;
+    }
+
+    int getMinDz() {
+        return minDz;
+    }
+
+    int getMaxDz() {
+        return minDz + rowFrom.length - 1;
+    }
+
+    /**
+     * First x offset of the row at the given z offset. Rows outside the footprint are empty.
+     */
+    int getRowFrom(int dz) {
+        int row = dz - minDz;
+        return row < 0 || row >= rowFrom.length ? 0 : rowFrom[row];
+    }
+
+    /**
+     * Last x offset of the row at the given z offset, less than getRowFrom when the row is empty.
+     */
+    int getRowTo(int dz) {
+        int row = dz - minDz;
+        return row < 0 || row >= rowTo.length ? -1 : rowTo[row];
+    }
+
+    /**
+     * Column offsets packed with pack, nearest to the centre first. The array must not be modified.
+     */
+    int[] getSortedColumns() {
+        return sortedColumns;
+    }
+}
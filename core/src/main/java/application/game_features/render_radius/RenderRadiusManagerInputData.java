@@ -5,14 +5,25 @@ import domain.world.GamePosition;
 public class RenderRadiusManagerInputData {
     private final GamePosition playerPosition;
     private final int renderRadius;
+    // Blocks per second the player is carried at, used to stream chunks ahead of them
+    private final GamePosition velocity;
 
     public RenderRadiusManagerInputData(
         GamePosition playerPosition,
         int radius
     ) {
+        this(playerPosition, radius, GamePosition.Zero);
+    }
+
+    public RenderRadiusManagerInputData(
+        GamePosition playerPosition,
+        int radius,
+        GamePosition velocity
+    ) {
 
         this.playerPosition = playerPosition;
         this.renderRadius = radius;
+        this.velocity = velocity;
     }
 
     public GamePosition getPlayerPosition() {
@@ -22,4 +33,8 @@ public class RenderRadiusManagerInputData {
     public int getRenderRadius() {
         return renderRadius;
     }
+
+    public GamePosition getVelocity() {
+        return velocity;
+    }
 }
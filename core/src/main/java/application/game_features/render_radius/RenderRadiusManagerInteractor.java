@@ -1,139 +1,268 @@
 package application.game_features.render_radius;
 
+import domain.collections.LongObjectMap;
 import domain.world.Chunk;
+import domain.world.ChunkKey;
 import domain.world.GamePosition;
 import domain.world.World;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
+/**
+ * Decides which chunks are generated, meshed and updated around the player.
+ *
+ * <p>While the player is carried along, the areas are stretched ahead of them in the direction of travel:
+ * generation reaches as far as the ride travels in GENERATION_LOOKAHEAD_SECONDS and meshing as far as it
+ * travels in MESH_LOOKAHEAD_SECONDS, so faster rides look further ahead. A longer lookahead is applied as
+ * soon as the ride speeds up, a shorter one only once the player reaches the next chunk, so a slowing ride
+ * does not unload the chunks it is about to enter.
+ *
+ * <p>Each area is a ChunkFootprint placed at the player's chunk. An update compares the placement of the last
+ * update with the new one row by row, so crossing into a neighbouring chunk only visits the strips of columns
+ * that enter or leave an area. Chunks are meshed within the render radius but only unloaded once they are
+ * UNLOAD_MARGIN chunks beyond it, so stepping back and forth over a chunk border does not reload whole strips.
+ * Chunks evicted from the world are not part of either placement, so after any eviction the whole
+ * generation area is checked again for missing chunks, even if the player did not move.
+ *
+ * <p>The chunks to update are a read-only view of the active chunks that stays the same between updates.
+ * Chunks meshed by an update become active at the start of the next one.
+ */
 public class RenderRadiusManagerInteractor implements RenderRadiusManagerInputBoundary {
     private final World world;
     // --- WORLD BOUNDARY CONSTANTS ---
-    private final int MAX_WORLD_Z_CHUNKS = 8;
-    private final int MIN_WORLD_Z_CHUNKS = -8;
+    // Public so offline tools generate exactly the chunks the game would ask for
+    public static final int MAX_WORLD_Z_CHUNKS = 8;
+    public static final int MIN_WORLD_Z_CHUNKS = -8;
+    public static final int MIN_WORLD_X_CHUNKS = -8;
+    public static final int MAX_WORLD_Y_CHUNKS = 4;
+    public static final int MIN_WORLD_Y_CHUNKS = 0;
     // TODO: This needs to be synced globally with chunk generation
     private final int MAX_WORLD_X_CHUNKS;
-    private final int MIN_WORLD_X_CHUNKS = -8;
-    private final int MAX_WORLD_Y_CHUNKS = 4;
-    private final int MIN_WORLD_Y_CHUNKS = 0;
     private final int Y_VIEW_RANGE = 3;
-    // Tracks chunks currently in the world
-    private final Set<GamePosition> renderedChunks = new HashSet<>();
+    // The part of the view range inside the world
+    private final int MIN_VIEW_Y = Math.max(-Y_VIEW_RANGE, MIN_WORLD_Y_CHUNKS);
+    private final int MAX_VIEW_Y = Math.min(Y_VIEW_RANGE, MAX_WORLD_Y_CHUNKS);
+    // --- LOOKAHEAD CONSTANTS ---
+    public static final float GENERATION_LOOKAHEAD_SECONDS = 2f;
+    public static final float MESH_LOOKAHEAD_SECONDS = 1f;
+    public static final int MAX_LOOKAHEAD_CHUNKS = 8;
+    // Two chunks, so walking back and forth over a border, even across a corner, never unloads anything
+    public static final float UNLOAD_MARGIN = 2f;
+    // Tracks chunks currently in the world, by chunk key
+    private final LongObjectMap<GamePosition> renderedChunks = new LongObjectMap<>();
+    // Rendered chunks that are updated, and the view of them handed out
+    private final Set<GamePosition> activeChunks = new HashSet<>();
+    private final Set<GamePosition> activeView = Collections.unmodifiableSet(activeChunks);
+    // Chunks meshed by the last update, activated by the next one
+    private final List<GamePosition> loadedLastUpdate = new ArrayList<>();
+    // Footprints by radius and lookahead, built on first use
+    private final LongObjectMap<ChunkFootprint> meshFootprints = new LongObjectMap<>();
+    private final LongObjectMap<ChunkFootprint> keepFootprints = new LongObjectMap<>();
+    private final LongObjectMap<ChunkFootprint> generationFootprints = new LongObjectMap<>();
+    // Areas of the last update, null before the first
+    private ChunkFootprint lastMeshArea;
+    private ChunkFootprint lastKeepArea;
+    private ChunkFootprint lastGenerationArea;
     private int lastChunkX = Integer.MAX_VALUE;
     private int lastChunkZ = Integer.MAX_VALUE;
+    // Chunks the areas are currently stretched by along x and z
+    private int lastLookaheadX;
+    private int lastLookaheadZ;
+    // The world's eviction count at the last update
+    private long lastEvictionCount;
 
     public RenderRadiusManagerInteractor(World world) {
         this.world = world;
-        MAX_WORLD_X_CHUNKS = world.getWorldDepthChunks() + 12;
+        MAX_WORLD_X_CHUNKS = maxWorldXChunks(world);
+    }
+
+    /**
+     * The last chunk along the track, past the end of the world so the end is never seen.
+     */
+    public static int maxWorldXChunks(World world) {
+        return world.getWorldDepthChunks() + 12;
+    }
+
+    /**
+     * Returns how many chunks a ride at the given velocity, in blocks per second, covers in the given time.
+     * Negative when moving towards smaller coordinates.
+     */
+    public static int lookaheadChunks(float velocity, float seconds) {
+        int chunks = (int) Math.ceil(Math.abs(velocity) * seconds / Chunk.CHUNK_SIZE);
+        return (int) Math.signum(velocity) * Math.min(chunks, MAX_LOOKAHEAD_CHUNKS);
+    }
+
+    /**
+     * Whether a lookahead reaches somewhere the last one did not.
+     */
+    private static boolean reachesFurther(int lookahead, int lastLookahead) {
+        if (lookahead == 0) return false;
+        return Integer.signum(lookahead) != Integer.signum(lastLookahead)
+            || Math.abs(lookahead) > Math.abs(lastLookahead);
     }
 
     @Override
     public RenderRadiusOutputData execute(RenderRadiusManagerInputData inputData) {
         GamePosition playerPos = inputData.getPlayerPosition();
-        RenderRadiusOutputData result = new RenderRadiusOutputData();
+        GamePosition velocity = inputData.getVelocity();
+        RenderRadiusOutputData result = new RenderRadiusOutputData(activeView);
+
+        for (GamePosition pos : loadedLastUpdate) {
+            activeChunks.add(pos);
+        }
+        loadedLastUpdate.clear();
 
         int currentChunkX = (int) Math.floor(playerPos.x / Chunk.CHUNK_SIZE);
         int currentChunkZ = (int) Math.floor(playerPos.z / Chunk.CHUNK_SIZE);
+        int lookaheadX = lookaheadChunks(velocity.x, GENERATION_LOOKAHEAD_SECONDS);
+        int lookaheadZ = lookaheadChunks(velocity.z, GENERATION_LOOKAHEAD_SECONDS);
+        boolean moved = currentChunkX != lastChunkX || currentChunkZ != lastChunkZ;
+        long evictionCount = world.getEvictionCount();
+        boolean evicted = evictionCount != lastEvictionCount;
+        lastEvictionCount = evictionCount;
 
-        // Only update when we move to a new chunk.
-        if (currentChunkX == lastChunkX && currentChunkZ == lastChunkZ) {
-            result.getChunksToUpdate().addAll(renderedChunks);
+        // Only update when we move to a new chunk, or the ride speeds up.
+        if (!moved && !reachesFurther(lookaheadX, lastLookaheadX) && !reachesFurther(lookaheadZ, lastLookaheadZ)) {
+            if (evicted) {
+                forEachColumnNotIn(lastGenerationArea, lastChunkX, lastChunkZ, null, 0, 0,
+                    (chunkX, chunkZ) -> addMissingChunks(chunkX, chunkZ, result.getChunksToGenerate()));
+            }
             return result;
         }
 
-        lastChunkX = currentChunkX;
-        lastChunkZ = currentChunkZ;
+        world.recentreActiveWindow(currentChunkX, (MIN_WORLD_Y_CHUNKS + MAX_WORLD_Y_CHUNKS) / 2, currentChunkZ);
 
         final int RENDER_RADIUS = inputData.getRenderRadius();
         final int GENERATION_RADIUS = RENDER_RADIUS + 1;
-        Set<GamePosition> targetGeneratedChunks =
-            getTargetGeneratedChunks(currentChunkX, currentChunkZ, GENERATION_RADIUS);
-        Set<GamePosition> targetRenderedChunks = getTargetRenderedChunks(currentChunkX, currentChunkZ, RENDER_RADIUS);
+        // Meshing never looks further ahead than generation, so meshed chunks always have generated neighbours
+        int meshLookaheadX = lookaheadChunks(velocity.x, MESH_LOOKAHEAD_SECONDS);
+        int meshLookaheadZ = lookaheadChunks(velocity.z, MESH_LOOKAHEAD_SECONDS);
+        ChunkFootprint meshArea = footprint(meshFootprints, RENDER_RADIUS, meshLookaheadX, meshLookaheadZ,
+            ChunkFootprint::capsule);
+        ChunkFootprint keepArea = footprint(keepFootprints, RENDER_RADIUS, meshLookaheadX, meshLookaheadZ,
+            (radius, x, z) -> ChunkFootprint.capsule(radius + UNLOAD_MARGIN, x, z));
+        // The square around the player, swept along the lookahead
+        ChunkFootprint generationArea = footprint(generationFootprints, GENERATION_RADIUS, lookaheadX, lookaheadZ,
+            ChunkFootprint::sweptSquare);
 
         // --- Unload Chunks ---
-        Iterator<GamePosition> renderedIterator = renderedChunks.iterator();
-        while (renderedIterator.hasNext()) {
-            GamePosition pos = renderedIterator.next();
-            if (targetRenderedChunks.contains(pos)) continue;
-            result.getChunksToUnload().add(pos);
-            renderedIterator.remove();
-        }
-
-        result.getChunksToUpdate().clear();
-        result.getChunksToUpdate().addAll(renderedChunks);
+        // Every rendered chunk is inside the last keep area, so only the columns that left it can unload
+        forEachColumnNotIn(lastKeepArea, lastChunkX, lastChunkZ, keepArea, currentChunkX, currentChunkZ,
+            (chunkX, chunkZ) -> {
+                for (int y = MIN_VIEW_Y; y <= MAX_VIEW_Y; y++) {
+                    GamePosition pos = renderedChunks.remove(ChunkKey.pack(chunkX, y, chunkZ));
+                    if (pos == null) continue;
+                    activeChunks.remove(pos);
+                    result.getChunksToUnload().add(pos);
+                }
+            });
 
         // --- GENERATE NEW CHUNKS ---
-        for (GamePosition pos : targetGeneratedChunks) {
-            if (world.hasChunk(pos)) continue;
-            result.getChunksToGenerate().add(pos);
-        }
+        // Evicted chunks may be anywhere in the area, otherwise only the columns that entered it can be missing
+        ChunkFootprint generatedArea = evicted ? null : lastGenerationArea;
+        forEachColumnNotIn(generationArea, currentChunkX, currentChunkZ, generatedArea, lastChunkX, lastChunkZ,
+            (chunkX, chunkZ) -> addMissingChunks(chunkX, chunkZ, result.getChunksToGenerate()));
+        // Chunks of the last area that are outside this one and still missing may be waiting for generation
+        forEachColumnNotIn(lastGenerationArea, lastChunkX, lastChunkZ, generationArea, currentChunkX, currentChunkZ,
+            (chunkX, chunkZ) -> addMissingChunks(chunkX, chunkZ, result.getChunksToCancel()));
 
         // --- MESH NEW CHUNKS ---
-        for (GamePosition pos : targetRenderedChunks) {
-            if (renderedChunks.contains(pos)) continue;
-            renderedChunks.add(pos);
-            result.getChunksToLoad().add(pos);
-        }
+        // Every chunk of the last mesh area is rendered, and some of the new columns may still be kept
+        forEachColumnNotIn(meshArea, currentChunkX, currentChunkZ, lastMeshArea, lastChunkX, lastChunkZ,
+            (chunkX, chunkZ) -> {
+                for (int y = MIN_VIEW_Y; y <= MAX_VIEW_Y; y++) {
+                    long key = ChunkKey.pack(chunkX, y, chunkZ);
+                    if (renderedChunks.containsKey(key)) continue;
+                    GamePosition pos = new GamePosition(chunkX, y, chunkZ);
+                    renderedChunks.put(key, pos);
+                    loadedLastUpdate.add(pos);
+                    result.getChunksToLoad().add(pos);
+                }
+            });
 
+        lastChunkX = currentChunkX;
+        lastChunkZ = currentChunkZ;
+        lastLookaheadX = lookaheadX;
+        lastLookaheadZ = lookaheadZ;
+        lastMeshArea = meshArea;
+        lastKeepArea = keepArea;
+        lastGenerationArea = generationArea;
         return result;
     }
 
-    private Set<GamePosition> getTargetGeneratedChunks(int currentChunkX, int currentChunkZ, int generationRadius) {
-        int zStart = Math.max(currentChunkZ - generationRadius, MIN_WORLD_Z_CHUNKS);
-        int zEnd = Math.min(currentChunkZ + generationRadius, MAX_WORLD_Z_CHUNKS);
+    // Only allocates positions for chunks that are missing from the world
+    private void addMissingChunks(int chunkX, int chunkZ, Set<GamePosition> out) {
+        for (int y = MIN_VIEW_Y; y <= MAX_VIEW_Y; y++) {
+            if (world.hasChunk(ChunkKey.pack(chunkX, y, chunkZ))) continue;
+            out.add(new GamePosition(chunkX, y, chunkZ));
+        }
+    }
 
-        int xStart = Math.max(currentChunkX - generationRadius, MIN_WORLD_X_CHUNKS);
-        int xEnd = Math.min(currentChunkX + generationRadius, MAX_WORLD_X_CHUNKS);
-        Set<GamePosition> targetGeneratedChunks = new HashSet<>();
-        for (int targetX = xStart; targetX <= xEnd; targetX++) {
-            for (int targetZ = zStart; targetZ <= zEnd; targetZ++) {
-                for (int y = -Y_VIEW_RANGE; y <= Y_VIEW_RANGE; y++) {
-                    if (!isWithinWorldBounds(targetX, y, targetZ)) continue;
-                    GamePosition chunkPos = new GamePosition(targetX, y, targetZ);
+    private static ChunkFootprint footprint(LongObjectMap<ChunkFootprint> cache, int radius,
+                                            int lookaheadX, int lookaheadZ, FootprintShape shape) {
+        long key = ChunkKey.pack(lookaheadX, radius, lookaheadZ);
+        ChunkFootprint footprint = cache.get(key);
+        if (footprint == null) {
+            footprint = shape.build(radius, lookaheadX, lookaheadZ);
+            cache.put(key, footprint);
+        }
+        return footprint;
+    }
 
-                    targetGeneratedChunks.add(chunkPos);
+    /**
+     * Passes every column of area a placed at (ax, az) that is inside the world and not in area b placed at
+     * (bx, bz) to the action. A null b is empty, and then the columns of a come nearest first.
+     */
+    private void forEachColumnNotIn(ChunkFootprint a, int ax, int az, ChunkFootprint b, int bx, int bz,
+                                   ColumnAction action) {
+        if (a == null) return;
+        if (b == null) {
+            for (int packed : a.getSortedColumns()) {
+                int chunkX = ax + ChunkFootprint.unpackDx(packed);
+                int chunkZ = az + ChunkFootprint.unpackDz(packed);
+                if (isWithinWorldColumns(chunkX, chunkZ)) {
+                    action.accept(chunkX, chunkZ);
                 }
             }
+            return;
         }
-        return targetGeneratedChunks;
-    }
 
-    private Set<GamePosition> getTargetRenderedChunks(int currentChunkX, int currentChunkZ, int renderRadius) {
-        int zStart = Math.max(currentChunkZ - renderRadius, MIN_WORLD_Z_CHUNKS);
-        int zEnd = Math.min(currentChunkZ + renderRadius, MAX_WORLD_Z_CHUNKS);
-
-        int xStart = Math.max(currentChunkX - renderRadius, MIN_WORLD_X_CHUNKS);
-        int xEnd = Math.min(currentChunkX + renderRadius, MAX_WORLD_X_CHUNKS);
-        Set<GamePosition> targetRenderedChunks = new HashSet<>();
-        for (int targetX = xStart; targetX <= xEnd; targetX++) {
-            for (int targetZ = zStart; targetZ <= zEnd; targetZ++) {
-                for (int y = -Y_VIEW_RANGE; y <= Y_VIEW_RANGE; y++) {
-                    if (!isWithinWorldBounds(targetX, y, targetZ)) continue;
-                    GamePosition chunkPos = new GamePosition(targetX, y, targetZ);
-
-                    // Only mesh if within the smaller render radius
-                    if (isWithinRadius(targetX, targetZ, currentChunkX, currentChunkZ, renderRadius)) {
-                        targetRenderedChunks.add(chunkPos);
-                    }
-                }
+        int zStart = Math.max(az + a.getMinDz(), MIN_WORLD_Z_CHUNKS);
+        int zEnd = Math.min(az + a.getMaxDz(), MAX_WORLD_Z_CHUNKS);
+        for (int chunkZ = zStart; chunkZ <= zEnd; chunkZ++) {
+            int xStart = Math.max(ax + a.getRowFrom(chunkZ - az), MIN_WORLD_X_CHUNKS);
+            int xEnd = Math.min(ax + a.getRowTo(chunkZ - az), MAX_WORLD_X_CHUNKS);
+            // The run of b in this row splits the run of a into at most two parts outside it
+            int skipFrom = bx + b.getRowFrom(chunkZ - bz);
+            int skipTo = bx + b.getRowTo(chunkZ - bz);
+            if (skipFrom > skipTo) {
+                skipFrom = xEnd + 1;
+                skipTo = xEnd;
+            }
+            for (int chunkX = xStart; chunkX <= Math.min(xEnd, skipFrom - 1); chunkX++) {
+                action.accept(chunkX, chunkZ);
+            }
+            for (int chunkX = Math.max(xStart, skipTo + 1); chunkX <= xEnd; chunkX++) {
+                action.accept(chunkX, chunkZ);
             }
         }
-        return targetRenderedChunks;
     }
 
-    private boolean isWithinWorldBounds(int x, int y, int z) {
+    private boolean isWithinWorldColumns(int x, int z) {
         return z >= MIN_WORLD_Z_CHUNKS &&
             z <= MAX_WORLD_Z_CHUNKS &&
             x >= MIN_WORLD_X_CHUNKS &&
-            x <= MAX_WORLD_X_CHUNKS &&
-            y >= MIN_WORLD_Y_CHUNKS &&
-            y <= MAX_WORLD_Y_CHUNKS;
+            x <= MAX_WORLD_X_CHUNKS;
+    }
+
+    private interface FootprintShape {
+        ChunkFootprint build(int radius, int lookaheadX, int lookaheadZ);
     }
 
-    private boolean isWithinRadius(int chunkX, int chunkZ, int centerX, int centerZ, int radius) {
-        long dx = chunkX - centerX;
-        long dz = chunkZ - centerZ;
-        return (dx * dx + dz * dz) <= (long) radius * radius;
+    private interface ColumnAction {
+        void accept(int chunkX, int chunkZ);
     }
 }
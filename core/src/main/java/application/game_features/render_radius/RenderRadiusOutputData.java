@@ -9,12 +9,21 @@ public class RenderRadiusOutputData {
     private final Set<GamePosition> chunksToLoad;
     private final Set<GamePosition> chunksToUnload;
     private final Set<GamePosition> chunksToUpdate;
+    private final Set<GamePosition> chunksToCancel;
 
     public RenderRadiusOutputData() {
+        this(new HashSet<>());
+    }
+
+    /**
+     * @param chunksToUpdate the active chunks, usually a read-only view the manager keeps up to date
+     */
+    public RenderRadiusOutputData(Set<GamePosition> chunksToUpdate) {
         chunksToGenerate = new HashSet<>();
         chunksToLoad = new HashSet<>();
         chunksToUnload = new HashSet<>();
-        chunksToUpdate = new HashSet<>();
+        this.chunksToUpdate = chunksToUpdate;
+        chunksToCancel = new HashSet<>();
     }
 
     public Set<GamePosition> getChunksToGenerate() {
@@ -29,7 +38,18 @@ public class RenderRadiusOutputData {
         return chunksToUnload;
     }
 
+    /**
+     * Chunks whose entities are updated. Returned by the manager as a read-only view that follows later
+     * updates, so it should be read before the next one rather than kept.
+     */
     public Set<GamePosition> getChunksToUpdate() {
         return chunksToUpdate;
     }
+
+    /**
+     * Chunks that left the generation area without being generated, so requests for them can be dropped.
+     */
+    public Set<GamePosition> getChunksToCancel() {
+        return chunksToCancel;
+    }
 }
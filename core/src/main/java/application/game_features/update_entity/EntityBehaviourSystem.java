@@ -1,13 +1,14 @@
 package application.game_features.update_entity;
 
 import application.gateways.EntityStorage;
+import domain.collections.IntList;
 import domain.entities.Entity;
 import domain.entities.EntityType;
 import domain.world.Chunk;
-import domain.world.GamePosition;
+import domain.world.ChunkKey;
 import domain.world.World;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class EntityBehaviourSystem {
@@ -17,7 +18,8 @@ public class EntityBehaviourSystem {
     // Map Enum types to specific strategies
     private final Map<EntityType, EntityBehaviour> behaviors;
 
-    private Map<Integer, GamePosition> entityToPosition;
+    // Chunk key of each active entity at the start of the tick, aligned with the active entity list
+    private long[] previousChunkKeys;
 
     public EntityBehaviourSystem(
         Map<EntityType, EntityBehaviour> behaviors, EntityStorage storage, World world
@@ -26,13 +28,13 @@ public class EntityBehaviourSystem {
         this.world = world;
         this.behaviors = behaviors;
 
-        entityToPosition = new HashMap<>();
+        previousChunkKeys = new long[64];
     }
 
-    public void update(List<Integer> activeEntities, float deltaTime) {
+    public void update(IntList activeEntities, float deltaTime) {
         // Create context once per frame
-        for (Integer entityID : activeEntities) {
-            Entity entity = storage.getEntityByID(entityID);
+        for (int i = 0; i < activeEntities.size(); i++) {
+            Entity entity = storage.getEntityByID(activeEntities.get(i));
             EntityBehaviour strategy = behaviors.get(entity.getType());
 
             if (strategy != null) {
@@ -41,25 +43,35 @@ public class EntityBehaviourSystem {
         }
     }
 
-    public void updateCache(List<Integer> activeEntities) {
-        for (Integer entityID : activeEntities) {
-            Entity entity = storage.getEntityByID(entityID);
-            entityToPosition.put(entityID, entity.getPosition().cpy());
+    public void updateCache(IntList activeEntities) {
+        int count = activeEntities.size();
+        if (previousChunkKeys.length < count) {
+            previousChunkKeys = Arrays.copyOf(previousChunkKeys, Math.max(count, previousChunkKeys.length * 2));
+        }
+        for (int i = 0; i < count; i++) {
+            Entity entity = storage.getEntityByID(activeEntities.get(i));
+            previousChunkKeys[i] = ChunkKey.fromWorldPosition(entity.getPosition());
         }
     }
 
-    public void unloadCache(List<Integer> activeEntities) {
-        for (Integer entityID : activeEntities) {
-            GamePosition previousPos = entityToPosition.get(entityID);
-            Chunk previousChunk = world.getChunkFromWorldPos(previousPos);
+    /**
+     * Moves entities between chunks after they have been updated.
+     * Must be passed the same list as the preceding {@link #updateCache(IntList)}.
+     */
+    public void unloadCache(IntList activeEntities) {
+        for (int i = 0; i < activeEntities.size(); i++) {
+            int entityID = activeEntities.get(i);
+            long previousKey = previousChunkKeys[i];
+            long newKey = ChunkKey.fromWorldPosition(storage.getEntityByID(entityID).getPosition());
+            if (previousKey == newKey) continue;
 
-            GamePosition newPos = storage.getEntityByID(entityID).getPosition();
-            Chunk newChunk = world.getChunkFromWorldPos(newPos);
+            Chunk previousChunk = world.getChunk(previousKey);
+            Chunk newChunk = world.getChunk(newKey);
 
             if (previousChunk != newChunk) {
-                previousChunk.getEntityIds().remove(entityID);
+                if (previousChunk != null) previousChunk.removeEntity(entityID);
                 if (newChunk == null) continue;
-                newChunk.getEntityIds().add(entityID);
+                newChunk.addEntity(entityID);
             }
         }
     }
@@ -1,71 +1,235 @@
 package application.game_features.update_world;
 
+import application.game_features.generate_chunk.ChunkGenerationPipeline;
+import application.game_features.generate_chunk.ChunkGenerationPipeline.GeneratedChunk;
+import application.game_features.generate_chunk.ChunkPriority;
 import application.game_features.generate_chunk.GenerateChunkInputBoundary;
-import application.game_features.generate_chunk.GenerateChunkInputData;
-import application.game_features.generate_chunk.GenerateChunkOutputData;
 import application.game_features.populate_chunk.PopulateChunkInputBoundary;
 import application.game_features.populate_chunk.PopulateChunkInputData;
+import application.game_features.populate_chunk.PopulateChunkOutputData;
 import application.game_features.render_radius.RenderRadiusManagerInputBoundary;
 import application.game_features.render_radius.RenderRadiusManagerInputData;
 import application.game_features.render_radius.RenderRadiusOutputData;
+import application.gateways.BlockRepository;
+import application.gateways.ChunkRepository;
+import domain.collections.IntList;
+import domain.entities.Rideable;
 import domain.player.Player;
 import domain.world.Chunk;
+import domain.world.ChunkKey;
 import domain.world.GamePosition;
 import domain.world.World;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
 
 public class UpdateWorldInteractor implements UpdateWorldInputBoundary {
     private final RenderRadiusManagerInputBoundary renderRadiusManager;
-    private final GenerateChunkInputBoundary chunkGenerator;
+    private final ChunkGenerationPipeline generationPipeline;
     private final PopulateChunkInputBoundary chunkPopulator;
     private final World world;
     private final Player player;
+    // Longest time a single update spends adding finished chunks to the world
+    private final long integrationBudgetNanos;
+    // Most chunks handed out for meshing per update, the most urgent ones first
+    private final int maxMeshesPerUpdate;
+    // Which block ids hide their neighbours, null to mesh every chunk
+    private final IntPredicate isOpaque;
+    // Refilled every update so steady state ticks do not allocate or box entity ids
+    private final IntList activeEntities = new IntList();
+    // Chunks that should be rendered but are still generating, or whose neighbours are
+    private final Set<GamePosition> waitingToLoad = new LinkedHashSet<>();
 
+    /**
+     * Generates every requested chunk on the calling thread, within the same update.
+     */
     public UpdateWorldInteractor(
         RenderRadiusManagerInputBoundary renderRadiusManager,
         GenerateChunkInputBoundary chunkGenerator,
         PopulateChunkInputBoundary chunkPopulator,
+        ChunkRepository chunkRepository,
         World world,
         Player player
+    ) {
+        this(
+            renderRadiusManager,
+            new ChunkGenerationPipeline(
+                chunkGenerator, chunkPopulator, chunkRepository, Runnable::run, Integer.MAX_VALUE),
+            chunkPopulator,
+            world,
+            player,
+            Long.MAX_VALUE
+        );
+    }
+
+    public UpdateWorldInteractor(
+        RenderRadiusManagerInputBoundary renderRadiusManager,
+        ChunkGenerationPipeline generationPipeline,
+        PopulateChunkInputBoundary chunkPopulator,
+        World world,
+        Player player,
+        long integrationBudgetNanos
+    ) {
+        this(renderRadiusManager, generationPipeline, chunkPopulator, world, player, integrationBudgetNanos,
+            Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * @param blockRepository tells which blocks hide the faces next to them, so chunks that cannot be seen
+     *                        are not meshed, or null to mesh every chunk
+     */
+    public UpdateWorldInteractor(
+        RenderRadiusManagerInputBoundary renderRadiusManager,
+        ChunkGenerationPipeline generationPipeline,
+        PopulateChunkInputBoundary chunkPopulator,
+        World world,
+        Player player,
+        long integrationBudgetNanos,
+        int maxMeshesPerUpdate,
+        BlockRepository blockRepository
     ) {
         this.renderRadiusManager = renderRadiusManager;
-        this.chunkGenerator = chunkGenerator;
+        this.generationPipeline = generationPipeline;
         this.chunkPopulator = chunkPopulator;
         this.world = world;
         this.player = player;
+        this.integrationBudgetNanos = integrationBudgetNanos;
+        this.maxMeshesPerUpdate = maxMeshesPerUpdate;
+        isOpaque = blockRepository == null ? null : id -> blockRepository.isOpaqueForCulling((short) id);
     }
 
     @Override
     public UpdateWorldOutputData execute(UpdateWorldInputData inputData) {
         GamePosition playerPosition = player.getPosition();
 
+        // Riding players stream chunks ahead of where the ride is heading
+        Rideable ride = player.getCurrentRide();
+        GamePosition velocity = ride == null ? GamePosition.Zero : ride.getVelocity();
         RenderRadiusOutputData radiusData = renderRadiusManager.execute(
-            new RenderRadiusManagerInputData(playerPosition, inputData.getRenderRadius())
+            new RenderRadiusManagerInputData(playerPosition, inputData.getRenderRadius(), velocity)
         );
 
 
-        List<Integer> activeEntities = world.getEntitiesInChunks(radiusData.getChunksToUpdate());
+        activeEntities.clear();
+        world.collectEntitiesInChunks(radiusData.getChunksToUpdate(), activeEntities);
 
-        for (GamePosition pos : radiusData.getChunksToGenerate()) {
-            GenerateChunkOutputData outputData = chunkGenerator.execute(
-                new GenerateChunkInputData(pos, world.getWorldDepthChunks() * Chunk.CHUNK_SIZE)
-            );
-            world.addChunk(pos, outputData.getChunk());
-            chunkPopulator.execute(new PopulateChunkInputData(outputData.getChunk()));
+        // Chunks in view and close by are generated and meshed first
+        ChunkPriority priority = ChunkPriority.around(playerPosition, player.getDirection());
+        generationPipeline.setPriority(priority);
+        for (GamePosition pos : radiusData.getChunksToCancel()) {
+            generationPipeline.cancel(ChunkKey.of(pos));
         }
-
-        Map<GamePosition, Chunk> toLoad = new HashMap<>();
-        for (GamePosition pos : radiusData.getChunksToLoad()) {
-            toLoad.put(pos, world.getChunk(pos));
+        int worldEndX = world.getWorldDepthChunks() * Chunk.CHUNK_SIZE;
+        for (GamePosition pos : sortedByPriority(radiusData.getChunksToGenerate(), priority)) {
+            generationPipeline.request(pos, worldEndX);
         }
+        integrateAroundPlayer(ChunkKey.fromWorldPosition(playerPosition));
+        integrateFinishedChunks();
 
+        waitingToLoad.addAll(radiusData.getChunksToLoad());
         Map<GamePosition, Chunk> toUnload = new HashMap<>();
         for (GamePosition pos : radiusData.getChunksToUnload()) {
-            toUnload.put(pos, world.getChunk(pos));
+            // Chunks that never got their mesh have nothing to unload
+            if (waitingToLoad.remove(pos)) continue;
+            Chunk chunk = world.getChunk(ChunkKey.of(pos));
+            if (chunk != null) {
+                toUnload.put(pos, chunk);
+            }
+        }
+
+        // Ordered most urgent first, so a renderer that stops early still meshes the visible chunks
+        Map<GamePosition, Chunk> toLoad = new LinkedHashMap<>();
+        for (GamePosition pos : sortedByPriority(waitingToLoad, priority)) {
+            if (toLoad.size() >= maxMeshesPerUpdate) break;
+            long key = ChunkKey.of(pos);
+            Chunk chunk = world.getChunk(key);
+            // Meshing next to a chunk that is about to arrive would leave faces missing along the border
+            if (chunk == null || hasPendingNeighbour(key)) continue;
+            waitingToLoad.remove(pos);
+            // All air or buried, nothing to mesh. The renderer also shows entities of loaded chunks, so keep those
+            if (isOpaque != null && !chunk.hasEntities()
+                && world.isHiddenFromSurface(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key), isOpaque)) {
+                continue;
+            }
+            toLoad.put(pos, chunk);
         }
 
         return new UpdateWorldOutputData(toLoad, toUnload, activeEntities);
     }
+
+    private static List<GamePosition> sortedByPriority(Collection<GamePosition> positions, ChunkPriority priority) {
+        List<GamePosition> sorted = new ArrayList<>(positions);
+        if (sorted.size() > 1) {
+            sorted.sort(Comparator.comparingDouble(priority::score));
+        }
+        return sorted;
+    }
+
+    /**
+     * The player must never stand in or walk into missing terrain, so their chunk and the four next to it
+     * at the same height are waited for. Chunks above and below arrive within the integration budget.
+     */
+    private void integrateAroundPlayer(long playerChunk) {
+        while (isPendingAround(playerChunk)) {
+            integrate(generationPipeline.takeCompleted());
+        }
+    }
+
+    private boolean isPendingAround(long key) {
+        if (!generationPipeline.hasPending()) return false;
+        int x = ChunkKey.x(key);
+        int y = ChunkKey.y(key);
+        int z = ChunkKey.z(key);
+        return generationPipeline.isPending(key)
+            || generationPipeline.isPending(ChunkKey.pack(x - 1, y, z))
+            || generationPipeline.isPending(ChunkKey.pack(x + 1, y, z))
+            || generationPipeline.isPending(ChunkKey.pack(x, y, z - 1))
+            || generationPipeline.isPending(ChunkKey.pack(x, y, z + 1));
+    }
+
+    private void integrateFinishedChunks() {
+        long start = System.nanoTime();
+        // Always take at least one chunk so integration keeps moving on slow ticks
+        do {
+            GeneratedChunk generated = generationPipeline.pollCompleted();
+            if (generated == null) return;
+            integrate(generated);
+        } while (System.nanoTime() - start < integrationBudgetNanos);
+    }
+
+    private void integrate(GeneratedChunk generated) {
+        GamePosition pos = generated.getPosition();
+        Chunk chunk = generated.getChunk();
+        // Evicted chunks were populated before they left, their entities never left the world
+        boolean returning = world.wasEvicted(ChunkKey.of(pos));
+        world.addChunk(pos, chunk);
+        // Only terrain is stored, so entities are spawned again for stored chunks seen for the first time
+        if (!returning) {
+            PopulateChunkOutputData spawns = generated.getSpawns();
+            if (spawns == null) {
+                spawns = chunkPopulator.plan(new PopulateChunkInputData(chunk));
+            }
+            chunkPopulator.commit(spawns);
+        }
+    }
+
+    private boolean hasPendingNeighbour(long key) {
+        if (!generationPipeline.hasPending()) return false;
+        int x = ChunkKey.x(key);
+        int y = ChunkKey.y(key);
+        int z = ChunkKey.z(key);
+        return generationPipeline.isPending(ChunkKey.pack(x - 1, y, z))
+            || generationPipeline.isPending(ChunkKey.pack(x + 1, y, z))
+            || generationPipeline.isPending(ChunkKey.pack(x, y - 1, z))
+            || generationPipeline.isPending(ChunkKey.pack(x, y + 1, z))
+            || generationPipeline.isPending(ChunkKey.pack(x, y, z - 1))
+            || generationPipeline.isPending(ChunkKey.pack(x, y, z + 1));
+    }
 }
@@ -1,19 +1,19 @@
 package application.game_features.update_world;
 
+import domain.collections.IntList;
 import domain.world.Chunk;
 import domain.world.GamePosition;
-import java.util.List;
 import java.util.Map;
 
 public class UpdateWorldOutputData {
     private final Map<GamePosition, Chunk> chunksToLoad;
     private final Map<GamePosition, Chunk> chunksToUnload;
-    private final List<Integer> activeEntities;
+    private final IntList activeEntities;
 
     public UpdateWorldOutputData(
         Map<GamePosition, Chunk> toLoad,
         Map<GamePosition, Chunk> toUnload,
-        List<Integer> activeEntities
+        IntList activeEntities
     ) {
         chunksToLoad = toLoad;
         chunksToUnload = toUnload;
@@ -28,7 +28,10 @@ public class UpdateWorldOutputData {
         return chunksToUnload;
     }
 
-    public List<Integer> getActiveEntities() {
+    /**
+     * Ids of the entities in the updated chunks. The list is reused, so it is only valid until the next update.
+     */
+    public IntList getActiveEntities() {
         return activeEntities;
     }
 }
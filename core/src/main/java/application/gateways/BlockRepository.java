@@ -10,4 +10,12 @@ public interface BlockRepository {
     Optional<Block> findByName(String name);
 
     Collection<Block> findAll();
+
+    // Primitive lookups for per-voxel loops, they never allocate and are false for unknown ids
+
+    boolean isSolid(short id);
+
+    boolean isTransparent(short id);
+
+    boolean isOpaqueForCulling(short id);
 }
@@ -0,0 +1,19 @@
+package application.gateways;
+
+import domain.world.Chunk;
+import domain.world.GamePosition;
+import java.util.Optional;
+
+/**
+ * Persistent storage for generated chunk terrain. Entities are not stored.
+ */
+public interface ChunkRepository {
+    Optional<Chunk> findByPosition(GamePosition chunkPosition);
+
+    void save(Chunk chunk);
+
+    /**
+     * Writes any buffered data and releases the underlying files.
+     */
+    void close();
+}
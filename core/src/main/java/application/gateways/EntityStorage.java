@@ -2,13 +2,22 @@ package application.gateways;
 
 import domain.entities.Entity;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 public interface EntityStorage {
-    Entity getEntityByID(Integer id);
+    Entity getEntityByID(int id);
 
-    void setIDEntityPair(Integer id, Entity e);
+    void setIDEntityPair(int id, Entity e);
 
-    void removeEntity(Integer id);
+    void removeEntity(int id);
 
+    /**
+     * Visits every entity id without boxing. The consumer must not add or remove entities.
+     */
+    void forEachEntity(IntConsumer consumer);
+
+    /**
+     * Returns a snapshot of every entity id. Allocates, so prefer {@link #forEachEntity} on per-tick paths.
+     */
     Set<Integer> getAllIds();
 }
@@ -0,0 +1,147 @@
+package domain.collections;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open addressing hash set of primitive ints, the int counterpart of {@link LongHashSet}.
+ * Not thread safe.
+ */
+public class IntSet {
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public IntSet() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private static int hash(int key) {
+        // Murmur3 finalizer, entity ids are sequential so they need spreading
+        key ^= key >>> 16;
+        key *= 0x85ebca6b;
+        key ^= key >>> 13;
+        key *= 0xc2b2ae35;
+        key ^= key >>> 16;
+        return key;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public boolean contains(int key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the key was not already in the set.
+     */
+    public boolean add(int key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) return false;
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        used[slot] = true;
+        size++;
+        if (size > resizeThreshold) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    public boolean remove(int key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    // Same backward shift deletion as LongObjectMap
+    private void shiftBack(int freeSlot) {
+        int slot = freeSlot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (!used[slot]) break;
+
+            int home = hash(keys[slot]) & mask;
+            boolean canMove = freeSlot <= slot
+                ? (home <= freeSlot || home > slot)
+                : (home <= freeSlot && home > slot);
+            if (canMove) {
+                keys[freeSlot] = keys[slot];
+                freeSlot = slot;
+            }
+        }
+        used[freeSlot] = false;
+        keys[freeSlot] = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            used[slot] = true;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Visits every element. The consumer must not modify this set.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) consumer.accept(keys[i]);
+        }
+    }
+
+    /**
+     * Appends every element to out.
+     */
+    public void addAllTo(IntList out) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) out.add(keys[i]);
+        }
+    }
+}
@@ -4,15 +4,16 @@ import application.game_features.generate_entity.GenerateEntityInputData;
 import application.game_features.generate_entity.GenerateEntityStrategy;
 import application.gateways.EntityStorage;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class EntityFactory {
-    private static int idCounter;
     private final Map<EntityType, GenerateEntityStrategy> registry;
     private final EntityStorage storage;
+    // Ids are only handed out on the simulation thread, so a plain counter per factory is enough
+    private int idCounter;
 
     private EntityFactory(Map<EntityType, GenerateEntityStrategy> registry, EntityStorage storage) {
-        idCounter = 0;
         this.registry = registry;
         this.storage = storage;
     }
@@ -26,6 +27,15 @@ public class EntityFactory {
         return idCounter;
     }
 
+    /**
+     * Creates every entity in the list, in order, as one batch.
+     */
+    public void createAll(List<? extends GenerateEntityInputData> inputs) {
+        for (int i = 0; i < inputs.size(); i++) {
+            create(inputs.get(i));
+        }
+    }
+
     public static class EntityFactoryBuilder {
         private final Map<EntityType, GenerateEntityStrategy> registry = new HashMap<>();
         private final EntityStorage storage;
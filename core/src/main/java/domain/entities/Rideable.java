@@ -8,4 +8,9 @@ public interface Rideable {
     GamePosition getRideOffset();
 
     GamePosition getPosition();
+
+    /**
+     * Returns how far the ride moves per second at its current speed.
+     */
+    GamePosition getVelocity();
 }
@@ -45,6 +45,14 @@ public class Train extends Entity implements Rideable {
         return speed;
     }
 
+    /**
+     * Trains run along the track in the x direction, at their speed scaled by the throttle.
+     */
+    @Override
+    public GamePosition getVelocity() {
+        return new GamePosition(speed * currentThrottle, 0, 0);
+    }
+
     public void setSpeed(int speed) {
         this.speed = speed;
     }
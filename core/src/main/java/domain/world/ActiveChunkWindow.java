@@ -0,0 +1,131 @@
+package domain.world;
+
+import domain.collections.LongObjectMap;
+
+/**
+ * A fixed size box of chunks around the player, stored in a flat array indexed by chunk coordinates
+ * modulo the box size. Chunks inside the box are found with a couple of masks instead of a hash lookup.
+ * When the box moves, only the slots of chunks that entered it are refilled, the slots of chunks that
+ * left are exactly the ones being reused.
+ * Not thread safe, {@link World} guards it with its own lock and keeps it in step with its chunk map.
+ */
+final class ActiveChunkWindow {
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int maskX;
+    private final int maskY;
+    private final int maskZ;
+    private final int shiftX;
+    private final int shiftZ;
+    private final Chunk[] slots;
+
+    // Lowest chunk coordinate covered on each axis
+    private int originX;
+    private int originY;
+    private int originZ;
+    private boolean active;
+
+    ActiveChunkWindow(int sizeX, int sizeY, int sizeZ) {
+        requirePowerOfTwo(sizeX);
+        requirePowerOfTwo(sizeY);
+        requirePowerOfTwo(sizeZ);
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        maskX = sizeX - 1;
+        maskY = sizeY - 1;
+        maskZ = sizeZ - 1;
+        // Slots are laid out as [x][z][y], like blocks inside a chunk
+        shiftZ = Integer.numberOfTrailingZeros(sizeY);
+        shiftX = shiftZ + Integer.numberOfTrailingZeros(sizeZ);
+        slots = new Chunk[sizeX * sizeY * sizeZ];
+    }
+
+    private static void requirePowerOfTwo(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Window size must be a power of two, got " + size);
+        }
+    }
+
+    private int slot(int chunkX, int chunkY, int chunkZ) {
+        return ((chunkX & maskX) << shiftX) | ((chunkZ & maskZ) << shiftZ) | (chunkY & maskY);
+    }
+
+    boolean contains(int chunkX, int chunkY, int chunkZ) {
+        // Unsigned compares check both ends of each range at once
+        return active
+            && Integer.compareUnsigned(chunkX - originX, sizeX) < 0
+            && Integer.compareUnsigned(chunkY - originY, sizeY) < 0
+            && Integer.compareUnsigned(chunkZ - originZ, sizeZ) < 0;
+    }
+
+    /**
+     * Returns the chunk at the given coordinates, which must be inside the window.
+     */
+    Chunk get(int chunkX, int chunkY, int chunkZ) {
+        return slots[slot(chunkX, chunkY, chunkZ)];
+    }
+
+    void put(int chunkX, int chunkY, int chunkZ, Chunk chunk) {
+        if (contains(chunkX, chunkY, chunkZ)) {
+            slots[slot(chunkX, chunkY, chunkZ)] = chunk;
+        }
+    }
+
+    void remove(int chunkX, int chunkY, int chunkZ) {
+        put(chunkX, chunkY, chunkZ, null);
+    }
+
+    /**
+     * Moves the window so it is centred on the given chunk, loading the chunks that entered it from source.
+     */
+    void recentre(int centreX, int centreY, int centreZ, LongObjectMap<Chunk> source) {
+        int newX = centreX - sizeX / 2;
+        int newY = centreY - sizeY / 2;
+        int newZ = centreZ - sizeZ / 2;
+        if (active && newX == originX && newY == originY && newZ == originZ) return;
+
+        int oldX = originX;
+        int oldY = originY;
+        int oldZ = originZ;
+        boolean wasActive = active;
+        originX = newX;
+        originY = newY;
+        originZ = newZ;
+        active = true;
+
+        int endX = newX + sizeX;
+        int endY = newY + sizeY;
+        int endZ = newZ + sizeZ;
+        if (!wasActive || Math.abs(newX - oldX) >= sizeX || Math.abs(newY - oldY) >= sizeY
+            || Math.abs(newZ - oldZ) >= sizeZ) {
+            fill(newX, endX, newY, endY, newZ, endZ, source);
+            return;
+        }
+
+        // Split the entering region into disjoint slabs: new x columns, then new y layers, then new z rows
+        int keptXFrom = Math.max(newX, oldX);
+        int keptXTo = Math.min(endX, oldX + sizeX);
+        int keptYFrom = Math.max(newY, oldY);
+        int keptYTo = Math.min(endY, oldY + sizeY);
+        fill(newX, keptXFrom, newY, endY, newZ, endZ, source);
+        fill(keptXTo, endX, newY, endY, newZ, endZ, source);
+        fill(keptXFrom, keptXTo, newY, keptYFrom, newZ, endZ, source);
+        fill(keptXFrom, keptXTo, keptYTo, endY, newZ, endZ, source);
+        int keptZFrom = Math.max(newZ, oldZ);
+        int keptZTo = Math.min(endZ, oldZ + sizeZ);
+        fill(keptXFrom, keptXTo, keptYFrom, keptYTo, newZ, keptZFrom, source);
+        fill(keptXFrom, keptXTo, keptYFrom, keptYTo, keptZTo, endZ, source);
+    }
+
+    private void fill(int fromX, int toX, int fromY, int toY, int fromZ, int toZ, LongObjectMap<Chunk> source) {
+        for (int x = fromX; x < toX; x++) {
+            for (int z = fromZ; z < toZ; z++) {
+                for (int y = fromY; y < toY; y++) {
+                    slots[slot(x, y, z)] = source.get(ChunkKey.pack(x, y, z));
+                }
+            }
+        }
+    }
+}
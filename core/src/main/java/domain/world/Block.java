@@ -6,12 +6,19 @@ public class Block {
 
     private final boolean isSolid;
     private final boolean isTransparent;
+    // Whether this block hides the faces of the blocks next to it
+    private final boolean isOpaqueForCulling;
 
     public Block(short id, String name, boolean isSolid, boolean isTransparent) {
+        this(id, name, isSolid, isTransparent, isSolid && !isTransparent);
+    }
+
+    public Block(short id, String name, boolean isSolid, boolean isTransparent, boolean isOpaqueForCulling) {
         this.id = id;
         this.name = name;
         this.isSolid = isSolid;
         this.isTransparent = isTransparent;
+        this.isOpaqueForCulling = isOpaqueForCulling;
     }
 
     public short getId() {
@@ -30,6 +37,10 @@ public class Block {
         return isTransparent;
     }
 
+    public boolean isOpaqueForCulling() {
+        return isOpaqueForCulling;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,236 @@
+package domain.world;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Palette compressed block ids for a single chunk.
+ * A chunk made of one block type is stored as a single palette entry with no index data.
+ * Once a second block type is written, every block stores a small index into the palette,
+ * bit-packed into longs. Entry widths are powers of two so an entry never spans two longs.
+ */
+final class BlockStorage {
+    private static final int VOLUME = Chunk.CHUNK_VOLUME;
+
+    // Rough HotSpot sizes used for memory reporting
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private short[] palette;
+    private int paletteSize;
+    private int bitsPerEntry;
+    private long[] data;
+
+    BlockStorage(short fillId) {
+        fill(fillId);
+    }
+
+    private BlockStorage(BlockStorage other) {
+        palette = Arrays.copyOf(other.palette, other.palette.length);
+        paletteSize = other.paletteSize;
+        bitsPerEntry = other.bitsPerEntry;
+        data = other.data == null ? null : Arrays.copyOf(other.data, other.data.length);
+    }
+
+    private BlockStorage() {
+    }
+
+    BlockStorage copy() {
+        return new BlockStorage(this);
+    }
+
+    boolean isUniform() {
+        return data == null;
+    }
+
+    short get(int index) {
+        if (data == null) return palette[0];
+        return palette[readEntry(index)];
+    }
+
+    void set(int index, short id) {
+        if (data == null && palette[0] == id) return;
+        writeEntry(index, paletteIndexOf(id));
+    }
+
+    /**
+     * Sets every index in [start, end) to the given id.
+     */
+    void fill(int start, int end, short id) {
+        if (start >= end) return;
+        if (start == 0 && end == VOLUME) {
+            fill(id);
+            return;
+        }
+        if (data == null && palette[0] == id) return;
+        int entry = paletteIndexOf(id);
+        for (int i = start; i < end; i++) {
+            writeEntry(i, entry);
+        }
+    }
+
+    void fill(short id) {
+        palette = new short[] {id};
+        paletteSize = 1;
+        bitsPerEntry = 0;
+        data = null;
+    }
+
+    void copyTo(short[] out) {
+        if (data == null) {
+            Arrays.fill(out, 0, VOLUME, palette[0]);
+            return;
+        }
+        int entriesPerWord = Long.SIZE / bitsPerEntry;
+        long mask = (1L << bitsPerEntry) - 1;
+        int i = 0;
+        for (long word : data) {
+            for (int e = 0; e < entriesPerWord; e++) {
+                out[i++] = palette[(int) (word & mask)];
+                word >>>= bitsPerEntry;
+            }
+        }
+    }
+
+    /**
+     * Copies the ids in [start, end) into out, starting at offset.
+     */
+    void copyRange(int start, int end, short[] out, int offset) {
+        if (data == null) {
+            Arrays.fill(out, offset, offset + end - start, palette[0]);
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            out[offset++] = palette[readEntry(i)];
+        }
+    }
+
+    /**
+     * Drops palette entries that are no longer used, collapsing back to a single value when possible.
+     */
+    void compact() {
+        if (data == null) return;
+        int[] counts = new int[paletteSize];
+        for (int i = 0; i < VOLUME; i++) {
+            counts[readEntry(i)]++;
+        }
+
+        int used = 0;
+        for (int count : counts) {
+            if (count > 0) used++;
+        }
+        if (used == paletteSize) return;
+        if (used == 1) {
+            for (int p = 0; p < paletteSize; p++) {
+                if (counts[p] > 0) {
+                    fill(palette[p]);
+                    return;
+                }
+            }
+        }
+
+        short[] decoded = new short[VOLUME];
+        copyTo(decoded);
+        copyFrom(decoded);
+    }
+
+    /**
+     * Replaces every entry with the ids in blocks, building the smallest palette that holds them.
+     */
+    void copyFrom(short[] blocks) {
+        fill(blocks[0]);
+        for (int i = 1; i < VOLUME; i++) {
+            set(i, blocks[i]);
+        }
+    }
+
+    long estimateMemoryBytes() {
+        long bytes = OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + (long) palette.length * Short.BYTES;
+        if (data != null) {
+            bytes += ARRAY_HEADER_BYTES + (long) data.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the palette and packed entries as they are, without decoding them.
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeByte(bitsPerEntry);
+        out.writeShort(paletteSize);
+        for (int p = 0; p < paletteSize; p++) {
+            out.writeShort(palette[p]);
+        }
+        if (data != null) {
+            for (long word : data) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    static BlockStorage read(DataInput in) throws IOException {
+        BlockStorage storage = new BlockStorage();
+        storage.bitsPerEntry = in.readUnsignedByte();
+        storage.paletteSize = in.readUnsignedShort();
+        storage.palette = new short[Math.max(storage.paletteSize, 1)];
+        for (int p = 0; p < storage.paletteSize; p++) {
+            storage.palette[p] = in.readShort();
+        }
+        if (storage.bitsPerEntry > 0) {
+            storage.data = new long[VOLUME * storage.bitsPerEntry / Long.SIZE];
+            for (int i = 0; i < storage.data.length; i++) {
+                storage.data[i] = in.readLong();
+            }
+        }
+        return storage;
+    }
+
+    private int paletteIndexOf(short id) {
+        for (int p = 0; p < paletteSize; p++) {
+            if (palette[p] == id) return p;
+        }
+
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, palette.length * 2);
+        }
+        palette[paletteSize] = id;
+        paletteSize++;
+
+        if (paletteSize > (1 << bitsPerEntry)) {
+            resize(Math.max(1, bitsPerEntry * 2));
+        }
+        return paletteSize - 1;
+    }
+
+    private void resize(int newBits) {
+        long[] newData = new long[VOLUME * newBits / Long.SIZE];
+        if (data != null) {
+            for (int i = 0; i < VOLUME; i++) {
+                write(newData, newBits, i, readEntry(i));
+            }
+        }
+        // A uniform chunk has every entry at palette index 0, which is already all zero bits
+        data = newData;
+        bitsPerEntry = newBits;
+    }
+
+    private int readEntry(int index) {
+        int bitIndex = index * bitsPerEntry;
+        long mask = (1L << bitsPerEntry) - 1;
+        return (int) ((data[bitIndex >>> 6] >>> (bitIndex & 63)) & mask);
+    }
+
+    private void writeEntry(int index, int entry) {
+        write(data, bitsPerEntry, index, entry);
+    }
+
+    private static void write(long[] words, int bits, int index, int entry) {
+        int bitIndex = index * bits;
+        int word = bitIndex >>> 6;
+        int offset = bitIndex & 63;
+        long mask = ((1L << bits) - 1) << offset;
+        words[word] = (words[word] & ~mask) | (((long) entry << offset) & mask);
+    }
+}
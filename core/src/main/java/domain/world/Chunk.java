@@ -1,56 +1,332 @@
 package domain.world;
 
-import java.util.HashSet;
-import java.util.Set;
+import domain.collections.IntList;
+import domain.collections.IntSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 public class Chunk {
     public static final int CHUNK_SIZE = 16;
+    // log2(CHUNK_SIZE), converts world block coordinates to chunk coordinates with a shift
+    public static final int CHUNK_SHIFT = 4;
+    public static final int CHUNK_VOLUME = CHUNK_SIZE * CHUNK_SIZE * CHUNK_SIZE;
+
+    // Blocks are indexed as [x][z][y] so a single column is one contiguous span
+    private static final int Z_SHIFT = 4;
+    private static final int X_SHIFT = 8;
+
+    // Chunks start out as a single uniform run of AIR (id 0)
+    private static final short EMPTY_BLOCK_ID = 0;
+
     private final GamePosition chunkCoordinates;
-    private short[][][] blocks = new short[CHUNK_SIZE][CHUNK_SIZE][CHUNK_SIZE];
-    private int[][] heightMap = new int[CHUNK_SIZE][CHUNK_SIZE];
-    private int maxBlockHeight;
-    private int minBlockHeight;
-    private Set<Integer> entityIds;
+    // Null while hibernated, readers take one reference so they never see a half thawed chunk
+    private volatile Contents contents = new Contents(new BlockStorage(EMPTY_BLOCK_ID));
+    // Deflated contents while hibernated
+    private byte[] hibernated;
+    // Surface heights, shared with the other chunks of the column. Created on the first setHeight if not given
+    private ChunkColumn column;
+    // Guarded by its own monitor, entity membership may change from any thread
+    private final IntSet entityIds;
+    // Bumped on every block write, so work based on an older snapshot can be recognised as stale
+    private volatile long version;
+    // The version the chunk repository last stored, -1 if it has never been stored
+    private volatile long savedVersion = -1;
+
+    // The parts of a chunk that are compressed while it hibernates
+    private static final class Contents {
+        private BlockStorage blocks;
+        // Set while a snapshot refers to blocks, the next write copies them first
+        private boolean shared;
+
+        private Contents(BlockStorage blocks) {
+            this.blocks = blocks;
+        }
+    }
 
     public Chunk(GamePosition pos) {
+        this(pos, null);
+    }
+
+    /**
+     * Creates a chunk that shares the surface data of the given column with the other chunks stacked in it.
+     */
+    public Chunk(GamePosition pos, ChunkColumn column) {
         chunkCoordinates = pos;
-        entityIds = new HashSet<>();
-        maxBlockHeight = 0;
-        minBlockHeight = CHUNK_SIZE * CHUNK_SIZE;
+        entityIds = new IntSet();
+        this.column = column;
     }
 
     public Chunk(int chunkX, int chunkY, int chunkZ) {
         this(new GamePosition(chunkX, chunkY, chunkZ));
     }
 
+    /**
+     * Returns the flat index of a local block coordinate.
+     * Y varies fastest, then Z, then X.
+     */
+    public static int index(int x, int y, int z) {
+        return (x << X_SHIFT) | (z << Z_SHIFT) | y;
+    }
+
     public GamePosition getPosition() {
         return new GamePosition(chunkCoordinates);
     }
 
     public short getBlock(int x, int y, int z) {
-        return blocks[x][y][z];
+        return contents().blocks.get(index(x, y, z));
+    }
+
+    public synchronized void setBlock(int x, int y, int z, Block block) {
+        writableBlocks().set(index(x, y, z), block.getId());
+        version++;
+    }
+
+    /**
+     * Fills the column at (x, z) with the given block from fromY (inclusive) to toY (exclusive).
+     * The range is clamped to the chunk, so callers can pass heights relative to the chunk base directly.
+     */
+    public synchronized void fillColumn(int x, int z, int fromY, int toY, Block block) {
+        int start = Math.max(fromY, 0);
+        int end = Math.min(toY, CHUNK_SIZE);
+        if (start >= end) return;
+        int base = index(x, 0, z);
+        writableBlocks().fill(base + start, base + end, block.getId());
+        version++;
+    }
+
+    /**
+     * Fills every block at local height y with the given block.
+     */
+    public synchronized void fillLayer(int y, Block block) {
+        BlockStorage blocks = writableBlocks();
+        short id = block.getId();
+        for (int i = y; i < CHUNK_VOLUME; i += CHUNK_SIZE) {
+            blocks.set(i, id);
+        }
+        version++;
+    }
+
+    public synchronized void fill(Block block) {
+        writableBlocks().fill(block.getId());
+        version++;
+    }
+
+    /**
+     * Replaces every block in this chunk with the blocks of another chunk.
+     */
+    public synchronized void copyFrom(Chunk other) {
+        Contents current = contents();
+        current.blocks = other.contents().blocks.copy();
+        current.shared = false;
+        version++;
+    }
+
+    /**
+     * Copies the blocks of this chunk into out, using the layout of {@link #index(int, int, int)}.
+     */
+    public void copyBlocksTo(short[] out) {
+        contents().blocks.copyTo(out);
+    }
+
+    /**
+     * Copies the blocks of the column at (x, z) from fromY (inclusive) to toY (exclusive) into out, starting at offset.
+     */
+    public void copyColumnTo(int x, int z, int fromY, int toY, short[] out, int offset) {
+        int base = index(x, 0, z);
+        contents().blocks.copyRange(base + fromY, base + toY, out, offset);
+    }
+
+    /**
+     * Replaces every block in this chunk with the ids in blocks, using the layout of {@link #index(int, int, int)}.
+     */
+    public synchronized void copyBlocksFrom(short[] blocks) {
+        writableBlocks().copyFrom(blocks);
+        version++;
+    }
+
+    // Must be called with the chunk lock held
+    private BlockStorage writableBlocks() {
+        Contents current = contents();
+        if (current.shared) {
+            current.blocks = current.blocks.copy();
+            current.shared = false;
+        }
+        return current.blocks;
+    }
+
+    /**
+     * Returns a consistent, read-only view of the blocks as they are now.
+     * Nothing is copied up front, the next write to this chunk copies its blocks instead.
+     */
+    public synchronized ChunkSnapshot snapshot() {
+        Contents current = contents();
+        current.shared = true;
+        return new ChunkSnapshot(getChunkX(), getChunkY(), getChunkZ(), current.blocks, version);
+    }
+
+    /**
+     * Returns a counter that changes whenever a block of this chunk is written.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Records that the chunk repository holds this chunk as it was at the given version.
+     */
+    public void markSaved(long savedVersion) {
+        this.savedVersion = savedVersion;
     }
 
-    public void setBlock(int x, int y, int z, Block block) {
-        blocks[x][y][z] = block.getId();
+    /**
+     * Returns true if blocks were written since the chunk repository last stored this chunk, or it never did.
+     */
+    public boolean hasUnsavedChanges() {
+        return version != savedVersion;
     }
 
+    /**
+     * Returns true if every block in this chunk is the same, in which case it is stored as a single value.
+     */
+    public boolean isUniform() {
+        return contents().blocks.isUniform();
+    }
+
+    /**
+     * Returns true if every block in this chunk is AIR, as it is when the chunk is created.
+     */
+    public boolean isEmpty() {
+        BlockStorage blocks = contents().blocks;
+        return blocks.isUniform() && blocks.get(0) == EMPTY_BLOCK_ID;
+    }
+
+    /**
+     * Returns true if every block id in the box between the given local corners, both inclusive, passes the test.
+     * Uniform chunks only test their single block.
+     */
+    public boolean allBlocksMatch(int fromX, int fromY, int fromZ, int toX, int toY, int toZ, IntPredicate test) {
+        BlockStorage blocks = contents().blocks;
+        if (blocks.isUniform()) return test.test(blocks.get(0));
+        for (int x = fromX; x <= toX; x++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int y = fromY; y <= toY; y++) {
+                    if (!test.test(blocks.get(index(x, y, z)))) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shrinks the block palette to the blocks that are still in use.
+     */
+    public synchronized void compact() {
+        Contents current = contents;
+        // Shared blocks may be in use by a snapshot, so they are left as they are
+        if (current != null && !current.shared) current.blocks.compact();
+    }
+
+    /**
+     * Approximate heap used by this chunk's block storage, in bytes.
+     * The column is shared between chunks and is not included.
+     */
+    public synchronized long estimateMemoryBytes() {
+        Contents current = contents;
+        if (current == null) {
+            return 16 + hibernated.length;
+        }
+        return 16 + current.blocks.estimateMemoryBytes();
+    }
+
+    private Contents contents() {
+        Contents current = contents;
+        return current != null ? current : thaw();
+    }
+
+    /**
+     * Compresses the blocks of this chunk in memory.
+     * The chunk thaws itself on the next block access, so callers never see the difference.
+     * Threads already reading the chunk keep reading the uncompressed copy they started with.
+     * Entity membership and the shared column are left as is. Returns false if there was nothing worth compressing.
+     */
+    public synchronized boolean hibernate() {
+        Contents current = contents;
+        if (current == null || current.blocks.isUniform()) return false;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            current.blocks.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        hibernated = bytes.toByteArray();
+        contents = null;
+        return true;
+    }
+
+    public boolean isHibernated() {
+        return contents == null;
+    }
+
+    private synchronized Contents thaw() {
+        // Another thread may have thawed the chunk while this one waited for the lock
+        if (contents != null) return contents;
+
+        Contents thawed;
+        try (DataInputStream in = new DataInputStream(
+            new InflaterInputStream(new ByteArrayInputStream(hibernated)))) {
+            thawed = new Contents(BlockStorage.read(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        hibernated = null;
+        contents = thawed;
+        return thawed;
+    }
+
+    /**
+     * Sets the surface height of a block column. The column is shared, so the other chunks stacked on it see it too.
+     */
     public void setHeight(int x, int y, int z) {
-        heightMap[x][z] = y;
-        maxBlockHeight = Math.max(maxBlockHeight, y);
-        minBlockHeight = Math.min(minBlockHeight, y);
+        if (column == null) {
+            column = new ChunkColumn(getChunkX(), getChunkZ());
+        }
+        column.setHeight(x, z, y);
+    }
+
+    public boolean hasHeightMap() {
+        return column != null;
+    }
+
+    /**
+     * Returns the shared column of this chunk, or null if no heights have been set.
+     */
+    public ChunkColumn getColumn() {
+        return column;
     }
 
     public int getHeight(int x, int z) {
-        return heightMap[x][z];
+        if (column == null) return 0;
+        return column.getHeight(x, z);
     }
 
     public int getMaxBlockHeight() {
-        return maxBlockHeight;
+        if (column == null) return 0;
+        return column.getMaxSurfaceHeight();
     }
 
     public int getMinBlockHeight() {
-        return minBlockHeight;
+        if (column == null) return CHUNK_SIZE * CHUNK_SIZE;
+        return column.getMinSurfaceHeight();
     }
 
     public int getChunkX() {
@@ -82,14 +358,49 @@ public class Chunk {
     }
 
     public void addEntity(int id) {
-        entityIds.add(id);
+        synchronized (entityIds) {
+            entityIds.add(id);
+        }
     }
 
     public void removeEntity(int id) {
-        entityIds.remove(id);
+        synchronized (entityIds) {
+            entityIds.remove(id);
+        }
+    }
+
+    public boolean containsEntity(int id) {
+        synchronized (entityIds) {
+            return entityIds.contains(id);
+        }
+    }
+
+    public int getEntityCount() {
+        synchronized (entityIds) {
+            return entityIds.size();
+        }
+    }
+
+    public boolean hasEntities() {
+        return getEntityCount() > 0;
+    }
+
+    /**
+     * Visits every entity id in this chunk while holding its entity lock.
+     * The consumer must not add or remove entities of this chunk, collect them with {@link #collectEntities} instead.
+     */
+    public void forEachEntity(IntConsumer consumer) {
+        synchronized (entityIds) {
+            entityIds.forEach(consumer);
+        }
     }
 
-    public Set<Integer> getEntityIds() {
-        return entityIds;
+    /**
+     * Appends every entity id in this chunk to out.
+     */
+    public void collectEntities(IntList out) {
+        synchronized (entityIds) {
+            entityIds.addAllTo(out);
+        }
     }
 }
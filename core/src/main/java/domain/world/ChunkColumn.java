@@ -0,0 +1,95 @@
+package domain.world;
+
+/**
+ * Surface data for one vertical column of chunks, shared by every chunk stacked in it.
+ * Heights are generated once per column instead of once per chunk, and populating any chunk of the
+ * column reuses the same spawn noise.
+ * Written by the generator before its chunks are published, read-only afterwards.
+ */
+public class ChunkColumn {
+    private static final int COLUMN_AREA = Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE;
+
+    private final int columnX;
+    private final int columnZ;
+    // Surface height of each block column, flattened as [x][z]
+    private final short[] heightMap;
+    private int maxSurfaceHeight;
+    private int minSurfaceHeight;
+    // Filled in lazily by the first chunk of the column to be populated
+    private volatile double[] spawnNoise;
+
+    public ChunkColumn(int columnX, int columnZ) {
+        this.columnX = columnX;
+        this.columnZ = columnZ;
+        heightMap = new short[COLUMN_AREA];
+        maxSurfaceHeight = 0;
+        minSurfaceHeight = COLUMN_AREA;
+    }
+
+    private static int index(int x, int z) {
+        return (x << Chunk.CHUNK_SHIFT) | z;
+    }
+
+    public int getColumnX() {
+        return columnX;
+    }
+
+    public int getColumnZ() {
+        return columnZ;
+    }
+
+    public int getColumnWorldX() {
+        return columnX * Chunk.CHUNK_SIZE;
+    }
+
+    public int getColumnWorldZ() {
+        return columnZ * Chunk.CHUNK_SIZE;
+    }
+
+    public void setHeight(int x, int z, int height) {
+        heightMap[index(x, z)] = (short) height;
+        maxSurfaceHeight = Math.max(maxSurfaceHeight, height);
+        minSurfaceHeight = Math.min(minSurfaceHeight, height);
+    }
+
+    public int getHeight(int x, int z) {
+        return heightMap[index(x, z)];
+    }
+
+    public int getMaxSurfaceHeight() {
+        return maxSurfaceHeight;
+    }
+
+    public int getMinSurfaceHeight() {
+        return minSurfaceHeight;
+    }
+
+    public boolean hasSpawnNoise() {
+        return spawnNoise != null;
+    }
+
+    /**
+     * Stores the spawn noise of every block column, flattened as [x][z].
+     */
+    public void setSpawnNoise(double[] noise) {
+        if (noise.length != COLUMN_AREA) {
+            throw new IllegalArgumentException("Expected " + COLUMN_AREA + " noise values, got " + noise.length);
+        }
+        spawnNoise = noise;
+    }
+
+    public double getSpawnNoise(int x, int z) {
+        return spawnNoise[index(x, z)];
+    }
+
+    /**
+     * Approximate heap used by this column, in bytes. Shared by every chunk in the column.
+     */
+    public long estimateMemoryBytes() {
+        long bytes = 32 + 16 + (long) heightMap.length * Short.BYTES;
+        if (spawnNoise != null) {
+            bytes += 16 + (long) spawnNoise.length * Double.BYTES;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,52 @@
+package domain.world;
+
+/**
+ * Packs chunk coordinates into a single long so chunks can be looked up without allocating a key object.
+ * Each axis gets 21 signed bits, laid out as [x][z][y] from the high bits down.
+ */
+public final class ChunkKey {
+    private static final int BITS = 21;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final int Z_SHIFT = BITS;
+    private static final int X_SHIFT = BITS * 2;
+    // Shifts used to sign extend each field back into an int
+    private static final int UNUSED_BITS = Long.SIZE - BITS;
+
+    private ChunkKey() {
+    }
+
+    public static long pack(int chunkX, int chunkY, int chunkZ) {
+        return ((chunkX & MASK) << X_SHIFT) | ((chunkZ & MASK) << Z_SHIFT) | (chunkY & MASK);
+    }
+
+    public static long of(GamePosition chunkPosition) {
+        return pack((int) chunkPosition.x, (int) chunkPosition.y, (int) chunkPosition.z);
+    }
+
+    /**
+     * Returns the key of the chunk containing a world position.
+     */
+    public static long fromWorldPosition(GamePosition worldPosition) {
+        return pack(
+            Math.floorDiv((int) worldPosition.x, Chunk.CHUNK_SIZE),
+            Math.floorDiv((int) worldPosition.y, Chunk.CHUNK_SIZE),
+            Math.floorDiv((int) worldPosition.z, Chunk.CHUNK_SIZE)
+        );
+    }
+
+    public static int x(long key) {
+        return (int) ((key << (UNUSED_BITS - X_SHIFT)) >> UNUSED_BITS);
+    }
+
+    public static int y(long key) {
+        return (int) ((key << UNUSED_BITS) >> UNUSED_BITS);
+    }
+
+    public static int z(long key) {
+        return (int) ((key << (UNUSED_BITS - Z_SHIFT)) >> UNUSED_BITS);
+    }
+
+    public static GamePosition toPosition(long key) {
+        return new GamePosition(x(key), y(key), z(key));
+    }
+}
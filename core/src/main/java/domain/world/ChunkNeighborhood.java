@@ -0,0 +1,128 @@
+package domain.world;
+
+/**
+ * A chunk together with a one block border taken from its 26 neighbours.
+ * Neighbours are resolved once per load, after which any local coordinate in -1..16
+ * is answered with a single array read instead of a world lookup.
+ * Instances are reusable and not thread safe, keep one per meshing or population worker.
+ */
+public class ChunkNeighborhood {
+    public static final int MIN = -1;
+    public static final int MAX = Chunk.CHUNK_SIZE;
+    // Edge length of the padded cube, the chunk plus one block on each side
+    public static final int SIZE = Chunk.CHUNK_SIZE + 2;
+
+    // Same [x][z][y] ordering as Chunk, so columns stay contiguous
+    public static final int Y_STRIDE = 1;
+    public static final int Z_STRIDE = SIZE;
+    public static final int X_STRIDE = SIZE * SIZE;
+
+    private final short[] blocks = new short[SIZE * SIZE * SIZE];
+    private final short[] centreBlocks = new short[Chunk.CHUNK_VOLUME];
+    private Chunk centre;
+    private long centreVersion;
+
+    /**
+     * Returns the index into the padded block array of a local coordinate in -1..16.
+     */
+    public static int index(int x, int y, int z) {
+        return (x + 1) * X_STRIDE + (z + 1) * Z_STRIDE + (y + 1);
+    }
+
+    /**
+     * Copies the given chunk and the border blocks of its neighbours.
+     * The chunk is read through a snapshot, so its blocks are consistent even if it is written meanwhile.
+     * Neighbours that are not loaded read as the world's unloaded block.
+     */
+    public void load(World world, Chunk chunk) {
+        ChunkSnapshot snapshot = chunk.snapshot();
+        centre = chunk;
+        centreVersion = snapshot.getVersion();
+        int chunkX = chunk.getChunkX();
+        int chunkY = chunk.getChunkY();
+        int chunkZ = chunk.getChunkZ();
+
+        snapshot.copyBlocksTo(centreBlocks);
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                System.arraycopy(centreBlocks, Chunk.index(x, 0, z), blocks, index(x, 0, z), Chunk.CHUNK_SIZE);
+            }
+        }
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx == 0 && dy == 0 && dz == 0) continue;
+                    copyBorder(world.getChunk(chunkX + dx, chunkY + dy, chunkZ + dz), dx, dy, dz);
+                }
+            }
+        }
+    }
+
+    public void load(World world, int chunkX, int chunkY, int chunkZ) {
+        Chunk chunk = world.getChunk(chunkX, chunkY, chunkZ);
+        if (chunk == null) {
+            throw new IllegalArgumentException("Chunk " + chunkX + ", " + chunkY + ", " + chunkZ + " is not loaded");
+        }
+        load(world, chunk);
+    }
+
+    // Copies the slab of a neighbour that touches the centre chunk, offset (dx, dy, dz) away from it
+    private void copyBorder(Chunk neighbour, int dx, int dy, int dz) {
+        int fromX = borderStart(dx);
+        int toX = borderEnd(dx);
+        int fromY = borderStart(dy);
+        int toY = borderEnd(dy);
+        int fromZ = borderStart(dz);
+        int toZ = borderEnd(dz);
+
+        for (int x = fromX; x <= toX; x++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                int base = index(x, 0, z);
+                for (int y = fromY; y <= toY; y++) {
+                    blocks[base + y] = neighbour == null
+                        ? World.UNLOADED_BLOCK_ID
+                        : neighbour.getBlock(x & (Chunk.CHUNK_SIZE - 1), y & (Chunk.CHUNK_SIZE - 1),
+                        z & (Chunk.CHUNK_SIZE - 1));
+                }
+            }
+        }
+    }
+
+    private static int borderStart(int offset) {
+        if (offset < 0) return MIN;
+        if (offset > 0) return MAX;
+        return 0;
+    }
+
+    private static int borderEnd(int offset) {
+        if (offset < 0) return MIN;
+        if (offset > 0) return MAX;
+        return Chunk.CHUNK_SIZE - 1;
+    }
+
+    /**
+     * Returns the block at a local coordinate, each axis may be one block outside the chunk.
+     */
+    public short getBlock(int x, int y, int z) {
+        return blocks[index(x, y, z)];
+    }
+
+    /**
+     * Returns the block at a padded index, see {@link #index(int, int, int)} and the strides.
+     */
+    public short getBlock(int index) {
+        return blocks[index];
+    }
+
+    public Chunk getCentre() {
+        return centre;
+    }
+
+    /**
+     * The version of the centre chunk that was loaded, see {@link Chunk#getVersion()}.
+     */
+    public long getCentreVersion() {
+        return centreVersion;
+    }
+}
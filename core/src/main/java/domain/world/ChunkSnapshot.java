@@ -0,0 +1,57 @@
+package domain.world;
+
+/**
+ * An immutable view of a chunk's blocks at one version.
+ * Taking a snapshot does not copy anything, the chunk copies its blocks the next time it is written instead,
+ * so background workers can read a snapshot without locks while gameplay keeps editing the chunk.
+ */
+public final class ChunkSnapshot {
+    private final int chunkX;
+    private final int chunkY;
+    private final int chunkZ;
+    // Never written again once shared with a snapshot
+    private final BlockStorage blocks;
+    private final long version;
+
+    ChunkSnapshot(int chunkX, int chunkY, int chunkZ, BlockStorage blocks, long version) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.chunkZ = chunkZ;
+        this.blocks = blocks;
+        this.version = version;
+    }
+
+    public short getBlock(int x, int y, int z) {
+        return blocks.get(Chunk.index(x, y, z));
+    }
+
+    /**
+     * Copies the blocks into out, using the layout of {@link Chunk#index(int, int, int)}.
+     */
+    public void copyBlocksTo(short[] out) {
+        blocks.copyTo(out);
+    }
+
+    public boolean isUniform() {
+        return blocks.isUniform();
+    }
+
+    /**
+     * The version of the chunk this snapshot was taken at, see {@link Chunk#getVersion()}.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+}
@@ -1,17 +1,171 @@
 package domain.world;
 
-import com.badlogic.gdx.math.Vector3;
+import domain.entities.EntityType;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * A template of blocks and spawn points that can be stamped into the terrain, such as a station or a barricade.
+ * Cells without a block keep whatever the terrain has there. Local coordinates start at the template's
+ * minimum corner. Templates are immutable and shared by every placement.
+ */
 public class Structure {
-    // TODO: What does the structure object hold?
-    private Vector3 position;
-    private List<Vector3> entitySpawnPositions;
-    private List<Vector3> spawnPositions;
-
-    public Structure(Vector3 position, List<Vector3> entitySpawnPositions, List<Vector3> spawnPositions) {
-        this.position = position;
-        entitySpawnPositions = entitySpawnPositions;
-        spawnPositions = spawnPositions;
+    private final String name;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    // Laid out as [x][z][y] like chunk blocks, null where the terrain is kept
+    private final Block[] blocks;
+    private final List<SpawnPoint> spawnPoints;
+
+    private Structure(String name, int sizeX, int sizeY, int sizeZ, Block[] blocks, List<SpawnPoint> spawnPoints) {
+        this.name = name;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.blocks = blocks;
+        this.spawnPoints = Collections.unmodifiableList(spawnPoints);
+    }
+
+    private int index(int x, int y, int z) {
+        return (x * sizeZ + z) * sizeY + y;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    /**
+     * Returns the block at a local position, or null if the terrain is kept there.
+     */
+    public Block getBlock(int x, int y, int z) {
+        return blocks[index(x, y, z)];
+    }
+
+    public List<SpawnPoint> getSpawnPoints() {
+        return spawnPoints;
+    }
+
+    /**
+     * Returns this template reflected along z, so a structure built facing one side of the track can face the other.
+     */
+    public Structure mirrorZ() {
+        Block[] mirrored = new Block[blocks.length];
+        for (int x = 0; x < sizeX; x++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int y = 0; y < sizeY; y++) {
+                    mirrored[index(x, y, sizeZ - 1 - z)] = blocks[index(x, y, z)];
+                }
+            }
+        }
+        List<SpawnPoint> mirroredSpawns = new ArrayList<>(spawnPoints.size());
+        for (SpawnPoint spawn : spawnPoints) {
+            mirroredSpawns.add(new SpawnPoint(spawn.x, spawn.y, sizeZ - 1 - spawn.z, spawn.type));
+        }
+        return new Structure(name, sizeX, sizeY, sizeZ, mirrored, mirroredSpawns);
+    }
+
+    /**
+     * A place inside a structure where an entity of the given type spawns, in local coordinates.
+     */
+    public static final class SpawnPoint {
+        private final int x;
+        private final int y;
+        private final int z;
+        private final EntityType type;
+
+        public SpawnPoint(int x, int y, int z, EntityType type) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.type = type;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        public EntityType getType() {
+            return type;
+        }
+    }
+
+    public static class StructureBuilder {
+        private final String name;
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final Block[] blocks;
+        private final List<SpawnPoint> spawnPoints = new ArrayList<>();
+
+        public StructureBuilder(String name, int sizeX, int sizeY, int sizeZ) {
+            if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+                throw new IllegalArgumentException(
+                    "Structure " + name + " needs a positive size, got " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            this.name = name;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            blocks = new Block[sizeX * sizeY * sizeZ];
+        }
+
+        private void checkBounds(int x, int y, int z) {
+            if (x < 0 || x >= sizeX || y < 0 || y >= sizeY || z < 0 || z >= sizeZ) {
+                throw new IllegalArgumentException(
+                    "(" + x + ", " + y + ", " + z + ") is outside structure " + name);
+            }
+        }
+
+        public StructureBuilder block(int x, int y, int z, Block block) {
+            checkBounds(x, y, z);
+            blocks[(x * sizeZ + z) * sizeY + y] = block;
+            return this;
+        }
+
+        /**
+         * Sets every block in the box between the two corners, both inclusive.
+         */
+        public StructureBuilder box(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Block block) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        block(x, y, z, block);
+                    }
+                }
+            }
+            return this;
+        }
+
+        public StructureBuilder spawn(int x, int y, int z, EntityType type) {
+            checkBounds(x, y, z);
+            spawnPoints.add(new SpawnPoint(x, y, z, type));
+            return this;
+        }
+
+        public Structure build() {
+            return new Structure(name, sizeX, sizeY, sizeZ, blocks.clone(), new ArrayList<>(spawnPoints));
+        }
     }
 }
@@ -0,0 +1,97 @@
+package domain.world;
+
+import domain.world.Structure.SpawnPoint;
+import java.util.function.BiConsumer;
+
+/**
+ * A structure placed at a world block position. Stamping only touches the part of the structure inside
+ * the given chunk, so every chunk can stamp its share on its own, in any order and on any thread.
+ */
+public final class StructurePlacement {
+    private final Structure structure;
+    private final int originX;
+    private final int originY;
+    private final int originZ;
+
+    public StructurePlacement(Structure structure, int originX, int originY, int originZ) {
+        this.structure = structure;
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+    }
+
+    public Structure getStructure() {
+        return structure;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginY() {
+        return originY;
+    }
+
+    public int getOriginZ() {
+        return originZ;
+    }
+
+    public boolean intersectsChunk(int chunkX, int chunkY, int chunkZ) {
+        return overlaps(originX, structure.getSizeX(), chunkX)
+            && overlaps(originY, structure.getSizeY(), chunkY)
+            && overlaps(originZ, structure.getSizeZ(), chunkZ);
+    }
+
+    private static boolean overlaps(int origin, int size, int chunk) {
+        int chunkMin = chunk * Chunk.CHUNK_SIZE;
+        return origin < chunkMin + Chunk.CHUNK_SIZE && chunkMin < origin + size;
+    }
+
+    /**
+     * Writes the blocks of the structure that fall inside the chunk.
+     */
+    public void stamp(Chunk chunk) {
+        int chunkWorldX = chunk.getChunkWorldX();
+        int chunkWorldY = chunk.getChunkWorldY();
+        int chunkWorldZ = chunk.getChunkWorldZ();
+        int fromX = Math.max(originX, chunkWorldX);
+        int fromY = Math.max(originY, chunkWorldY);
+        int fromZ = Math.max(originZ, chunkWorldZ);
+        int toX = Math.min(originX + structure.getSizeX(), chunkWorldX + Chunk.CHUNK_SIZE);
+        int toY = Math.min(originY + structure.getSizeY(), chunkWorldY + Chunk.CHUNK_SIZE);
+        int toZ = Math.min(originZ + structure.getSizeZ(), chunkWorldZ + Chunk.CHUNK_SIZE);
+
+        for (int x = fromX; x < toX; x++) {
+            for (int z = fromZ; z < toZ; z++) {
+                for (int y = fromY; y < toY; y++) {
+                    Block block = structure.getBlock(x - originX, y - originY, z - originZ);
+                    if (block != null) {
+                        chunk.setBlock(x - chunkWorldX, y - chunkWorldY, z - chunkWorldZ, block);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the world position of every spawn point inside the given chunk to the consumer.
+     * Each spawn point belongs to exactly one chunk.
+     */
+    public void forEachSpawnIn(int chunkX, int chunkY, int chunkZ, BiConsumer<SpawnPoint, GamePosition> consumer) {
+        for (SpawnPoint spawn : structure.getSpawnPoints()) {
+            int worldX = originX + spawn.getX();
+            int worldY = originY + spawn.getY();
+            int worldZ = originZ + spawn.getZ();
+            if (Math.floorDiv(worldX, Chunk.CHUNK_SIZE) == chunkX
+                && Math.floorDiv(worldY, Chunk.CHUNK_SIZE) == chunkY
+                && Math.floorDiv(worldZ, Chunk.CHUNK_SIZE) == chunkZ) {
+                consumer.accept(spawn, new GamePosition(worldX, worldY, worldZ));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return structure.getName() + " at (" + originX + ", " + originY + ", " + originZ + ")";
+    }
+}
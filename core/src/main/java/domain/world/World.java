@@ -1,47 +1,100 @@
 package domain.world;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import domain.collections.IntList;
+import domain.collections.LongHashSet;
+import domain.collections.LongObjectMap;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
 
+/**
+ * The set of chunks currently held in memory.
+ *
+ * <p>Threading contract:
+ * <ul>
+ *     <li>Every method may be called from any thread.</li>
+ *     <li>Chunk lookups and {@link #getBlock(int, int, int)} are lock-free: they take an optimistic
+ *     read stamp and only fall back to a read lock if a writer got in the way. Chunks inside the
+ *     active window are read straight from an array, everything else goes through the hash map.</li>
+ *     <li>Adding, evicting and removing chunks take an exclusive lock, so they are cheap but serialised.</li>
+ *     <li>A chunk must be fully generated before it is passed to {@link #addChunk(GamePosition, Chunk)}.
+ *     Adding it publishes it safely, so any thread that later finds it sees all of its blocks.</li>
+ *     <li>After a chunk has been added its blocks are treated as read-only. Block writes to a published
+ *     chunk are only safe from the simulation thread and other threads may see them late.</li>
+ *     <li>Chunk entity membership may be changed from any thread.</li>
+ * </ul>
+ */
 public class World {
+    // Returned for blocks in chunks that have not been generated
+    static final short UNLOADED_BLOCK_ID = 3; // TODO: Change this somehow to not be hardcoded
+    // Returned by readHeights for columns with no loaded chunks
+    public static final short UNKNOWN_HEIGHT = Short.MIN_VALUE;
     private final int worldDepthChunks = 200;
-    private HashMap<GamePosition, Chunk> chunks;
+    // Chunks around the player served from a flat array, sized to cover the corridor and the generation radius
+    private static final int WINDOW_SIZE_X = 32;
+    private static final int WINDOW_SIZE_Y = 8;
+    private static final int WINDOW_SIZE_Z = 32;
+    // Offsets of the four columns sharing a border with a column
+    private static final int[] SIDE_X = {-1, 1, 0, 0};
+    private static final int[] SIDE_Z = {0, 0, -1, 1};
+    // Offsets of the six chunks sharing a face with a chunk
+    private static final int[] FACE_X = {-1, 1, 0, 0, 0, 0};
+    private static final int[] FACE_Y = {0, 0, -1, 1, 0, 0};
+    private static final int[] FACE_Z = {0, 0, 0, 0, -1, 1};
+    // Guards chunks, window, columns and evictedChunks
+    private final StampedLock lock = new StampedLock();
+    private final LongObjectMap<Chunk> chunks;
+    // Surface columns of the loaded chunks, keyed by ChunkKey.pack(x, 0, z)
+    private final LongObjectMap<ColumnEntry> columns;
+    // Mirrors the chunks of the map that fall inside it
+    private final ActiveChunkWindow window;
+    // Chunks that were generated and populated before being evicted, so they are not populated twice
+    private final LongHashSet evictedChunks;
+    // Chunks evicted since the world was created, including ones loaded again since
+    private long evictionCount;
 
     public World() {
-        chunks = new HashMap<>();
-    }
-
-    public HashMap<GamePosition, Chunk> getChunks() {
-        return chunks;
+        chunks = new LongObjectMap<>();
+        window = new ActiveChunkWindow(WINDOW_SIZE_X, WINDOW_SIZE_Y, WINDOW_SIZE_Z);
+        columns = new LongObjectMap<>();
+        evictedChunks = new LongHashSet();
     }
 
     public float getWorldEndCoordinateX() {
         return (float) worldDepthChunks * Chunk.CHUNK_SIZE;
     }
 
+    /**
+     * Publishes a fully generated chunk. Returns false if a chunk already exists at that position.
+     */
     public boolean addChunk(GamePosition pos, Chunk chunk) {
-        if (chunks.containsKey(pos)) return false;
-        chunks.put(pos, chunk);
-        return true;
+        long key = ChunkKey.of(pos);
+        long stamp = lock.writeLock();
+        try {
+            if (chunks.containsKey(key)) return false;
+            chunks.put(key, chunk);
+            window.put(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key), chunk);
+            retainColumn(key, chunk);
+            evictedChunks.remove(key);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public short getBlock(int x, int y, int z) {
-        int localX = ((x % Chunk.CHUNK_SIZE) + Chunk.CHUNK_SIZE) % Chunk.CHUNK_SIZE;
-        int localY = ((y % Chunk.CHUNK_SIZE) + Chunk.CHUNK_SIZE) % Chunk.CHUNK_SIZE;
-        int localZ = ((z % Chunk.CHUNK_SIZE) + Chunk.CHUNK_SIZE) % Chunk.CHUNK_SIZE;
-
-        int chunkX = Math.floorDiv(x, Chunk.CHUNK_SIZE);
-        int chunkY = Math.floorDiv(y, Chunk.CHUNK_SIZE);
-        int chunkZ = Math.floorDiv(z, Chunk.CHUNK_SIZE);
-        GamePosition chunkVector = new GamePosition(chunkX, chunkY, chunkZ);
+        Chunk chunk = getChunk(
+            x >> Chunk.CHUNK_SHIFT,
+            y >> Chunk.CHUNK_SHIFT,
+            z >> Chunk.CHUNK_SHIFT
+        );
+        if (chunk == null) return UNLOADED_BLOCK_ID;
 
-        if (chunks.containsKey(chunkVector)) {
-            return chunks.get(chunkVector).getBlock(localX, localY, localZ);
-        } else {
-            return 3; // TODO: Change this somehow to not be hardcoded
-        }
+        int localMask = Chunk.CHUNK_SIZE - 1;
+        return chunk.getBlock(x & localMask, y & localMask, z & localMask);
     }
 
     public int getWorldDepthChunks() {
@@ -49,41 +102,376 @@ public class World {
     }
 
     public boolean hasChunk(int x, int y, int z) {
-        return chunks.containsKey(new GamePosition(x, y, z));
+        return getChunk(x, y, z) != null;
+    }
+
+    public boolean hasChunk(long key) {
+        return getChunk(key) != null;
     }
 
     public boolean hasChunk(GamePosition pos) {
-        return chunks.containsKey(pos);
+        return getChunk(ChunkKey.of(pos)) != null;
     }
 
     public void removeChunk(int x, int y, int z) {
-        chunks.remove(new GamePosition(x, y, z));
+        long stamp = lock.writeLock();
+        try {
+            long key = ChunkKey.pack(x, y, z);
+            Chunk chunk = chunks.remove(key);
+            if (chunk != null) {
+                window.remove(x, y, z);
+                releaseColumn(key, chunk);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a chunk that may be loaded again later, remembering that it has already been populated.
+     */
+    public Chunk evictChunk(long key) {
+        long stamp = lock.writeLock();
+        try {
+            Chunk chunk = chunks.remove(key);
+            if (chunk != null) {
+                window.remove(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key));
+                releaseColumn(key, chunk);
+                evictedChunks.add(key);
+                evictionCount++;
+            }
+            return chunk;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Called with the write lock held
+    private void retainColumn(long key, Chunk chunk) {
+        if (chunk.getColumn() == null) return;
+        long columnKey = ChunkKey.pack(ChunkKey.x(key), 0, ChunkKey.z(key));
+        ColumnEntry entry = columns.get(columnKey);
+        if (entry == null) {
+            columns.put(columnKey, new ColumnEntry(chunk.getColumn()));
+        } else {
+            entry.chunkCount++;
+        }
+    }
+
+    // Called with the write lock held
+    private void releaseColumn(long key, Chunk chunk) {
+        if (chunk.getColumn() == null) return;
+        long columnKey = ChunkKey.pack(ChunkKey.x(key), 0, ChunkKey.z(key));
+        ColumnEntry entry = columns.get(columnKey);
+        if (entry != null && --entry.chunkCount == 0) {
+            columns.remove(columnKey);
+        }
+    }
+
+    public boolean wasEvicted(long key) {
+        long stamp = lock.readLock();
+        try {
+            return evictedChunks.contains(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getEvictedChunkCount() {
+        long stamp = lock.readLock();
+        try {
+            return evictedChunks.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Number of evictions since the world was created. It only grows, so a caller that remembers it
+     * can tell whether chunks it saw may have gone missing since.
+     */
+    public long getEvictionCount() {
+        long stamp = lock.readLock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Visits every chunk while holding the read lock, so the consumer must not add or remove chunks.
+     */
+    public void forEachChunk(LongObjectMap.EntryConsumer<Chunk> consumer) {
+        long stamp = lock.readLock();
+        try {
+            chunks.forEach(consumer);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getChunkCount() {
+        long stamp = lock.readLock();
+        try {
+            return chunks.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     public Set<GamePosition> getChunkPositions() {
-        return chunks.keySet();
+        Set<GamePosition> positions = new HashSet<>();
+        forEachChunk((key, chunk) -> positions.add(ChunkKey.toPosition(key)));
+        return positions;
+    }
+
+    /**
+     * Centres the active window on the given chunk. Chunks inside the window are found without hashing,
+     * so this should follow the player whenever it crosses into another chunk.
+     */
+    public void recentreActiveWindow(int chunkX, int chunkY, int chunkZ) {
+        long stamp = lock.writeLock();
+        try {
+            window.recentre(chunkX, chunkY, chunkZ, chunks);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public Chunk getChunk(int chunkX, int chunkY, int chunkZ) {
-        return chunks.get(new GamePosition(chunkX, chunkY, chunkZ));
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Chunk chunk = find(chunkX, chunkY, chunkZ);
+            if (lock.validate(stamp)) return chunk;
+        }
+
+        // A writer was active, retry while holding the read lock
+        stamp = lock.readLock();
+        try {
+            return find(chunkX, chunkY, chunkZ);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Chunk getChunk(long key) {
+        return getChunk(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key));
+    }
+
+    // Must be called under a lock or an optimistic stamp that is validated afterwards
+    private Chunk find(int chunkX, int chunkY, int chunkZ) {
+        if (window.contains(chunkX, chunkY, chunkZ)) {
+            return window.get(chunkX, chunkY, chunkZ);
+        }
+        return chunks.get(ChunkKey.pack(chunkX, chunkY, chunkZ));
     }
 
     public Chunk getChunk(GamePosition pos) {
-        return chunks.get(pos);
+        return getChunk(ChunkKey.of(pos));
     }
 
-    public List<Integer> getEntitiesInChunks(Set<GamePosition> activeChunks) {
-        ArrayList<Integer> result = new ArrayList<>();
+    /**
+     * Returns the surface column at the given chunk coordinates, or null if none of its chunks are loaded.
+     */
+    public ChunkColumn getColumn(int columnX, int columnZ) {
+        long key = ChunkKey.pack(columnX, 0, columnZ);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            ColumnEntry entry = columns.get(key);
+            if (lock.validate(stamp)) return entry == null ? null : entry.column;
+        }
+
+        stamp = lock.readLock();
+        try {
+            ColumnEntry entry = columns.get(key);
+            return entry == null ? null : entry.column;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies the blocks in the box from (minX, minY, minZ) inclusive to (maxX, maxY, maxZ) exclusive into out,
+     * laid out as [x][z][y] like the blocks of a chunk. Blocks in chunks that are not loaded read as
+     * {@link #getBlock(int, int, int)} would. Each chunk is looked up once and its columns are copied
+     * as whole spans, so large areas cost far less than one getBlock per block. Never allocates.
+     */
+    public void readBlocks(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, short[] out) {
+        int sizeX = maxX - minX;
+        int sizeY = maxY - minY;
+        int sizeZ = maxZ - minZ;
+        checkRegion(sizeX, sizeY, sizeZ, out.length);
+        if (sizeX == 0 || sizeY == 0 || sizeZ == 0) return;
+
+        int localMask = Chunk.CHUNK_SIZE - 1;
+        for (int chunkX = minX >> Chunk.CHUNK_SHIFT; chunkX <= (maxX - 1) >> Chunk.CHUNK_SHIFT; chunkX++) {
+            int fromX = Math.max(minX, chunkX << Chunk.CHUNK_SHIFT);
+            int toX = Math.min(maxX, (chunkX + 1) << Chunk.CHUNK_SHIFT);
+            for (int chunkZ = minZ >> Chunk.CHUNK_SHIFT; chunkZ <= (maxZ - 1) >> Chunk.CHUNK_SHIFT; chunkZ++) {
+                int fromZ = Math.max(minZ, chunkZ << Chunk.CHUNK_SHIFT);
+                int toZ = Math.min(maxZ, (chunkZ + 1) << Chunk.CHUNK_SHIFT);
+                for (int chunkY = minY >> Chunk.CHUNK_SHIFT; chunkY <= (maxY - 1) >> Chunk.CHUNK_SHIFT; chunkY++) {
+                    int fromY = Math.max(minY, chunkY << Chunk.CHUNK_SHIFT);
+                    int toY = Math.min(maxY, (chunkY + 1) << Chunk.CHUNK_SHIFT);
+                    int spanLength = toY - fromY;
+                    Chunk chunk = getChunk(chunkX, chunkY, chunkZ);
+
+                    for (int x = fromX; x < toX; x++) {
+                        for (int z = fromZ; z < toZ; z++) {
+                            int offset = ((x - minX) * sizeZ + (z - minZ)) * sizeY + (fromY - minY);
+                            if (chunk == null) {
+                                Arrays.fill(out, offset, offset + spanLength, UNLOADED_BLOCK_ID);
+                            } else {
+                                int localY = fromY & localMask;
+                                chunk.copyColumnTo(x & localMask, z & localMask, localY, localY + spanLength,
+                                    out, offset);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the surface heights of the block columns from (minX, minZ) inclusive to (maxX, maxZ) exclusive
+     * into out, laid out as [x][z]. Columns with no loaded chunks read as {@link #UNKNOWN_HEIGHT}.
+     * Never allocates.
+     */
+    public void readHeights(int minX, int minZ, int maxX, int maxZ, short[] out) {
+        int sizeX = maxX - minX;
+        int sizeZ = maxZ - minZ;
+        checkRegion(sizeX, 1, sizeZ, out.length);
+        if (sizeX == 0 || sizeZ == 0) return;
+
+        int localMask = Chunk.CHUNK_SIZE - 1;
+        for (int columnX = minX >> Chunk.CHUNK_SHIFT; columnX <= (maxX - 1) >> Chunk.CHUNK_SHIFT; columnX++) {
+            int fromX = Math.max(minX, columnX << Chunk.CHUNK_SHIFT);
+            int toX = Math.min(maxX, (columnX + 1) << Chunk.CHUNK_SHIFT);
+            for (int columnZ = minZ >> Chunk.CHUNK_SHIFT; columnZ <= (maxZ - 1) >> Chunk.CHUNK_SHIFT; columnZ++) {
+                int fromZ = Math.max(minZ, columnZ << Chunk.CHUNK_SHIFT);
+                int toZ = Math.min(maxZ, (columnZ + 1) << Chunk.CHUNK_SHIFT);
+                ChunkColumn column = getColumn(columnX, columnZ);
+
+                for (int x = fromX; x < toX; x++) {
+                    int offset = (x - minX) * sizeZ + (fromZ - minZ);
+                    if (column == null) {
+                        Arrays.fill(out, offset, offset + toZ - fromZ, UNKNOWN_HEIGHT);
+                        continue;
+                    }
+                    for (int z = fromZ; z < toZ; z++) {
+                        out[offset++] = (short) column.getHeight(x & localMask, z & localMask);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the chunk at the given coordinates has no faces that can be seen, so it needs no mesh. That is
+     * the case when it is all AIR, or when it is buried: entirely below the lowest surface of its column and
+     * the four columns next to it, with every one of its blocks opaque and every block touching it from a
+     * neighbouring chunk opaque too. The surface heights only pick the chunks worth checking, caves and
+     * structures are not part of them, so the blocks decide.
+     *
+     * <p>Only tells whether a chunk needs a mesh. Its blocks are stored and read as usual. Chunks that are not
+     * loaded, and chunks next to a chunk or column that is not loaded, are never hidden.
+     *
+     * @param isOpaque whether a block id hides the faces of the blocks next to it
+     */
+    public boolean isHiddenFromSurface(int chunkX, int chunkY, int chunkZ, IntPredicate isOpaque) {
+        Chunk chunk = getChunk(chunkX, chunkY, chunkZ);
+        if (chunk == null) return false;
+        if (chunk.isEmpty()) return true;
+
+        ChunkColumn column = getColumn(chunkX, chunkZ);
+        if (column == null) return false;
+        // Blocks only show where the air comes down to their height, in this column or across its borders
+        int lowestSurface = column.getMinSurfaceHeight();
+        for (int side = 0; side < 4; side++) {
+            ChunkColumn neighbour = getColumn(chunkX + SIDE_X[side], chunkZ + SIDE_Z[side]);
+            if (neighbour == null) return false;
+            lowestSurface = Math.min(lowestSurface, neighbour.getMinSurfaceHeight());
+        }
+        int bottom = chunkY << Chunk.CHUNK_SHIFT;
+        if (bottom + Chunk.CHUNK_SIZE - 1 >= lowestSurface) return false;
+
+        int last = Chunk.CHUNK_SIZE - 1;
+        if (!chunk.allBlocksMatch(0, 0, 0, last, last, last, isOpaque)) return false;
+        for (int face = 0; face < 6; face++) {
+            int dx = FACE_X[face];
+            int dy = FACE_Y[face];
+            int dz = FACE_Z[face];
+            // Nothing looks at the bottom of the world from below
+            if (chunkY + dy < 0) continue;
+            Chunk neighbour = getChunk(chunkX + dx, chunkY + dy, chunkZ + dz);
+            if (neighbour == null) return false;
+            // The layer of the neighbour that touches this chunk
+            if (!neighbour.allBlocksMatch(dx < 0 ? last : 0, dy < 0 ? last : 0, dz < 0 ? last : 0,
+                dx > 0 ? 0 : last, dy > 0 ? 0 : last, dz > 0 ? 0 : last, isOpaque)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkRegion(int sizeX, int sizeY, int sizeZ, int bufferLength) {
+        if (sizeX < 0 || sizeY < 0 || sizeZ < 0) {
+            throw new IllegalArgumentException("Region maximum must not be below its minimum");
+        }
+        long volume = (long) sizeX * sizeY * sizeZ;
+        if (volume > bufferLength) {
+            throw new IllegalArgumentException("Region of " + volume + " entries does not fit a buffer of "
+                + bufferLength);
+        }
+    }
+
+    /**
+     * Appends the ids of every entity in the given chunks to out, without boxing.
+     */
+    public void collectEntitiesInChunks(Set<GamePosition> activeChunks, IntList out) {
         for (GamePosition pos : activeChunks) {
-            result.addAll(getChunk(pos).getEntityIds());
+            Chunk chunk = getChunk(pos);
+            if (chunk != null) chunk.collectEntities(out);
         }
-        return result;
+    }
+
+    public void forEachEntity(Set<GamePosition> activeChunks, IntConsumer consumer) {
+        for (GamePosition pos : activeChunks) {
+            Chunk chunk = getChunk(pos);
+            if (chunk != null) chunk.forEachEntity(consumer);
+        }
+    }
+
+    public WorldMemoryReport getMemoryReport() {
+        // Chunk, uniform and hibernated counts, filled in from the lambda below
+        int[] counts = new int[3];
+        long[] totalBytes = new long[1];
+        forEachChunk((key, chunk) -> {
+            counts[0]++;
+            // Checked first so reporting never thaws a hibernated chunk
+            if (chunk.isHibernated()) {
+                counts[2]++;
+            } else if (chunk.isUniform()) {
+                counts[1]++;
+            }
+            totalBytes[0] += chunk.estimateMemoryBytes();
+        });
+        return new WorldMemoryReport(counts[0], counts[1], counts[2], totalBytes[0]);
     }
 
     public Chunk getChunkFromWorldPos(GamePosition position) {
-        int chunkX = Math.floorDiv((int) position.x, Chunk.CHUNK_SIZE);
-        int chunkY = Math.floorDiv((int) position.y, Chunk.CHUNK_SIZE);
-        int chunkZ = Math.floorDiv((int) position.z, Chunk.CHUNK_SIZE);
-        return getChunk(new GamePosition(chunkX, chunkY, chunkZ));
+        return getChunk(ChunkKey.fromWorldPosition(position));
+    }
+
+    // A column and the number of loaded chunks that share it
+    private static final class ColumnEntry {
+        private final ChunkColumn column;
+        private int chunkCount = 1;
+
+        private ColumnEntry(ChunkColumn column) {
+            this.column = column;
+        }
     }
 }
@@ -0,0 +1,42 @@
+package domain.world;
+
+public class WorldMemoryReport {
+    private final int chunkCount;
+    private final int uniformChunkCount;
+    private final int hibernatedChunkCount;
+    private final long totalBytes;
+
+    public WorldMemoryReport(int chunkCount, int uniformChunkCount, int hibernatedChunkCount, long totalBytes) {
+        this.chunkCount = chunkCount;
+        this.uniformChunkCount = uniformChunkCount;
+        this.hibernatedChunkCount = hibernatedChunkCount;
+        this.totalBytes = totalBytes;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public int getUniformChunkCount() {
+        return uniformChunkCount;
+    }
+
+    public int getHibernatedChunkCount() {
+        return hibernatedChunkCount;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public double getBytesPerChunk() {
+        if (chunkCount == 0) return 0;
+        return (double) totalBytes / chunkCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d chunks (%d uniform, %d hibernated), %d bytes total, %.1f bytes/chunk",
+            chunkCount, uniformChunkCount, hibernatedChunkCount, totalBytes, getBytesPerChunk());
+    }
+}
@@ -0,0 +1,109 @@
+package framework.data_access;
+
+import application.game_features.generate_chunk.ChunkColumnCache;
+import domain.world.Chunk;
+import domain.world.ChunkColumn;
+import domain.world.GamePosition;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Converts chunk terrain to and from the compressed sections stored in region files.
+ * Buffers are reused between calls, so an instance must only be used by one thread at a time.
+ */
+final class ChunkCodec {
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEIGHT_MAP_SIZE = Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE;
+    private static final int MAX_RAW_BYTES = 2 + (Chunk.CHUNK_VOLUME + HEIGHT_MAP_SIZE) * Short.BYTES;
+
+    private final short[] blocks = new short[Chunk.CHUNK_VOLUME];
+    private final ByteBuffer raw = ByteBuffer.allocate(MAX_RAW_BYTES);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[MAX_RAW_BYTES];
+
+    /**
+     * Compresses the chunk into an internal buffer and returns its length, read it with {@link #getEncoded()}.
+     */
+    int encode(Chunk chunk) {
+        raw.clear();
+        raw.put(FORMAT_VERSION);
+
+        chunk.copyBlocksTo(blocks);
+        for (short id : blocks) {
+            raw.putShort(id);
+        }
+
+        raw.put((byte) (chunk.hasHeightMap() ? 1 : 0));
+        if (chunk.hasHeightMap()) {
+            for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                    raw.putShort((short) chunk.getHeight(x, z));
+                }
+            }
+        }
+
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, raw.position());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                byte[] grown = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, grown, 0, length);
+                compressed = grown;
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        return length;
+    }
+
+    byte[] getEncoded() {
+        return compressed;
+    }
+
+    /**
+     * Rebuilds a chunk at the given chunk coordinates from a section produced by {@link #encode(Chunk)}.
+     * Every section carries the heights of its column so it can be loaded on its own, but the chunk takes
+     * its column from the cache, so chunks stacked in a column share one height map and one set of spawn
+     * noise whether they were generated or loaded.
+     */
+    Chunk decode(int chunkX, int chunkY, int chunkZ, byte[] section, int length, ChunkColumnCache columns)
+        throws DataFormatException {
+        inflater.reset();
+        inflater.setInput(section, 0, length);
+        raw.clear();
+        int rawLength = inflater.inflate(raw.array(), 0, MAX_RAW_BYTES);
+        if (!inflater.finished()) throw new DataFormatException("Chunk section is larger than expected");
+        raw.limit(rawLength);
+
+        if (raw.get() != FORMAT_VERSION) throw new DataFormatException("Unknown chunk section version");
+
+        for (int i = 0; i < Chunk.CHUNK_VOLUME; i++) {
+            blocks[i] = raw.getShort();
+        }
+        // The heights are only read when the column is not cached yet
+        ChunkColumn column = raw.get() == 1 ? columns.get(chunkX, chunkZ, this::readColumn) : null;
+
+        Chunk chunk = new Chunk(new GamePosition(chunkX, chunkY, chunkZ), column);
+        chunk.copyBlocksFrom(blocks);
+        return chunk;
+    }
+
+    private ChunkColumn readColumn(int columnX, int columnZ) {
+        ChunkColumn column = new ChunkColumn(columnX, columnZ);
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                column.setHeight(x, z, raw.getShort());
+            }
+        }
+        return column;
+    }
+
+    void dispose() {
+        deflater.end();
+        inflater.end();
+    }
+}
@@ -0,0 +1,146 @@
+package framework.data_access;
+
+import domain.collections.LongObjectMap;
+import domain.world.ChunkKey;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the visible faces of chunks, see {@link framework.rendering.ChunkFaces}, grouped into one file per
+ * region of 16x16x16 chunks like {@link RegionStore}. Each file holds the magic number, the format version and
+ * the chunk count, then for each chunk its coordinates, its face count and its faces.
+ * Regions are written whole and read whole the first time one of their chunks is asked for.
+ * All methods are synchronized so workers can share a single store.
+ */
+public class FaceListStore {
+    public static final int MAGIC = 0x5A45464C; // "ZEFL"
+    public static final int VERSION = 1;
+
+    private final Path directory;
+    // Regions read so far, regions without a file are kept as empty maps
+    private final LongObjectMap<LongObjectMap<int[]>> regions = new LongObjectMap<>();
+
+    public FaceListStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The directory holding the face lists of the world whose regions are in the given directory.
+     */
+    public static Path meshDirectory(Path worldDirectory) {
+        return worldDirectory.resolve("meshes");
+    }
+
+    private static String fileName(int regionX, int regionY, int regionZ) {
+        return "r." + regionX + "." + regionY + "." + regionZ + ".faces";
+    }
+
+    private static long regionOf(long chunkKey) {
+        return ChunkKey.pack(ChunkKey.x(chunkKey) >> RegionFile.REGION_SHIFT,
+            ChunkKey.y(chunkKey) >> RegionFile.REGION_SHIFT, ChunkKey.z(chunkKey) >> RegionFile.REGION_SHIFT);
+    }
+
+    /**
+     * Returns the stored faces of a chunk, or null if none were stored for it.
+     */
+    public synchronized int[] find(int chunkX, int chunkY, int chunkZ) {
+        long key = ChunkKey.pack(chunkX, chunkY, chunkZ);
+        long region = regionOf(key);
+        LongObjectMap<int[]> chunks = regions.get(region);
+        if (chunks == null) {
+            try {
+                chunks = readRegion(region);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            regions.put(region, chunks);
+        }
+        return chunks.get(key);
+    }
+
+    /**
+     * Writes the faces of the given chunks, keyed by {@link ChunkKey}. Every region they fall in is replaced,
+     * so all chunks of a region must be written together.
+     */
+    public synchronized void writeAll(LongObjectMap<int[]> facesByChunk) throws IOException {
+        Files.createDirectories(directory);
+        LongObjectMap<RegionEntries> byRegion = new LongObjectMap<>();
+        facesByChunk.forEach((key, faces) -> {
+            long region = regionOf(key);
+            RegionEntries entries = byRegion.get(region);
+            if (entries == null) {
+                entries = new RegionEntries(region);
+                byRegion.put(region, entries);
+            }
+            entries.keys.add(key);
+            entries.faces.add(faces);
+        });
+        for (RegionEntries entries : byRegion.values()) {
+            writeRegion(entries);
+            regions.remove(entries.region);
+        }
+    }
+
+    private void writeRegion(RegionEntries entries) throws IOException {
+        Path path = directory.resolve(
+            fileName(ChunkKey.x(entries.region), ChunkKey.y(entries.region), ChunkKey.z(entries.region)));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.keys.size());
+            for (int i = 0; i < entries.keys.size(); i++) {
+                long key = entries.keys.get(i);
+                int[] faces = entries.faces.get(i);
+                out.writeInt(ChunkKey.x(key));
+                out.writeInt(ChunkKey.y(key));
+                out.writeInt(ChunkKey.z(key));
+                out.writeInt(faces.length);
+                for (int face : faces) {
+                    out.writeInt(face);
+                }
+            }
+        }
+    }
+
+    private LongObjectMap<int[]> readRegion(long region) throws IOException {
+        Path path = directory.resolve(fileName(ChunkKey.x(region), ChunkKey.y(region), ChunkKey.z(region)));
+        LongObjectMap<int[]> chunks = new LongObjectMap<>();
+        if (!Files.exists(path)) return chunks;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int magic = in.readInt();
+            int version = in.readInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException(path + " is not a version " + VERSION + " face list");
+            }
+            int chunkCount = in.readInt();
+            for (int i = 0; i < chunkCount; i++) {
+                long key = ChunkKey.pack(in.readInt(), in.readInt(), in.readInt());
+                int[] faces = new int[in.readInt()];
+                for (int f = 0; f < faces.length; f++) {
+                    faces[f] = in.readInt();
+                }
+                chunks.put(key, faces);
+            }
+        }
+        return chunks;
+    }
+
+    private static final class RegionEntries {
+        private final long region;
+        private final List<Long> keys = new ArrayList<>();
+        private final List<int[]> faces = new ArrayList<>();
+
+        private RegionEntries(long region) {
+            this.region = region;
+        }
+    }
+}
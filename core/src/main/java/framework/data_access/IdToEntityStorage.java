@@ -2,17 +2,18 @@ package framework.data_access;
 
 
 import application.gateways.EntityStorage;
+import domain.collections.IntObjectMap;
 import domain.entities.Entity;
 import domain.entities.Train;
 import domain.world.Chunk;
 import domain.world.GamePosition;
 import domain.world.World;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 public class IdToEntityStorage implements EntityStorage {
-    private final Map<Integer, Entity> storage = new HashMap<>();
+    private final IntObjectMap<Entity> storage = new IntObjectMap<>();
     private final World world;
 
     public IdToEntityStorage(World world) {
@@ -29,12 +30,12 @@ public class IdToEntityStorage implements EntityStorage {
     }
 
     @Override
-    public Entity getEntityByID(Integer id) {
+    public Entity getEntityByID(int id) {
         return storage.get(id);
     }
 
     @Override
-    public void setIDEntityPair(Integer id, Entity e) {
+    public void setIDEntityPair(int id, Entity e) {
         storage.put(id, e);
         GamePosition position = e.getPosition();
         Chunk chunk = world.getChunkFromWorldPos(position);
@@ -42,7 +43,7 @@ public class IdToEntityStorage implements EntityStorage {
     }
 
     @Override
-    public void removeEntity(Integer id) {
+    public void removeEntity(int id) {
         Entity entity = storage.get(id);
         if (entity == null) return;
         GamePosition position = entity.getPosition();
@@ -51,8 +52,15 @@ public class IdToEntityStorage implements EntityStorage {
         chunk.removeEntity(id);
     }
 
+    @Override
+    public void forEachEntity(IntConsumer consumer) {
+        storage.forEachKey(consumer);
+    }
+
     @Override
     public Set<Integer> getAllIds() {
-        return storage.keySet();
+        Set<Integer> ids = new HashSet<>();
+        storage.forEachKey(ids::add);
+        return ids;
     }
 }
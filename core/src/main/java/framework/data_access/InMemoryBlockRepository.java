@@ -2,32 +2,77 @@ package framework.data_access;
 
 import application.gateways.BlockRepository;
 import domain.world.Block;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 // Adapter class following the flyweight factory pattern
 public class InMemoryBlockRepository implements BlockRepository {
-    private final Map<Short, Block> blocksById = new HashMap<>();
+    // Indexed by block id, ids without a block are null
+    private final Block[] blocksById;
+    private final boolean[] solid;
+    private final boolean[] transparent;
+    private final boolean[] opaqueForCulling;
     private final Map<String, Block> blocksByName = new HashMap<>();
+    private final List<Block> allBlocks = new ArrayList<>();
 
-    // TODO: We will update this repository to read from json
+    /**
+     * Creates a repository with the built-in blocks, for when assets/blocks.json is not available.
+     */
     public InMemoryBlockRepository() {
-        register(new Block((short) 0, "AIR", false, true));
-        register(new Block((short) 1, "GRASS", true, false));
-        register(new Block((short) 2, "DIRT", true, false));
-        register(new Block((short) 3, "STONE", true, false));
+        this(Arrays.asList(
+            new Block((short) 0, "AIR", false, true),
+            new Block((short) 1, "GRASS", true, false),
+            new Block((short) 2, "DIRT", true, false),
+            new Block((short) 3, "STONE", true, false)
+        ));
+    }
+
+    public InMemoryBlockRepository(Collection<Block> blocks) {
+        int maxId = -1;
+        for (Block block : blocks) {
+            if (block.getId() < 0) {
+                throw new IllegalArgumentException("Block ids must not be negative: " + block.getName());
+            }
+            maxId = Math.max(maxId, block.getId());
+        }
+
+        blocksById = new Block[maxId + 1];
+        solid = new boolean[maxId + 1];
+        transparent = new boolean[maxId + 1];
+        opaqueForCulling = new boolean[maxId + 1];
+        for (Block block : blocks) {
+            register(block);
+        }
     }
 
     private void register(Block block) {
-        blocksById.put(block.getId(), block);
-        blocksByName.put(block.getName(), block);
+        short id = block.getId();
+        String name = block.getName().toUpperCase();
+        if (blocksById[id] != null) {
+            throw new IllegalArgumentException("Duplicate block id " + id);
+        }
+        if (blocksByName.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate block name " + name);
+        }
+
+        blocksById[id] = block;
+        solid[id] = block.isSolid();
+        transparent[id] = block.isTransparent();
+        opaqueForCulling[id] = block.isOpaqueForCulling();
+        blocksByName.put(name, block);
+        allBlocks.add(block);
     }
 
     @Override
     public Optional<Block> findById(short id) {
-        return Optional.ofNullable(blocksById.get(id));
+        if (id < 0 || id >= blocksById.length) return Optional.empty();
+        return Optional.ofNullable(blocksById[id]);
     }
 
     @Override
@@ -37,6 +82,21 @@ public class InMemoryBlockRepository implements BlockRepository {
 
     @Override
     public Collection<Block> findAll() {
-        return blocksById.values();
+        return Collections.unmodifiableList(allBlocks);
+    }
+
+    @Override
+    public boolean isSolid(short id) {
+        return id >= 0 && id < solid.length && solid[id];
+    }
+
+    @Override
+    public boolean isTransparent(short id) {
+        return id >= 0 && id < transparent.length && transparent[id];
+    }
+
+    @Override
+    public boolean isOpaqueForCulling(short id) {
+        return id >= 0 && id < opaqueForCulling.length && opaqueForCulling[id];
     }
 }
@@ -0,0 +1,59 @@
+package framework.data_access;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import domain.world.Block;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads block definitions such as assets/blocks.json:
+ * <pre>
+ * { "blocks": [ { "id": 1, "name": "GRASS", "solid": true, "transparent": false } ] }
+ * </pre>
+ * "opaqueForCulling" is optional and defaults to solid and not transparent.
+ */
+public class JsonBlockDefinitions {
+    public static final String DEFAULT_PATH = "blocks.json";
+
+    private JsonBlockDefinitions() {
+    }
+
+    public static List<Block> read(Reader reader) {
+        List<Block> blocks = new ArrayList<>();
+        try {
+            JsonArray definitions = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonArray("blocks");
+            if (definitions == null) {
+                throw new IllegalArgumentException("Block definitions are missing the \"blocks\" array");
+            }
+            for (JsonElement element : definitions) {
+                blocks.add(readBlock(element.getAsJsonObject()));
+            }
+        } catch (JsonParseException | IllegalStateException | ClassCastException e) {
+            throw new IllegalArgumentException("Malformed block definitions", e);
+        }
+        return blocks;
+    }
+
+    private static Block readBlock(JsonObject definition) {
+        if (!definition.has("id") || !definition.has("name")) {
+            throw new IllegalArgumentException("Block definition needs an id and a name: " + definition);
+        }
+        int id = definition.get("id").getAsInt();
+        if (id < 0 || id > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Block id out of range: " + id);
+        }
+
+        String name = definition.get("name").getAsString().toUpperCase();
+        boolean solid = definition.has("solid") && definition.get("solid").getAsBoolean();
+        boolean transparent = definition.has("transparent") && definition.get("transparent").getAsBoolean();
+        boolean opaqueForCulling = definition.has("opaqueForCulling")
+            ? definition.get("opaqueForCulling").getAsBoolean()
+            : solid && !transparent;
+        return new Block((short) id, name, solid, transparent, opaqueForCulling);
+    }
+}
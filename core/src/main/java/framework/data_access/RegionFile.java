@@ -0,0 +1,127 @@
+package framework.data_access;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A single region file holding up to REGION_SIZE^3 chunk sections.
+ * The file starts with an offset table giving the first sector and byte length of every section,
+ * followed by the sections themselves aligned to SECTOR_BYTES. The table stays memory mapped while
+ * the file is open. Sections are read and written with positional channel I/O, mapping each one
+ * would cost more than the copy and leave the mappings around until the next garbage collection.
+ */
+final class RegionFile {
+    static final int REGION_SHIFT = 4;
+    static final int REGION_SIZE = 1 << REGION_SHIFT;
+    static final int REGION_MASK = REGION_SIZE - 1;
+    static final int SECTOR_BYTES = 4096;
+
+    private static final int ENTRY_COUNT = REGION_SIZE * REGION_SIZE * REGION_SIZE;
+    private static final int ENTRY_BYTES = 2 * Integer.BYTES;
+    private static final int HEADER_BYTES = ENTRY_COUNT * ENTRY_BYTES;
+    private static final int HEADER_SECTORS = HEADER_BYTES / SECTOR_BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final BitSet usedSectors = new BitSet();
+
+    RegionFile(Path path) throws IOException {
+        channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int entry = 0; entry < ENTRY_COUNT; entry++) {
+            int length = lengthOf(entry);
+            if (length > 0) {
+                int sector = sectorOf(entry);
+                usedSectors.set(sector, sector + sectorsFor(length));
+            }
+        }
+    }
+
+    /**
+     * Returns the table entry of a chunk, using the low bits of its chunk coordinates.
+     */
+    static int entryIndex(int chunkX, int chunkY, int chunkZ) {
+        return ((chunkX & REGION_MASK) << (2 * REGION_SHIFT))
+            | ((chunkZ & REGION_MASK) << REGION_SHIFT)
+            | (chunkY & REGION_MASK);
+    }
+
+    private static int sectorsFor(int length) {
+        return (length + SECTOR_BYTES - 1) / SECTOR_BYTES;
+    }
+
+    private int sectorOf(int entry) {
+        return header.getInt(entry * ENTRY_BYTES);
+    }
+
+    private int lengthOf(int entry) {
+        return header.getInt(entry * ENTRY_BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Returns the stored section for an entry, or null if it was never written.
+     */
+    byte[] read(int entry) throws IOException {
+        int length = lengthOf(entry);
+        if (length == 0) return null;
+
+        byte[] bytes = new byte[length];
+        ByteBuffer section = ByteBuffer.wrap(bytes);
+        long position = (long) sectorOf(entry) * SECTOR_BYTES;
+        while (section.hasRemaining()) {
+            if (channel.read(section, position + section.position()) < 0) {
+                throw new EOFException("Region file ends inside the section of entry " + entry);
+            }
+        }
+        return bytes;
+    }
+
+    void write(int entry, byte[] data, int length) throws IOException {
+        int needed = sectorsFor(length);
+        int sector = sectorOf(entry);
+        int oldLength = lengthOf(entry);
+
+        // Sections that still fit are rewritten in place, otherwise they move to the first gap large enough
+        if (oldLength == 0 || sectorsFor(oldLength) < needed) {
+            if (oldLength > 0) {
+                usedSectors.clear(sector, sector + sectorsFor(oldLength));
+            }
+            sector = findFreeRun(needed);
+        } else {
+            usedSectors.clear(sector + needed, sector + sectorsFor(oldLength));
+        }
+        usedSectors.set(sector, sector + needed);
+
+        ByteBuffer section = ByteBuffer.wrap(data, 0, length);
+        long position = (long) sector * SECTOR_BYTES;
+        while (section.hasRemaining()) {
+            channel.write(section, position + section.position());
+        }
+
+        header.putInt(entry * ENTRY_BYTES, sector);
+        header.putInt(entry * ENTRY_BYTES + Integer.BYTES, length);
+    }
+
+    private int findFreeRun(int sectors) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int nextUsed = usedSectors.nextSetBit(start);
+            if (nextUsed < 0 || nextUsed - start >= sectors) return start;
+            start = usedSectors.nextClearBit(nextUsed);
+        }
+    }
+
+    void close() throws IOException {
+        header.force();
+        channel.close();
+    }
+}
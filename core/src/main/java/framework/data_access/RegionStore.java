@@ -0,0 +1,125 @@
+package framework.data_access;
+
+import application.game_features.generate_chunk.ChunkColumnCache;
+import application.gateways.ChunkRepository;
+import domain.collections.LongObjectMap;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.GamePosition;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+
+/**
+ * Stores chunk terrain on the local filesystem, grouped into region files of 16x16x16 chunks.
+ * Region files are opened on first use and stay open until {@link #close()}.
+ * All methods are synchronized so generation workers can share a single store.
+ * Loaded chunks take their columns from a column cache, which should be the one the generator uses.
+ */
+public class RegionStore implements ChunkRepository {
+    private static final int DEFAULT_CACHED_COLUMNS = 256;
+
+    private final Path directory;
+    private final LongObjectMap<RegionFile> regions = new LongObjectMap<>();
+    private final ChunkCodec codec = new ChunkCodec();
+    private final ChunkColumnCache columns;
+
+    /**
+     * Creates a store with a column cache of its own, for tools that only load chunks.
+     */
+    public RegionStore(Path directory) {
+        this(directory, new ChunkColumnCache(DEFAULT_CACHED_COLUMNS));
+    }
+
+    public RegionStore(Path directory, ChunkColumnCache columns) {
+        this.directory = directory;
+        this.columns = columns;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create region directory " + directory, e);
+        }
+    }
+
+    /**
+     * The directory holding the regions of one world under the save directory. Terrain depends on the seed and
+     * on the generator, so each pair gets its own directory and a store never serves chunks saved for another
+     * seed or by an older generator. Those are generated again instead.
+     */
+    public static Path worldDirectory(Path saveDirectory, int seed, int generatorVersion) {
+        return saveDirectory.resolve("seed-" + seed + "-gen-" + generatorVersion);
+    }
+
+    private static String fileName(int regionX, int regionY, int regionZ) {
+        return "r." + regionX + "." + regionY + "." + regionZ + ".region";
+    }
+
+    // Returns the open region holding the chunk, or null if it does not exist and create is false
+    private RegionFile region(int chunkX, int chunkY, int chunkZ, boolean create) throws IOException {
+        int regionX = chunkX >> RegionFile.REGION_SHIFT;
+        int regionY = chunkY >> RegionFile.REGION_SHIFT;
+        int regionZ = chunkZ >> RegionFile.REGION_SHIFT;
+        long key = ChunkKey.pack(regionX, regionY, regionZ);
+
+        RegionFile region = regions.get(key);
+        if (region != null) return region;
+
+        Path path = directory.resolve(fileName(regionX, regionY, regionZ));
+        if (!create && !Files.exists(path)) return null;
+        region = new RegionFile(path);
+        regions.put(key, region);
+        return region;
+    }
+
+    @Override
+    public synchronized Optional<Chunk> findByPosition(GamePosition chunkPosition) {
+        int chunkX = (int) chunkPosition.x;
+        int chunkY = (int) chunkPosition.y;
+        int chunkZ = (int) chunkPosition.z;
+        try {
+            RegionFile region = region(chunkX, chunkY, chunkZ, false);
+            if (region == null) return Optional.empty();
+
+            byte[] section = region.read(RegionFile.entryIndex(chunkX, chunkY, chunkZ));
+            if (section == null) return Optional.empty();
+            return Optional.of(codec.decode(chunkX, chunkY, chunkZ, section, section.length, columns));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            // A damaged section is treated as missing so the chunk is generated again and overwritten
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void save(Chunk chunk) {
+        int chunkX = chunk.getChunkX();
+        int chunkY = chunk.getChunkY();
+        int chunkZ = chunk.getChunkZ();
+        try {
+            RegionFile region = region(chunkX, chunkY, chunkZ, true);
+            int length = codec.encode(chunk);
+            region.write(RegionFile.entryIndex(chunkX, chunkY, chunkZ), codec.getEncoded(), length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        IOException failure = null;
+        for (RegionFile region : regions.values()) {
+            try {
+                region.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        regions.clear();
+        codec.dispose();
+        if (failure != null) throw new UncheckedIOException(failure);
+    }
+}
@@ -0,0 +1,94 @@
+package framework.rendering;
+
+import application.gateways.BlockRepository;
+import domain.collections.IntList;
+import domain.world.Chunk;
+import domain.world.ChunkNeighborhood;
+import java.util.Arrays;
+
+/**
+ * The CPU side of chunk meshing: the faces of every block that border a block which does not hide them,
+ * culled the same way as {@link ChunkMeshGenerator}. Face lists need no GL context, so they can be worked out
+ * ahead of time and stored, and {@link ChunkMeshGenerator#createMesh(Chunk, int[])} builds a mesh from one
+ * without reading any blocks.
+ *
+ * <p>Every face is one int: the block index inside the chunk ((x << 8) | (z << 4) | y) in bits 0-11,
+ * the side in bits 12-14 and the block id in bits 16-31.
+ */
+public final class ChunkFaces {
+    public static final int TOP = 0;
+    public static final int BOTTOM = 1;
+    public static final int NORTH = 2;
+    public static final int SOUTH = 3;
+    public static final int EAST = 4;
+    public static final int WEST = 5;
+    public static final int SIDES = 6;
+
+    // Step from a block to the one each side faces, in the neighbourhood's padded layout
+    private static final int[] NEIGHBOUR_OFFSETS = {
+        ChunkNeighborhood.Y_STRIDE, -ChunkNeighborhood.Y_STRIDE,
+        ChunkNeighborhood.Z_STRIDE, -ChunkNeighborhood.Z_STRIDE,
+        ChunkNeighborhood.X_STRIDE, -ChunkNeighborhood.X_STRIDE
+    };
+
+    private ChunkFaces() {
+    }
+
+    public static int pack(int x, int y, int z, int side, short blockId) {
+        return (x << 8) | (z << 4) | y | (side << 12) | ((blockId & 0xFFFF) << 16);
+    }
+
+    public static int x(int face) {
+        return (face >>> 8) & 0xF;
+    }
+
+    public static int y(int face) {
+        return face & 0xF;
+    }
+
+    public static int z(int face) {
+        return (face >>> 4) & 0xF;
+    }
+
+    public static int side(int face) {
+        return (face >>> 12) & 0x7;
+    }
+
+    public static short blockId(int face) {
+        return (short) (face >>> 16);
+    }
+
+    /**
+     * Returns the padded index offset from a block to the one the given side faces.
+     */
+    public static int neighbourOffset(int side) {
+        return NEIGHBOUR_OFFSETS[side];
+    }
+
+    /**
+     * Returns the visible faces of the centre chunk of a loaded neighbourhood, sorted so the faces of each
+     * block type are next to each other. Blocks of neighbours that are not loaded hide the faces next to them.
+     */
+    public static int[] extract(ChunkNeighborhood neighborhood, BlockRepository blockRepository, short air) {
+        IntList faces = new IntList();
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                int columnStart = ChunkNeighborhood.index(x, 0, z);
+                for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                    int index = columnStart + y;
+                    short block = neighborhood.getBlock(index);
+                    if (block == air) continue;
+                    for (int side = 0; side < SIDES; side++) {
+                        short neighbour = neighborhood.getBlock(index + NEIGHBOUR_OFFSETS[side]);
+                        if (!blockRepository.isOpaqueForCulling(neighbour)) {
+                            faces.add(pack(x, y, z, side, block));
+                        }
+                    }
+                }
+            }
+        }
+        int[] sorted = faces.toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
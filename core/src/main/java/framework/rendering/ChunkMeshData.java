@@ -4,16 +4,20 @@ import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.physics.bullet.collision.btBvhTriangleMeshShape;
 import com.badlogic.gdx.physics.bullet.collision.btTriangleMesh;
 import com.badlogic.gdx.utils.Disposable;
+import domain.world.Chunk;
 
 public class ChunkMeshData implements Disposable {
     private final Model model;
     private final btBvhTriangleMeshShape shape;
     private final btTriangleMesh triangleMesh;
+    // Version of the chunk the mesh was built from
+    private final long chunkVersion;
 
-    public ChunkMeshData(Model model, btBvhTriangleMeshShape shape, btTriangleMesh triangleMesh) {
+    public ChunkMeshData(Model model, btBvhTriangleMeshShape shape, btTriangleMesh triangleMesh, long chunkVersion) {
         this.model = model;
         this.shape = shape;
         this.triangleMesh = triangleMesh;
+        this.chunkVersion = chunkVersion;
     }
 
     public btBvhTriangleMeshShape getShape() {
@@ -24,6 +28,17 @@ public class ChunkMeshData implements Disposable {
         return model;
     }
 
+    public long getChunkVersion() {
+        return chunkVersion;
+    }
+
+    /**
+     * Returns true if the chunk has been written since this mesh was built from it.
+     */
+    public boolean isStaleFor(Chunk chunk) {
+        return chunk.getVersion() != chunkVersion;
+    }
+
     @Override
     public void dispose() {
         model.dispose();
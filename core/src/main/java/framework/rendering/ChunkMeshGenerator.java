@@ -13,6 +13,7 @@ import com.badlogic.gdx.physics.bullet.collision.btBvhTriangleMeshShape;
 import com.badlogic.gdx.physics.bullet.collision.btTriangleMesh;
 import domain.world.Block;
 import domain.world.Chunk;
+import domain.world.ChunkNeighborhood;
 import domain.world.World;
 
 public class ChunkMeshGenerator {
@@ -24,6 +25,7 @@ public class ChunkMeshGenerator {
     private final BlockRepository blockRepository;
     private final TexturedBlockMaterialRepository blockMaterialRepository;
     private final Block air;
+    private final ChunkNeighborhood neighborhood = new ChunkNeighborhood();
 
     public ChunkMeshGenerator(World world, BlockRepository blockRepository,
                               TexturedBlockMaterialRepository blockMaterialRepository) {
@@ -33,10 +35,15 @@ public class ChunkMeshGenerator {
         air = blockRepository.findByName("AIR").orElseThrow();
     }
 
+    /**
+     * Builds the mesh of a chunk from a snapshot of its blocks. Check {@link ChunkMeshData#isStaleFor(Chunk)}
+     * before using the result if the chunk may have been written while meshing.
+     */
     public ChunkMeshData createMesh(Chunk chunk) {
         ModelBuilder modelBuilder = new ModelBuilder();
         modelBuilder.begin();
         btTriangleMesh triangleMesh = new btTriangleMesh();
+        neighborhood.load(world, chunk);
 
         for (Block block : blockRepository.findAll()) {
             if (block.getId() != air.getId()) {
@@ -44,6 +51,45 @@ public class ChunkMeshGenerator {
             }
         }
 
+        return finish(modelBuilder, triangleMesh, neighborhood.getCentreVersion());
+    }
+
+    /**
+     * Builds the mesh of a chunk from faces worked out ahead of time, see {@link ChunkFaces}. No blocks are read,
+     * so the faces must have been extracted from the chunk as it is now, with its neighbours loaded.
+     */
+    public ChunkMeshData createMesh(Chunk chunk, int[] faces) {
+        long version = chunk.getVersion();
+        ModelBuilder modelBuilder = new ModelBuilder();
+        modelBuilder.begin();
+        btTriangleMesh triangleMesh = new btTriangleMesh();
+        int worldX = chunk.getChunkX() * Chunk.CHUNK_SIZE;
+        int worldY = chunk.getChunkY() * Chunk.CHUNK_SIZE;
+        int worldZ = chunk.getChunkZ() * Chunk.CHUNK_SIZE;
+
+        // Face lists are sorted, so the faces of each block type form one run and one mesh part
+        int start = 0;
+        while (start < faces.length) {
+            short id = ChunkFaces.blockId(faces[start]);
+            int end = start + 1;
+            while (end < faces.length && ChunkFaces.blockId(faces[end]) == id) {
+                end++;
+            }
+            Block type = blockRepository.findById(id).orElseThrow(
+                () -> new IllegalArgumentException("Face list of " + chunk.getPosition() + " has unknown block " + id));
+            MeshPartBuilder meshBuilder = beginPart(modelBuilder, type);
+            for (int i = start; i < end; i++) {
+                int face = faces[i];
+                buildFace(triangleMesh, meshBuilder, ChunkFaces.side(face), worldX + ChunkFaces.x(face),
+                    worldY + ChunkFaces.y(face), worldZ + ChunkFaces.z(face), type);
+            }
+            start = end;
+        }
+
+        return finish(modelBuilder, triangleMesh, version);
+    }
+
+    private static ChunkMeshData finish(ModelBuilder modelBuilder, btTriangleMesh triangleMesh, long chunkVersion) {
         if (triangleMesh.getNumTriangles() == 0) {
             triangleMesh.dispose();
             modelBuilder.end().dispose();
@@ -51,187 +97,198 @@ public class ChunkMeshGenerator {
         } else {
             btBvhTriangleMeshShape bvhTriangle = new btBvhTriangleMeshShape(triangleMesh, true);
             Model completeModel = modelBuilder.end();
-            return new ChunkMeshData(completeModel, bvhTriangle, triangleMesh);
+            return new ChunkMeshData(completeModel, bvhTriangle, triangleMesh, chunkVersion);
         }
     }
 
-    private void buildType(Chunk chunk, btTriangleMesh triangleMesh, ModelBuilder modelBuilder,
-                           Block type) {
+    private MeshPartBuilder beginPart(ModelBuilder modelBuilder, Block type) {
         Material material = blockMaterialRepository.getMaterial(type);
 
         long attributes = VertexAttributes.Usage.Position |
             VertexAttributes.Usage.Normal |
             VertexAttributes.Usage.TextureCoordinates |
             VertexAttributes.Usage.ColorUnpacked;
-        MeshPartBuilder meshBuilder = modelBuilder.part(
+        return modelBuilder.part(
             type.toString(),
             GL20.GL_TRIANGLES,
             attributes,
             material
         );
+    }
 
+    private void buildType(Chunk chunk, btTriangleMesh triangleMesh, ModelBuilder modelBuilder,
+                           Block type) {
+        MeshPartBuilder meshBuilder = beginPart(modelBuilder, type);
+
+        // Walk the neighbourhood in storage order so the scan stays sequential
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
-            for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
-                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                    if (chunk.getBlock(x, y, z) == type.getId()) {
-                        buildBlockFaces(world, chunk, triangleMesh, meshBuilder, x, y, z, type);
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                int columnStart = ChunkNeighborhood.index(x, 0, z);
+                for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                    if (neighborhood.getBlock(columnStart + y) == type.getId()) {
+                        buildBlockFaces(chunk, triangleMesh, meshBuilder, columnStart + y, x, y, z, type);
                     }
                 }
             }
         }
     }
 
-    private void buildBlockFaces(World world, Chunk chunk, btTriangleMesh triangleMesh, MeshPartBuilder meshBuilder,
-                                 int x, int y, int z, Block type) {
+    // A face is only built when the block next to it does not hide it
+    private boolean isExposed(short neighbour) {
+        return !blockRepository.isOpaqueForCulling(neighbour);
+    }
+
+    private void buildBlockFaces(Chunk chunk, btTriangleMesh triangleMesh, MeshPartBuilder meshBuilder,
+                                 int index, int x, int y, int z, Block type) {
         int worldX = x + chunk.getChunkX() * Chunk.CHUNK_SIZE;
         int worldY = y + chunk.getChunkY() * Chunk.CHUNK_SIZE;
         int worldZ = z + chunk.getChunkZ() * Chunk.CHUNK_SIZE;
 
+        for (int side = 0; side < ChunkFaces.SIDES; side++) {
+            if (isExposed(neighborhood.getBlock(index + ChunkFaces.neighbourOffset(side)))) {
+                buildFace(triangleMesh, meshBuilder, side, worldX, worldY, worldZ, type);
+            }
+        }
+    }
+
+    private void buildFace(btTriangleMesh triangleMesh, MeshPartBuilder meshBuilder, int side,
+                           int worldX, int worldY, int worldZ, Block type) {
         boolean removeDuplicateVertices = false;
         meshBuilder.setColor(Color.WHITE);
 
-        // Top face (y+)
-        if (world.getBlock(worldX, worldY + 1, worldZ) == air.getId()) {
-            meshBuilder.setUVRange(
-                blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.TOP));
+        switch (side) {
+            case ChunkFaces.TOP:
+                meshBuilder.setUVRange(
+                    blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.TOP));
 
-            if (type.getId() == 1) {
-                meshBuilder.setColor(GRASS_COLOR);
-            }
+                if (type.getId() == 1) {
+                    meshBuilder.setColor(GRASS_COLOR);
+                }
 
-            meshBuilder.rect(worldX, worldY + 1, worldZ + 1,
-                worldX + 1, worldY + 1, worldZ + 1,
-                worldX + 1, worldY + 1, worldZ,
-                worldX, worldY + 1, worldZ,
-                0, 1, 0);
-
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY + 1, worldZ + 1),
-                p2.set(worldX + 1, worldY + 1, worldZ + 1),
-                p3.set(worldX + 1, worldY + 1, worldZ),
-                removeDuplicateVertices);
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY + 1, worldZ + 1),
-                p2.set(worldX + 1, worldY + 1, worldZ),
-                p3.set(worldX, worldY + 1, worldZ),
-                removeDuplicateVertices);
-        }
+                meshBuilder.rect(worldX, worldY + 1, worldZ + 1,
+                    worldX + 1, worldY + 1, worldZ + 1,
+                    worldX + 1, worldY + 1, worldZ,
+                    worldX, worldY + 1, worldZ,
+                    0, 1, 0);
 
-        meshBuilder.setColor(Color.WHITE);
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY + 1, worldZ + 1),
+                    p2.set(worldX + 1, worldY + 1, worldZ + 1),
+                    p3.set(worldX + 1, worldY + 1, worldZ),
+                    removeDuplicateVertices);
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY + 1, worldZ + 1),
+                    p2.set(worldX + 1, worldY + 1, worldZ),
+                    p3.set(worldX, worldY + 1, worldZ),
+                    removeDuplicateVertices);
+                break;
+            case ChunkFaces.BOTTOM:
+                meshBuilder.setUVRange(
+                    blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.BOTTOM));
 
-        // Bottom face (y-)
-        if (world.getBlock(worldX, worldY - 1, worldZ) == air.getId()) {
-            meshBuilder.setUVRange(
-                blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.BOTTOM));
-
-            meshBuilder.rect(worldX, worldY, worldZ,
-                worldX + 1, worldY, worldZ,
-                worldX + 1, worldY, worldZ + 1,
-                worldX, worldY, worldZ + 1,
-                0, -1, 0);
-
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY, worldZ),
-                p2.set(worldX + 1, worldY, worldZ),
-                p3.set(worldX + 1, worldY, worldZ + 1),
-                removeDuplicateVertices);
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY, worldZ),
-                p2.set(worldX + 1, worldY, worldZ + 1),
-                p3.set(worldX, worldY, worldZ + 1),
-                removeDuplicateVertices);
-        }
+                meshBuilder.rect(worldX, worldY, worldZ,
+                    worldX + 1, worldY, worldZ,
+                    worldX + 1, worldY, worldZ + 1,
+                    worldX, worldY, worldZ + 1,
+                    0, -1, 0);
 
-        // North face (z+)
-        if (world.getBlock(worldX, worldY, worldZ + 1) == air.getId()) {
-            meshBuilder.setUVRange(
-                blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
-
-            meshBuilder.rect(worldX, worldY, worldZ + 1,
-                worldX + 1, worldY, worldZ + 1,
-                worldX + 1, worldY + 1, worldZ + 1,
-                worldX, worldY + 1, worldZ + 1,
-                0, 0, 1);
-
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY, worldZ + 1),
-                p2.set(worldX + 1, worldY, worldZ + 1),
-                p3.set(worldX + 1, worldY + 1, worldZ + 1),
-                removeDuplicateVertices);
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY, worldZ + 1),
-                p2.set(worldX + 1, worldY + 1, worldZ + 1),
-                p3.set(worldX, worldY + 1, worldZ + 1),
-                removeDuplicateVertices);
-        }
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY, worldZ),
+                    p2.set(worldX + 1, worldY, worldZ),
+                    p3.set(worldX + 1, worldY, worldZ + 1),
+                    removeDuplicateVertices);
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY, worldZ),
+                    p2.set(worldX + 1, worldY, worldZ + 1),
+                    p3.set(worldX, worldY, worldZ + 1),
+                    removeDuplicateVertices);
+                break;
+            case ChunkFaces.NORTH:
+                meshBuilder.setUVRange(
+                    blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
 
-        // South face (z-)
-        if (world.getBlock(worldX, worldY, worldZ - 1) == air.getId()) {
-            meshBuilder.setUVRange(
-                blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
-
-            meshBuilder.rect(worldX + 1, worldY, worldZ,
-                worldX, worldY, worldZ,
-                worldX, worldY + 1, worldZ,
-                worldX + 1, worldY + 1, worldZ,
-                0, 0, -1);
-
-            triangleMesh.addTriangle(
-                p1.set(worldX + 1, worldY, worldZ),
-                p2.set(worldX, worldY, worldZ),
-                p3.set(worldX, worldY + 1, worldZ),
-                removeDuplicateVertices);
-            triangleMesh.addTriangle(
-                p1.set(worldX + 1, worldY, worldZ),
-                p2.set(worldX, worldY + 1, worldZ),
-                p3.set(worldX + 1, worldY + 1, worldZ),
-                removeDuplicateVertices);
-        }
+                meshBuilder.rect(worldX, worldY, worldZ + 1,
+                    worldX + 1, worldY, worldZ + 1,
+                    worldX + 1, worldY + 1, worldZ + 1,
+                    worldX, worldY + 1, worldZ + 1,
+                    0, 0, 1);
 
-        // East face (x+)
-        if (world.getBlock(worldX + 1, worldY, worldZ) == air.getId()) {
-            meshBuilder.setUVRange(
-                blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
-
-            meshBuilder.rect(worldX + 1, worldY, worldZ + 1,
-                worldX + 1, worldY, worldZ,
-                worldX + 1, worldY + 1, worldZ,
-                worldX + 1, worldY + 1, worldZ + 1,
-                1, 0, 0);
-
-            triangleMesh.addTriangle(
-                p1.set(worldX + 1, worldY, worldZ + 1),
-                p2.set(worldX + 1, worldY, worldZ),
-                p3.set(worldX + 1, worldY + 1, worldZ),
-                removeDuplicateVertices);
-            triangleMesh.addTriangle(
-                p1.set(worldX + 1, worldY, worldZ + 1),
-                p2.set(worldX + 1, worldY + 1, worldZ),
-                p3.set(worldX + 1, worldY + 1, worldZ + 1),
-                removeDuplicateVertices);
-        }
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY, worldZ + 1),
+                    p2.set(worldX + 1, worldY, worldZ + 1),
+                    p3.set(worldX + 1, worldY + 1, worldZ + 1),
+                    removeDuplicateVertices);
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY, worldZ + 1),
+                    p2.set(worldX + 1, worldY + 1, worldZ + 1),
+                    p3.set(worldX, worldY + 1, worldZ + 1),
+                    removeDuplicateVertices);
+                break;
+            case ChunkFaces.SOUTH:
+                meshBuilder.setUVRange(
+                    blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
+
+                meshBuilder.rect(worldX + 1, worldY, worldZ,
+                    worldX, worldY, worldZ,
+                    worldX, worldY + 1, worldZ,
+                    worldX + 1, worldY + 1, worldZ,
+                    0, 0, -1);
+
+                triangleMesh.addTriangle(
+                    p1.set(worldX + 1, worldY, worldZ),
+                    p2.set(worldX, worldY, worldZ),
+                    p3.set(worldX, worldY + 1, worldZ),
+                    removeDuplicateVertices);
+                triangleMesh.addTriangle(
+                    p1.set(worldX + 1, worldY, worldZ),
+                    p2.set(worldX, worldY + 1, worldZ),
+                    p3.set(worldX + 1, worldY + 1, worldZ),
+                    removeDuplicateVertices);
+                break;
+            case ChunkFaces.EAST:
+                meshBuilder.setUVRange(
+                    blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
+
+                meshBuilder.rect(worldX + 1, worldY, worldZ + 1,
+                    worldX + 1, worldY, worldZ,
+                    worldX + 1, worldY + 1, worldZ,
+                    worldX + 1, worldY + 1, worldZ + 1,
+                    1, 0, 0);
+
+                triangleMesh.addTriangle(
+                    p1.set(worldX + 1, worldY, worldZ + 1),
+                    p2.set(worldX + 1, worldY, worldZ),
+                    p3.set(worldX + 1, worldY + 1, worldZ),
+                    removeDuplicateVertices);
+                triangleMesh.addTriangle(
+                    p1.set(worldX + 1, worldY, worldZ + 1),
+                    p2.set(worldX + 1, worldY + 1, worldZ),
+                    p3.set(worldX + 1, worldY + 1, worldZ + 1),
+                    removeDuplicateVertices);
+                break;
+            case ChunkFaces.WEST:
+                meshBuilder.setUVRange(
+                    blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
+
+                meshBuilder.rect(worldX, worldY, worldZ,
+                    worldX, worldY, worldZ + 1,
+                    worldX, worldY + 1, worldZ + 1,
+                    worldX, worldY + 1, worldZ,
+                    -1, 0, 0);
 
-        // West face (x-)
-        if (world.getBlock(worldX - 1, worldY, worldZ) == air.getId()) {
-            meshBuilder.setUVRange(
-                blockMaterialRepository.getTextureRegion(type, TexturedBlockMaterialRepository.BlockFace.SIDE));
-
-            meshBuilder.rect(worldX, worldY, worldZ,
-                worldX, worldY, worldZ + 1,
-                worldX, worldY + 1, worldZ + 1,
-                worldX, worldY + 1, worldZ,
-                -1, 0, 0);
-
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY, worldZ),
-                p2.set(worldX, worldY, worldZ + 1),
-                p3.set(worldX + 1, worldY + 1, worldZ + 1),
-                removeDuplicateVertices);
-            triangleMesh.addTriangle(
-                p1.set(worldX, worldY, worldZ),
-                p2.set(worldX, worldY + 1, worldZ + 1),
-                p3.set(worldX + 1, worldY + 1, worldZ),
-                removeDuplicateVertices);
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY, worldZ),
+                    p2.set(worldX, worldY, worldZ + 1),
+                    p3.set(worldX + 1, worldY + 1, worldZ + 1),
+                    removeDuplicateVertices);
+                triangleMesh.addTriangle(
+                    p1.set(worldX, worldY, worldZ),
+                    p2.set(worldX, worldY + 1, worldZ + 1),
+                    p3.set(worldX + 1, worldY + 1, worldZ),
+                    removeDuplicateVertices);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown side " + side);
         }
     }
 }
@@ -8,6 +8,7 @@ import domain.world.GamePosition;
 import framework.physics.GameMesh;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
 import net.mgsx.gltf.scene3d.scene.Scene;
 
 public class ChunkRenderer implements Disposable {
@@ -17,6 +18,9 @@ public class ChunkRenderer implements Disposable {
 
     private final Map<GamePosition, GameMesh> activeChunks;
     private final Map<GamePosition, ChunkMeshData> rawDataReferences;
+    // Bound once so walking a chunk's entities does not allocate a lambda per chunk
+    private final IntConsumer loadEntity;
+    private final IntConsumer unloadEntity;
 
 
     public ChunkRenderer(ObjectRenderer objectRenderer, ChunkMeshGenerator chunkMeshGenerator,
@@ -24,6 +28,8 @@ public class ChunkRenderer implements Disposable {
         this.objectRenderer = objectRenderer;
         this.chunkMeshGenerator = chunkMeshGenerator;
         this.entityRenderer = entityRenderer;
+        this.loadEntity = entityRenderer::loadEntity;
+        this.unloadEntity = entityRenderer::unloadEntity;
 
         this.activeChunks = new ConcurrentHashMap<>();
         this.rawDataReferences = new ConcurrentHashMap<>();
@@ -31,14 +37,17 @@ public class ChunkRenderer implements Disposable {
 
     public void loadChunk(GamePosition chunkPosition, Chunk chunk) {
         ChunkMeshData meshData = chunkMeshGenerator.createMesh(chunk);
+        if (meshData != null && meshData.isStaleFor(chunk)) {
+            // The chunk was written while it was being meshed, so the mesh no longer matches its blocks
+            meshData.dispose();
+            meshData = chunkMeshGenerator.createMesh(chunk);
+        }
 
         if (meshData != null) {
             addChunkToRenderer(chunkPosition, meshData);
         }
 
-        for (int id : chunk.getEntityIds()) {
-            entityRenderer.loadEntity(id);
-        }
+        chunk.forEachEntity(loadEntity);
     }
 
     private void addChunkToRenderer(GamePosition chunkPos, ChunkMeshData meshData) {
@@ -67,9 +76,7 @@ public class ChunkRenderer implements Disposable {
     public void unloadChunk(GamePosition chunkPos, Chunk chunk) {
         removeChunkFromRenderer(chunkPos);
 
-        for (int id : chunk.getEntityIds()) {
-            entityRenderer.unloadEntity(id);
-        }
+        chunk.forEachEntity(unloadEntity);
     }
 
     private void removeChunkFromRenderer(GamePosition chunkPos) {
@@ -10,6 +10,7 @@ import domain.entities.PlayerEntity;
 import domain.entities.Train;
 import domain.world.GamePosition;
 import framework.physics.GameMesh;
+import java.util.function.IntConsumer;
 
 /**
  * This class ensures that the Visual Mesh (Infrastructure)
@@ -23,6 +24,8 @@ public class EntityMeshSynchronizer {
     private final Vector3 tempVec = new Vector3();
     private final Quaternion tempQuat = new Quaternion();
     private final Matrix4 tempMat = new Matrix4();
+    // Bound once so each sync walks the entity storage without allocating
+    private final IntConsumer syncEntity = this::syncEntity;
 
     public EntityMeshSynchronizer(EntityStorage entityStorage, MeshStorage meshStorage) {
         this.entityStorage = entityStorage;
@@ -34,16 +37,18 @@ public class EntityMeshSynchronizer {
     // Dont we want to "attempt" to move entites first, let physics handle collisions
     // Then update entities to match mesh?
     public void sync() {
-        for (Integer id : entityStorage.getAllIds()) {
-            if (meshStorage.hasMesh(id)) {
-                Entity entity = entityStorage.getEntityByID(id);
-                GameMesh mesh = meshStorage.getMesh(id);
-
-                if (entity instanceof Train || entity instanceof PlayerEntity) {
-                    syncKinematic(entity, mesh);
-                } else {
-                    syncDynamic(entity, mesh);
-                }
+        entityStorage.forEachEntity(syncEntity);
+    }
+
+    private void syncEntity(int id) {
+        if (meshStorage.hasMesh(id)) {
+            Entity entity = entityStorage.getEntityByID(id);
+            GameMesh mesh = meshStorage.getMesh(id);
+
+            if (entity instanceof Train || entity instanceof PlayerEntity) {
+                syncKinematic(entity, mesh);
+            } else {
+                syncDynamic(entity, mesh);
             }
         }
     }
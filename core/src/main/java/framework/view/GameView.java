@@ -2,11 +2,17 @@ package framework.view;
 
 import application.account_features.player_data.SavePlayerDataInputData;
 import application.account_features.player_data.SavePlayerDataInteractor;
+import application.game_features.chunk_residency.ChunkResidencyInputBoundary;
+import application.game_features.chunk_residency.ChunkResidencyInteractor;
 import application.game_features.dismount_entity.DismountEntityInputBoundary;
 import application.game_features.dismount_entity.DismountEntityInteractor;
 import application.game_features.exit_game.ExitGameUseCase;
+import application.game_features.generate_chunk.ChunkColumnCache;
+import application.game_features.generate_chunk.ChunkGenerationPipeline;
 import application.game_features.generate_chunk.GenerateChunkInputBoundary;
 import application.game_features.generate_chunk.GenerateChunkInteractor;
+import application.game_features.generate_chunk.RailStructures;
+import application.game_features.generate_chunk.StructureIndex;
 import application.game_features.generate_entity.bullet.GenerateBulletStrategy;
 import application.game_features.generate_entity.pickup.GeneratePickupStrategy;
 import application.game_features.generate_entity.player_entity.GeneratePlayerEntityInputData;
@@ -37,6 +43,7 @@ import application.game_features.win_condition.WinConditionInputBoundary;
 import application.game_features.win_condition.WinConditionInteractor;
 import application.game_features.win_condition.WinConditionOutputData;
 import application.gateways.BlockRepository;
+import application.gateways.ChunkRepository;
 import application.ports.ApplicationLifecyclePort;
 import application.ports.PhysicsControlPort;
 import com.badlogic.gdx.Gdx;
@@ -45,10 +52,13 @@ import domain.entities.EntityFactory;
 import domain.entities.EntityType;
 import domain.player.Player;
 import domain.player.PlayerSession;
+import domain.world.Chunk;
 import domain.world.GamePosition;
 import domain.world.World;
 import framework.data_access.IdToEntityStorage;
 import framework.data_access.InMemoryBlockRepository;
+import framework.data_access.JsonBlockDefinitions;
+import framework.data_access.RegionStore;
 import framework.physics.CollisionHandler;
 import framework.physics.EntityContactFacade;
 import framework.rendering.BlockMaterialRepository;
@@ -79,12 +89,28 @@ import interface_adapter.input.ItemInteractionInputAdapter;
 import interface_adapter.input.LibGDXLifecycleAdapter;
 import interface_adapter.input.ShootInputAdapter;
 import interface_adapter.physics.BulletPhysicsAdapter;
+import java.io.StringReader;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GameView implements Viewable {
     private final float FPS = 120.0f;
     private final float TIME_STEP = 1.0f / FPS;
     private final int RENDER_RADIUS = 6; // The radius in chunks where meshes are visible
+    private final String REGION_DIRECTORY = "saves/regions"; // Generated terrain, relative to the working directory
+    private final int WORLD_SEED = 0; // Seeds terrain and spawn noise, the same seed always gives the same world
+    private final long CHUNK_MEMORY_BUDGET = 64L * 1024 * 1024; // Estimated heap allowed for chunk data
+    private final int HIBERNATE_DISTANCE = RENDER_RADIUS + 3; // Chunks further than this are compressed
+    private final int EVICT_DISTANCE = RENDER_RADIUS + 10; // Empty chunks further than this leave memory
+    private final int GENERATION_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private final int MAX_CHUNKS_IN_FLIGHT = GENERATION_THREADS * 8; // Generated chunks allowed ahead of integration
+    private final long INTEGRATION_BUDGET_NANOS = 2_000_000L; // Time per tick spent adding generated chunks
+    private final int MAX_MESHES_PER_UPDATE = 16; // Chunks meshed per tick, nearest and in view first
+    private final int MAX_CACHED_COLUMNS = 1024; // Generated height maps kept for the chunks stacked on them
     public ObjectRenderer objectRenderer;
     private Player player;
     private PlayerSession playerSession;
@@ -98,6 +124,8 @@ public class GameView implements Viewable {
     private ItemInteractionInputAdapter pickupInputAdapter;
     private ShootInputAdapter shootInputAdapter;
     private WorldSyncController worldSyncController;
+    private ChunkRepository chunkRepository;
+    private ExecutorService generationWorkers;
     private float accumulator;
     private GameSimulationController gameSimulationController;
     private ItemInteractionController itemInteractionController;
@@ -120,7 +148,8 @@ public class GameView implements Viewable {
     public void createView() {
         // ---  WORLD GENERATION SYSTEM INITIALIZATION ---
         World world = new World();
-        BlockRepository blockRepository = new InMemoryBlockRepository();
+        BlockRepository blockRepository = new InMemoryBlockRepository(JsonBlockDefinitions.read(
+            new StringReader(Gdx.files.internal(JsonBlockDefinitions.DEFAULT_PATH).readString("UTF-8"))));
 
         GamePosition startingPosition = new GamePosition(0, 3f, 0);
         this.player = new Player(startingPosition);
@@ -156,11 +185,32 @@ public class GameView implements Viewable {
 
 
         // Chunk Generation
-        GenerateChunkInputBoundary chunkGenerator = new GenerateChunkInteractor(blockRepository);
-        PopulateChunkInputBoundary chunkPopulator = new PopulateChunkInteractor(entityFactory);
+        ChunkColumnCache columnCache = new ChunkColumnCache(MAX_CACHED_COLUMNS);
+        StructureIndex structures = new StructureIndex(
+            WORLD_SEED, RailStructures.create(blockRepository), world.getWorldDepthChunks() * Chunk.CHUNK_SIZE);
+        GenerateChunkInputBoundary chunkGenerator = new GenerateChunkInteractor(
+            blockRepository, columnCache, GenerateChunkInteractor.terrainNoise(WORLD_SEED),
+            GenerateChunkInteractor.caveNoise(WORLD_SEED), structures);
+        PopulateChunkInputBoundary chunkPopulator = new PopulateChunkInteractor(
+            entityFactory, PopulateChunkInteractor.spawnNoise(WORLD_SEED), structures);
+        chunkRepository = new RegionStore(RegionStore.worldDirectory(
+            Paths.get(REGION_DIRECTORY), WORLD_SEED, GenerateChunkInteractor.GENERATOR_VERSION), columnCache);
         RenderRadiusManagerInputBoundary renderRadiusManager = new RenderRadiusManagerInteractor(world);
+        AtomicInteger workerCount = new AtomicInteger();
+        generationWorkers = Executors.newFixedThreadPool(GENERATION_THREADS, task -> {
+            Thread thread = new Thread(task, "chunk-generation-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ChunkGenerationPipeline generationPipeline = new ChunkGenerationPipeline(
+            chunkGenerator, chunkPopulator, chunkRepository, generationWorkers, MAX_CHUNKS_IN_FLIGHT);
         UpdateWorldInputBoundary updateWorld =
-            new UpdateWorldInteractor(renderRadiusManager, chunkGenerator, chunkPopulator, world, player);
+            new UpdateWorldInteractor(
+                renderRadiusManager, generationPipeline, chunkPopulator, world, player, INTEGRATION_BUDGET_NANOS,
+                MAX_MESHES_PER_UPDATE, blockRepository);
+        ChunkResidencyInputBoundary residencyManager = new ChunkResidencyInteractor(
+            world, chunkRepository, player, CHUNK_MEMORY_BUDGET, HIBERNATE_DISTANCE, EVICT_DISTANCE, columnCache,
+            generationWorkers);
 
         // --- WORLD RENDERING SYSTEM INITIALIZATION ---
         BlockMaterialRepository materialRepository = new TexturedBlockMaterialRepository();
@@ -218,6 +268,7 @@ public class GameView implements Viewable {
         worldSyncController = new WorldSyncController(
             RENDER_RADIUS,
             updateWorld,
+            residencyManager,
             chunkRenderer
         );
 
@@ -342,6 +393,21 @@ public class GameView implements Viewable {
         }
         // Dispose world-related components first
         worldSyncController.dispose();
+        // Let workers finish the chunks they were handed before the store they save into closes. Interrupting
+        // them would close the region file channels in the middle of a write.
+        generationWorkers.shutdown();
+        boolean finished = false;
+        try {
+            finished = generationWorkers.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (finished) {
+            chunkRepository.close();
+        } else {
+            // Closing under a running worker would unmap a region it is writing, leave the files to the OS
+            System.err.println("[GameView] Chunk generation did not stop, region files were not closed");
+        }
 
         objectRenderer.dispose();
     }
@@ -11,6 +11,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.Align;
 import domain.entities.Entity;
 import domain.entities.Train;
+import java.util.function.IntConsumer;
 
 /**
  * Vertical fuel bar HUD, shown above the ammo counter.
@@ -20,6 +21,12 @@ public class FuelHudElement implements HudElement {
 
     private final EntityStorage entityStorage;
     private final Image fuelBar;
+    // Last train seen while walking the entity storage, bound once so the HUD update does not allocate
+    private Train train;
+    private final IntConsumer findTrain = id -> {
+        Entity e = entityStorage.getEntityByID(id);
+        if (e instanceof Train) train = (Train) e;
+    };
 
     public FuelHudElement(Stage stage, Label.LabelStyle style, EntityStorage entityStorage) {
         this.entityStorage = entityStorage;
@@ -56,12 +63,8 @@ public class FuelHudElement implements HudElement {
 
     @Override
     public void update(float deltaTime) {
-        Train train = null;
-        for (int id : entityStorage.getAllIds()) {
-            Entity e = entityStorage.getEntityByID(id);
-            if (!(e instanceof Train)) continue;
-            train = (Train) e;
-        }
+        train = null;
+        entityStorage.forEachEntity(findTrain);
 
         if (train == null) {
             fuelBar.setScaleY(0);
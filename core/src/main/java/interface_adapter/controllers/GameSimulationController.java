@@ -2,10 +2,10 @@ package interface_adapter.controllers;
 
 import application.game_features.update_entity.EntityBehaviourSystem;
 import application.ports.PhysicsControlPort;
+import domain.collections.IntList;
 import domain.player.Player;
 import framework.physics.CollisionHandler;
 import framework.rendering.EntityMeshSynchronizer;
-import java.util.List;
 
 public class GameSimulationController {
     private final WorldSyncController worldSyncController;
@@ -32,7 +32,7 @@ public class GameSimulationController {
 
     public void update(float deltaTime) {
         worldSyncController.loadUpdate();
-        List<Integer> activeEntities = worldSyncController.getActiveEntities();
+        IntList activeEntities = worldSyncController.getActiveEntities();
 
         entityBehaviorSystem.updateCache(activeEntities);
         // Run Entity Logic (AI)
@@ -1,13 +1,16 @@
 package interface_adapter.controllers;
 
+import application.game_features.chunk_residency.ChunkResidencyInputBoundary;
+import application.game_features.chunk_residency.ChunkResidencyInputData;
+import application.game_features.chunk_residency.ChunkResidencyOutputData;
 import application.game_features.update_world.UpdateWorldInputBoundary;
 import application.game_features.update_world.UpdateWorldInputData;
 import application.game_features.update_world.UpdateWorldOutputData;
 import com.badlogic.gdx.utils.Disposable;
+import domain.collections.IntList;
 import domain.world.Chunk;
 import domain.world.GamePosition;
 import framework.rendering.ChunkRenderer;
-import java.util.List;
 import java.util.Map;
 
 
@@ -20,10 +23,13 @@ public class WorldSyncController implements Disposable {
 
     private final UpdateWorldInputBoundary worldUpdater;
 
+    private final ChunkResidencyInputBoundary residencyManager;
+
     private final ChunkRenderer chunkRenderer;
 
     private Map<GamePosition, Chunk> toUnload;
-    private List<Integer> activeEntities;
+    private IntList activeEntities;
+    private ChunkResidencyOutputData residencyMetrics;
 
     /**
      * Creates and wires together all world components using provided dependencies.
@@ -31,10 +37,12 @@ public class WorldSyncController implements Disposable {
     public WorldSyncController(
         int renderRadius,
         UpdateWorldInputBoundary worldUpdater,
+        ChunkResidencyInputBoundary residencyManager,
         ChunkRenderer chunkRenderer
     ) {
         this.RENDER_RADIUS = renderRadius;
         this.worldUpdater = worldUpdater;
+        this.residencyManager = residencyManager;
         this.chunkRenderer = chunkRenderer;
     }
 
@@ -57,7 +65,7 @@ public class WorldSyncController implements Disposable {
         toUnload = outputData.getChunksToUnload();
     }
 
-    public List<Integer> getActiveEntities() {
+    public IntList getActiveEntities() {
         // Return the list of chunks currently loaded/updating
         return activeEntities;
     }
@@ -67,6 +75,13 @@ public class WorldSyncController implements Disposable {
         for (Map.Entry<GamePosition, Chunk> entry : toUnload.entrySet()) {
             chunkRenderer.unloadChunk(entry.getKey(), entry.getValue());
         }
+
+        // Hibernate or evict far chunks once they are no longer rendered
+        residencyMetrics = residencyManager.execute(new ChunkResidencyInputData(RENDER_RADIUS));
+    }
+
+    public ChunkResidencyOutputData getResidencyMetrics() {
+        return residencyMetrics;
     }
 
     @Override
@@ -0,0 +1,176 @@
+package application.game_features.chunk_residency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import application.gateways.ChunkRepository;
+import domain.player.Player;
+import domain.world.Block;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.GamePosition;
+import domain.world.World;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChunkResidencyInteractorTest {
+    private static final Block STONE = new Block((short) 3, "STONE", true, false);
+    private static final int RENDER_RADIUS = 2;
+    private static final int HIBERNATE_DISTANCE = 4;
+    private static final int EVICT_DISTANCE = 8;
+
+    private World world;
+    private Player player;
+    private InMemoryChunkRepository repository;
+
+    private static class InMemoryChunkRepository implements ChunkRepository {
+        private final Map<GamePosition, Chunk> chunks = new HashMap<>();
+        private int saves;
+
+        @Override
+        public Optional<Chunk> findByPosition(GamePosition chunkPosition) {
+            return Optional.ofNullable(chunks.get(chunkPosition));
+        }
+
+        @Override
+        public void save(Chunk chunk) {
+            chunks.put(chunk.getPosition(), chunk);
+            saves++;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        world = new World();
+        player = new Player(new GamePosition(0, 0, 0));
+        repository = new InMemoryChunkRepository();
+
+        // A row of terrain chunks along the track, from the player out to 12 chunks away
+        for (int x = 0; x <= 12; x++) {
+            Chunk chunk = new Chunk(x, 0, 0);
+            for (int bx = 0; bx < Chunk.CHUNK_SIZE; bx++) {
+                for (int bz = 0; bz < Chunk.CHUNK_SIZE; bz++) {
+                    chunk.setHeight(bx, (bx + bz) & 7, bz);
+                    chunk.fillColumn(bx, bz, 0, (bx + bz) & 7, STONE);
+                }
+            }
+            world.addChunk(chunk.getPosition(), chunk);
+        }
+    }
+
+    private ChunkResidencyOutputData run(long budget) {
+        ChunkResidencyInteractor interactor = new ChunkResidencyInteractor(
+            world, repository, player, budget, HIBERNATE_DISTANCE, EVICT_DISTANCE);
+        return interactor.execute(new ChunkResidencyInputData(RENDER_RADIUS));
+    }
+
+    @Test
+    @DisplayName("Chunks are kept, hibernated or evicted by distance")
+    void shouldApplyDistancePolicy() {
+        ChunkResidencyOutputData output = run(Long.MAX_VALUE);
+
+        assertFalse(world.getChunk(4, 0, 0).isHibernated(), "Chunks inside the hibernate distance stay resident");
+        assertTrue(world.getChunk(5, 0, 0).isHibernated());
+        assertTrue(world.getChunk(8, 0, 0).isHibernated());
+        assertNull(world.getChunk(9, 0, 0), "Empty chunks past the evict distance leave the world");
+        assertTrue(world.wasEvicted(ChunkKey.pack(9, 0, 0)));
+        assertTrue(repository.findByPosition(new GamePosition(12, 0, 0)).isPresent(), "Evicted chunks are spilled");
+
+        assertEquals(4, output.getHibernatedChunks());
+        assertEquals(4, output.getEvictedChunks());
+        assertEquals(4, output.getTotalEvictedChunks());
+        assertEquals(4, output.getMemoryReport().getHibernatedChunkCount());
+        assertEquals(9, output.getMemoryReport().getChunkCount());
+    }
+
+    @Test
+    @DisplayName("Chunks holding entities are hibernated instead of evicted")
+    void shouldPreserveEntityMembership() {
+        Chunk occupied = world.getChunk(11, 0, 0);
+        occupied.addEntity(42);
+
+        run(Long.MAX_VALUE);
+
+        assertSame(occupied, world.getChunk(11, 0, 0));
+        assertTrue(occupied.isHibernated());
+        assertTrue(occupied.containsEntity(42));
+    }
+
+    @Test
+    @DisplayName("Going over budget evicts the furthest hibernated chunks")
+    void shouldEvictToFitBudget() {
+        ChunkResidencyOutputData output = run(0);
+
+        assertTrue(output.getMemoryReport().getChunkCount() > 0);
+        assertNotNull(world.getChunk(4, 0, 0), "Chunks near the player are never evicted for the budget");
+        assertNull(world.getChunk(5, 0, 0));
+        assertEquals(8, output.getTotalEvictedChunks());
+        assertTrue(output.isOverBudget(), "Only retained chunks remain, which cannot fit in a zero budget");
+    }
+
+    @Test
+    @DisplayName("Nothing changes until the player enters a new chunk")
+    void shouldSkipWhileInSameChunk() {
+        ChunkResidencyInteractor interactor = new ChunkResidencyInteractor(
+            world, repository, player, Long.MAX_VALUE, HIBERNATE_DISTANCE, EVICT_DISTANCE);
+        ChunkResidencyOutputData first = interactor.execute(new ChunkResidencyInputData(RENDER_RADIUS));
+
+        Chunk late = new Chunk(20, 0, 0);
+        late.fill(STONE);
+        world.addChunk(late.getPosition(), late);
+
+        assertSame(first, interactor.execute(new ChunkResidencyInputData(RENDER_RADIUS)));
+        assertNotNull(world.getChunk(20, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Chunks the repository already holds are evicted without writing them again")
+    void shouldNotRewriteSavedChunks() {
+        for (int x = 9; x <= 12; x++) {
+            Chunk chunk = world.getChunk(x, 0, 0);
+            chunk.markSaved(chunk.getVersion());
+        }
+
+        ChunkResidencyOutputData output = run(Long.MAX_VALUE);
+
+        assertEquals(4, output.getEvictedChunks());
+        assertEquals(0, repository.saves);
+        assertNull(world.getChunk(12, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Changed chunks are saved on the workers and only evicted once saved")
+    void shouldSaveChangedChunksBeforeEvicting() {
+        List<Runnable> saveWorkers = new ArrayList<>();
+        ChunkResidencyInteractor interactor = new ChunkResidencyInteractor(
+            world, repository, player, Long.MAX_VALUE, HIBERNATE_DISTANCE, EVICT_DISTANCE, null, saveWorkers::add);
+
+        ChunkResidencyOutputData output = interactor.execute(new ChunkResidencyInputData(RENDER_RADIUS));
+        assertEquals(0, output.getEvictedChunks());
+        assertEquals(4, saveWorkers.size());
+        assertNotNull(world.getChunk(12, 0, 0), "Nothing leaves before the repository has it");
+
+        for (Runnable save : saveWorkers) {
+            save.run();
+        }
+        interactor.execute(new ChunkResidencyInputData(RENDER_RADIUS));
+        assertEquals(4, repository.saves);
+        assertNull(world.getChunk(12, 0, 0));
+        assertTrue(world.wasEvicted(ChunkKey.pack(9, 0, 0)));
+        assertFalse(repository.chunks.get(new GamePosition(12, 0, 0)).hasUnsavedChanges());
+    }
+}
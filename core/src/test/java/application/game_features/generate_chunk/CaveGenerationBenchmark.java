@@ -0,0 +1,104 @@
+package application.game_features.generate_chunk;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import application.game_features.generate_chunk.noise.DensityLattice;
+import application.game_features.generate_chunk.noise.NoiseGenerator;
+import domain.world.Chunk;
+import domain.world.GamePosition;
+import domain.world.World;
+import framework.data_access.InMemoryBlockRepository;
+
+/**
+ * Compares cave density sampled on a coarse lattice with density sampled at every block,
+ * and the cost of generating the rail track with and without caves.
+ * Run with ./gradlew :core:benchmark
+ */
+@Tag("benchmark")
+class CaveGenerationBenchmark {
+    private static final int CHUNKS = 2048;
+    private static final int ROUNDS = 5;
+
+    @Test
+    @DisplayName("Lattice density is cheaper than per block density")
+    void reportDensityCost() {
+        NoiseGenerator noise = GenerateChunkInteractor.caveNoise(0);
+        DensityLattice lattice = new DensityLattice(noise, 4);
+        double[] points = new double[125];
+        float[] density = new float[Chunk.CHUNK_VOLUME];
+        long naiveNanos = Long.MAX_VALUE;
+        long latticeNanos = Long.MAX_VALUE;
+        double sink = 0;
+
+        // Best of several rounds, the first ones include JIT warm up
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                int worldX = chunk * Chunk.CHUNK_SIZE;
+                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                        for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                            density[Chunk.index(x, y, z)] = (float) noise.sample(worldX + x, y, z);
+                        }
+                    }
+                }
+                sink += density[chunk & (Chunk.CHUNK_VOLUME - 1)];
+            }
+            naiveNanos = Math.min(naiveNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                lattice.sampleLattice(points, chunk * Chunk.CHUNK_SIZE, 0, 0, Chunk.CHUNK_SIZE);
+                lattice.interpolate(points, Chunk.CHUNK_SIZE, density);
+                sink += density[chunk & (Chunk.CHUNK_VOLUME - 1)];
+            }
+            latticeNanos = Math.min(latticeNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("Per block density: %.1f us/chunk%n", naiveNanos / 1e3 / CHUNKS);
+        System.out.printf("Lattice density:   %.1f us/chunk (%.1fx)%n",
+            latticeNanos / 1e3 / CHUNKS, (double) naiveNanos / latticeNanos);
+        assertTrue(sink != 0);
+        assertTrue(latticeNanos < naiveNanos, "The lattice should be cheaper than sampling every block");
+    }
+
+    @Test
+    @DisplayName("Caves add little to the cost of generating the rail track")
+    void reportTrackGeneration() {
+        World world = new World();
+        int worldEndX = world.getWorldDepthChunks() * Chunk.CHUNK_SIZE;
+        NoiseGenerator terrain = GenerateChunkInteractor.terrainNoise(0);
+        long heightFieldNanos = Long.MAX_VALUE;
+        long caveNanos = Long.MAX_VALUE;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            heightFieldNanos = Math.min(heightFieldNanos,
+                generateTrack(new GenerateChunkInteractor(new InMemoryBlockRepository(),
+                    new ChunkColumnCache(4096), terrain, null), world, worldEndX));
+            caveNanos = Math.min(caveNanos,
+                generateTrack(new GenerateChunkInteractor(new InMemoryBlockRepository(),
+                    new ChunkColumnCache(4096), terrain, GenerateChunkInteractor.caveNoise(0)), world, worldEndX));
+        }
+
+        int chunks = world.getWorldDepthChunks() * 17 * 5;
+        System.out.printf("Height field only: %.1f us/chunk%n", heightFieldNanos / 1e3 / chunks);
+        System.out.printf("With caves:        %.1f us/chunk (+%.0f%%)%n",
+            caveNanos / 1e3 / chunks, 100.0 * (caveNanos - heightFieldNanos) / heightFieldNanos);
+    }
+
+    private static long generateTrack(GenerateChunkInteractor generator, World world, int worldEndX) {
+        long start = System.nanoTime();
+        for (int x = 0; x < world.getWorldDepthChunks(); x++) {
+            for (int z = -8; z <= 8; z++) {
+                for (int y = 0; y <= 4; y++) {
+                    generator.execute(new GenerateChunkInputData(new GamePosition(x, y, z), worldEndX));
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
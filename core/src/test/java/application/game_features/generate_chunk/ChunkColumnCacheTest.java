@@ -0,0 +1,99 @@
+package application.game_features.generate_chunk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import domain.world.ChunkColumn;
+import domain.world.GamePosition;
+import framework.data_access.InMemoryBlockRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ChunkColumnCacheTest {
+
+    @Test
+    @DisplayName("Stacked chunks generate their column once")
+    void shouldCountHitsAndMisses() {
+        ChunkColumnCache cache = new ChunkColumnCache(64);
+        GenerateChunkInteractor generator = new GenerateChunkInteractor(
+            new InMemoryBlockRepository(), cache, GenerateChunkInteractor.terrainNoise(0));
+
+        for (int y = 0; y < 4; y++) {
+            generator.execute(new GenerateChunkInputData(new GamePosition(2, y, -1), 100));
+        }
+
+        ColumnCacheMetrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.getMisses());
+        assertEquals(3, metrics.getHits());
+        assertEquals(1, metrics.getCachedColumns());
+        assertEquals(0.75, metrics.getHitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Columns far from the player are dropped by the residency pass")
+    void shouldRetainNearbyColumns() {
+        ChunkColumnCache cache = new ChunkColumnCache(1024);
+        for (int x = -10; x <= 10; x++) {
+            cache.get(x, 0, ChunkColumn::new);
+        }
+
+        assertEquals(10, cache.retainWithin(0, 0, 5));
+        assertEquals(11, cache.size());
+        assertNotNull(cache.getIfPresent(5, 0));
+        assertNull(cache.getIfPresent(6, 0));
+        assertEquals(10, cache.getMetrics().getEvictions());
+    }
+
+    @Test
+    @DisplayName("The cache stays within its bound, dropping columns far from the player first")
+    void shouldStayBounded() {
+        ChunkColumnCache cache = new ChunkColumnCache(32);
+        cache.retainWithin(0, 0, 1000);
+        for (int x = 0; x < 200; x++) {
+            for (int z = 0; z < 4; z++) {
+                cache.get(x, z, ChunkColumn::new);
+            }
+        }
+
+        assertTrue(cache.size() <= 32, "Cached " + cache.size() + " columns");
+        assertNotNull(cache.getIfPresent(0, 0), "The column at the player should survive");
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for one column load it once")
+    void shouldLoadEachColumnOnce() throws Exception {
+        ChunkColumnCache cache = new ChunkColumnCache(1024);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ChunkColumn>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int columnX = i % 20;
+                results.add(workers.submit(() -> cache.get(columnX, 3, (x, z) -> {
+                    loads.incrementAndGet();
+                    return new ChunkColumn(x, z);
+                })));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                ChunkColumn column = results.get(i).get();
+                assertSame(cache.getIfPresent(i % 20, 3), column);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertEquals(20, loads.get());
+        assertEquals(20, cache.getMetrics().getMisses());
+        assertEquals(380, cache.getMetrics().getHits());
+    }
+}
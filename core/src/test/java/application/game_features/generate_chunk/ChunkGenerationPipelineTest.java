@@ -0,0 +1,219 @@
+package application.game_features.generate_chunk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import application.game_features.generate_chunk.ChunkGenerationPipeline.GeneratedChunk;
+import application.gateways.ChunkRepository;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.GamePosition;
+import framework.data_access.InMemoryBlockRepository;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class ChunkGenerationPipelineTest {
+    private InMemoryChunkRepository repository;
+    // Runs submitted work only when the test says so
+    private ArrayDeque<Runnable> workQueue;
+
+    private static class InMemoryChunkRepository implements ChunkRepository {
+        private final Map<GamePosition, Chunk> chunks = new HashMap<>();
+
+        @Override
+        public synchronized Optional<Chunk> findByPosition(GamePosition chunkPosition) {
+            return Optional.ofNullable(chunks.get(chunkPosition));
+        }
+
+        @Override
+        public synchronized void save(Chunk chunk) {
+            chunks.put(chunk.getPosition(), chunk);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryChunkRepository();
+        workQueue = new ArrayDeque<>();
+    }
+
+    private static GenerateChunkInputBoundary emptyChunks() {
+        return inputData -> new GenerateChunkOutputData(new Chunk(inputData.getPosition()));
+    }
+
+    @Test
+    @DisplayName("Only a limited number of chunks are handed to workers at once")
+    void shouldApplyBackPressure() {
+        ChunkGenerationPipeline pipeline =
+            new ChunkGenerationPipeline(emptyChunks(), repository, workQueue::add, 2);
+
+        for (int x = 0; x < 5; x++) {
+            pipeline.request(new GamePosition(x, 0, 0), 100);
+        }
+        pipeline.request(new GamePosition(0, 0, 0), 100);
+
+        assertEquals(2, workQueue.size(), "Only two chunks may be in flight");
+        assertEquals(3, pipeline.getQueuedCount());
+        assertTrue(pipeline.isPending(ChunkKey.pack(4, 0, 0)));
+        assertNull(pipeline.pollCompleted(), "Nothing has finished yet");
+
+        // A finished chunk still holds its slot until the simulation thread takes it
+        workQueue.poll().run();
+        workQueue.poll().run();
+        assertTrue(workQueue.isEmpty());
+
+        GeneratedChunk first = pipeline.pollCompleted();
+        assertNotNull(first);
+        assertEquals(new GamePosition(0, 0, 0), first.getPosition());
+        assertFalse(first.getChunk().hasUnsavedChanges(), "Generated chunks are saved as they are handed out");
+        assertFalse(pipeline.isPending(ChunkKey.pack(0, 0, 0)));
+        assertEquals(1, workQueue.size(), "Taking a chunk frees a slot for the next request");
+        assertEquals(2, pipeline.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("Stored chunks are loaded instead of generated, and failures reach the caller")
+    void shouldPreferStoredChunksAndReportFailures() {
+        Chunk stored = new Chunk(1, 0, 0);
+        repository.save(stored);
+        ChunkGenerationPipeline pipeline = new ChunkGenerationPipeline(inputData -> {
+            throw new IllegalStateException("Generator broke");
+        }, repository, Runnable::run, 4);
+
+        pipeline.request(new GamePosition(1, 0, 0), 100);
+        assertEquals(stored, pipeline.pollCompleted().getChunk());
+        assertFalse(stored.hasUnsavedChanges(), "Loaded chunks match what the repository holds");
+
+        pipeline.request(new GamePosition(2, 0, 0), 100);
+        assertThrows(IllegalStateException.class, pipeline::pollCompleted);
+        assertFalse(pipeline.hasPending(), "A failed chunk should not stay pending");
+    }
+
+    @Test
+    @DisplayName("Errors thrown while generating are reported instead of leaving the chunk pending")
+    void shouldReportErrors() {
+        ChunkGenerationPipeline pipeline = new ChunkGenerationPipeline(inputData -> {
+            throw new StackOverflowError("Generator recursed");
+        }, repository, Runnable::run, 4);
+
+        pipeline.request(new GamePosition(2, 0, 0), 100);
+        IllegalStateException failure = assertThrows(IllegalStateException.class, pipeline::takeCompleted);
+        assertTrue(failure.getCause() instanceof StackOverflowError);
+        assertFalse(pipeline.hasPending(), "A failed chunk should not stay pending");
+        assertEquals(0, pipeline.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("Worker threads generate the same terrain as the calling thread")
+    void shouldMatchSynchronousGeneration() {
+        GenerateChunkInteractor generator = new GenerateChunkInteractor(new InMemoryBlockRepository());
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            ChunkGenerationPipeline pipeline = new ChunkGenerationPipeline(generator, repository, workers, 6);
+            for (int x = -3; x <= 3; x++) {
+                for (int z = -3; z <= 3; z++) {
+                    for (int y = 0; y < 2; y++) {
+                        pipeline.request(new GamePosition(x, y, z), 64);
+                    }
+                }
+            }
+
+            int received = 0;
+            GenerateChunkInteractor reference = new GenerateChunkInteractor(new InMemoryBlockRepository());
+            while (pipeline.hasPending()) {
+                GeneratedChunk generated = pipeline.takeCompleted();
+                Chunk expected = reference.execute(new GenerateChunkInputData(generated.getPosition(), 64)).getChunk();
+                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                        for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                            assertEquals(expected.getBlock(x, y, z), generated.getChunk().getBlock(x, y, z));
+                        }
+                    }
+                }
+                received++;
+            }
+            assertEquals(7 * 7 * 2, received);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Queued chunks are handed out nearest and in view first")
+    void shouldServeMostUrgentFirst() {
+        ChunkGenerationPipeline pipeline =
+            new ChunkGenerationPipeline(emptyChunks(), repository, workQueue::add, 1);
+        // Occupies the only slot, so the rest queue up
+        pipeline.request(new GamePosition(9, 0, 0), 100);
+        for (int x = -3; x <= 3; x++) {
+            pipeline.request(new GamePosition(x, 0, 0), 100);
+        }
+        // Standing in chunk 0 looking towards +x
+        pipeline.setPriority(ChunkPriority.around(new GamePosition(8, 8, 8), new GamePosition(1, 0, 0)));
+
+        // Chunks behind score four times higher than chunks ahead, ties go to the earlier request
+        int[] expected = {9, 0, 1, -1, 2, 3, -2, -3};
+        for (int x : expected) {
+            workQueue.poll().run();
+            assertEquals(new GamePosition(x, 0, 0), pipeline.pollCompleted().getPosition());
+        }
+        assertFalse(pipeline.hasPending());
+    }
+
+    @Test
+    @DisplayName("Priorities focus on the chunk the world puts the player in")
+    void shouldFocusOnPlayerChunk() {
+        // Just left of the origin the world still counts the player as standing in chunk 0
+        GamePosition position = new GamePosition(-0.5f, 8, -0.5f);
+        long playerChunk = ChunkKey.fromWorldPosition(position);
+        ChunkPriority priority = ChunkPriority.around(position, null);
+
+        assertEquals(0.0, priority.score(ChunkKey.x(playerChunk), ChunkKey.y(playerChunk), ChunkKey.z(playerChunk)));
+        assertEquals(0.0, priority.score(0, 0, 0));
+        assertEquals(1.0, priority.score(-1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Cancelled chunks are never generated")
+    void shouldDropCancelledRequests() {
+        ChunkGenerationPipeline pipeline =
+            new ChunkGenerationPipeline(emptyChunks(), repository, workQueue::add, 1);
+        for (int x = 0; x < 4; x++) {
+            pipeline.request(new GamePosition(x, 0, 0), 100);
+        }
+
+        assertFalse(pipeline.cancel(ChunkKey.pack(0, 0, 0)), "Chunks with a worker cannot be cancelled");
+        assertTrue(pipeline.cancel(ChunkKey.pack(1, 0, 0)));
+        assertTrue(pipeline.cancel(ChunkKey.pack(2, 0, 0)));
+        assertFalse(pipeline.isPending(ChunkKey.pack(1, 0, 0)));
+        assertEquals(1, pipeline.getQueuedCount());
+        assertEquals(2, pipeline.getCancelledCount());
+
+        // Asking again after cancelling queues the chunk again
+        pipeline.request(new GamePosition(2, 0, 0), 100);
+        int generated = 0;
+        while (pipeline.hasPending()) {
+            workQueue.poll().run();
+            assertTrue(pipeline.pollCompleted().getPosition().x != 1, "Cancelled chunk was generated");
+            generated++;
+        }
+        assertEquals(3, generated);
+        assertTrue(workQueue.isEmpty());
+    }
+}
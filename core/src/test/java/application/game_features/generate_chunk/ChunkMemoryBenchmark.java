@@ -0,0 +1,48 @@
+package application.game_features.generate_chunk;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import domain.world.Chunk;
+import domain.world.GamePosition;
+import domain.world.World;
+import domain.world.WorldMemoryReport;
+import framework.data_access.InMemoryBlockRepository;
+
+/**
+ * Reports how much heap the generated rail track uses per chunk.
+ * Run with ./gradlew :core:benchmark
+ */
+@Tag("benchmark")
+class ChunkMemoryBenchmark {
+    // short[16][16][16] blocks plus an int[16][16] height map, as chunks were stored before palettes
+    private static final long JAGGED_BYTES_PER_CHUNK = 13648 + 1360;
+
+    @Test
+    @DisplayName("Palette storage uses an order of magnitude less heap than dense arrays")
+    void reportTrackMemory() {
+        World world = new World();
+        GenerateChunkInteractor generator = new GenerateChunkInteractor(new InMemoryBlockRepository());
+        int worldEndX = world.getWorldDepthChunks() * Chunk.CHUNK_SIZE;
+
+        for (int x = 0; x < world.getWorldDepthChunks(); x++) {
+            for (int z = -8; z <= 8; z++) {
+                for (int y = 0; y <= 4; y++) {
+                    GamePosition pos = new GamePosition(x, y, z);
+                    Chunk chunk = generator.execute(new GenerateChunkInputData(pos, worldEndX)).getChunk();
+                    world.addChunk(pos, chunk);
+                }
+            }
+        }
+
+        WorldMemoryReport report = world.getMemoryReport();
+        System.out.println("Palette storage: " + report);
+        System.out.printf("Dense storage:   %d bytes/chunk%n", JAGGED_BYTES_PER_CHUNK);
+
+        assertTrue(report.getBytesPerChunk() * 10 <= JAGGED_BYTES_PER_CHUNK,
+            "Track should use at least 10x less block memory than dense storage");
+    }
+}
@@ -2,13 +2,14 @@ package application.game_features.generate_chunk;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import application.game_features.generate_chunk.noise.PerlinNoise;
+import application.game_features.generate_chunk.noise.NoiseGenerator;
 import application.gateways.BlockRepository;
 import domain.world.Chunk;
 import domain.world.GamePosition;
@@ -27,7 +28,8 @@ class GenerateChunkInteractorTest {
     @Test
     @DisplayName("Chunk successfully generates")
     void shouldSuccessfullyGenerate() {
-        PerlinNoise.setSeed(1000);
+        NoiseGenerator terrainNoise = GenerateChunkInteractor.terrainNoise(1000);
+        interactor = new GenerateChunkInteractor(blockRepository, new ChunkColumnCache(64), terrainNoise);
         GamePosition pos = new GamePosition(0, 0, 0);
         GenerateChunkOutputData outputData = interactor.execute(
             new GenerateChunkInputData(pos, 100)
@@ -37,7 +39,7 @@ class GenerateChunkInteractorTest {
         assertNotNull(chunk, "Chunk should not be null");
         assertEquals(0, chunk.getMaxBlockHeight(), "Should be flat at the origin");
         assertEquals(0, chunk.getMinBlockHeight(), "Should be flat at the origin");
-        assertEquals(1000, PerlinNoise.getSeed(), "Seed should not change");
+        assertEquals(1000, terrainNoise.getSeed(), "Seed should not change");
     }
 
     @Test
@@ -97,4 +99,62 @@ class GenerateChunkInteractorTest {
         assertTrue(foundStone, "Stone should exist");
     }
 
+    @Test
+    @DisplayName("Chunks stacked in a column share one height map")
+    void shouldShareColumnBetweenStackedChunks() {
+        Chunk bottom = interactor.execute(new GenerateChunkInputData(new GamePosition(3, 0, 2), 32)).getChunk();
+        Chunk top = interactor.execute(new GenerateChunkInputData(new GamePosition(3, 2, 2), 32)).getChunk();
+        Chunk neighbour = interactor.execute(new GenerateChunkInputData(new GamePosition(3, 0, 3), 32)).getChunk();
+
+        assertNotNull(bottom.getColumn());
+        assertSame(bottom.getColumn(), top.getColumn(), "Stacked chunks should reuse the generated column");
+        assertTrue(neighbour.getColumn() != bottom.getColumn(), "Other columns should not be shared");
+        assertEquals(bottom.getHeight(5, 9), top.getHeight(5, 9));
+    }
+
+    @Test
+    @DisplayName("Caves carve below the surface but keep the surface and the bottom layer")
+    void shouldCarveCaves() {
+        short air = blockRepository.findByName("AIR").orElseThrow().getId();
+        int carved = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int z = 3; z <= 8; z++) {
+                for (int y = 0; y <= 3; y++) {
+                    Chunk chunk = interactor.execute(
+                        new GenerateChunkInputData(new GamePosition(x, y, z), 256)).getChunk();
+                    for (int bx = 0; bx < Chunk.CHUNK_SIZE; bx++) {
+                        for (int bz = 0; bz < Chunk.CHUNK_SIZE; bz++) {
+                            int surface = chunk.getHeight(bx, bz) - chunk.getChunkWorldY();
+                            if (surface >= 0 && surface < Chunk.CHUNK_SIZE) {
+                                assertTrue(chunk.getBlock(bx, surface, bz) != air, "The surface should stay solid");
+                            }
+                            if (y == 0) {
+                                assertTrue(chunk.getBlock(bx, 0, bz) != air, "The bottom layer should stay solid");
+                            }
+                            for (int by = 0; by < Math.min(surface, Chunk.CHUNK_SIZE); by++) {
+                                if (chunk.getBlock(bx, by, bz) == air) carved++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(carved > 0, "The hills should have caves");
+    }
+
+    @Test
+    @DisplayName("Without cave noise the terrain is a plain height field")
+    void shouldGenerateHeightFieldWithoutCaves() {
+        interactor = new GenerateChunkInteractor(
+            blockRepository, new ChunkColumnCache(64), GenerateChunkInteractor.terrainNoise(0), null);
+        Chunk chunk = interactor.execute(new GenerateChunkInputData(new GamePosition(4, 0, 6), 256)).getChunk();
+        short air = blockRepository.findByName("AIR").orElseThrow().getId();
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                    assertEquals(y > chunk.getHeight(x, z), chunk.getBlock(x, y, z) == air);
+                }
+            }
+        }
+    }
 }
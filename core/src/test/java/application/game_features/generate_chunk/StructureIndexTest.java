@@ -0,0 +1,125 @@
+package application.game_features.generate_chunk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import application.gateways.BlockRepository;
+import domain.collections.LongObjectMap;
+import domain.world.Block;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.GamePosition;
+import domain.world.Structure;
+import domain.world.StructurePlacement;
+import framework.data_access.InMemoryBlockRepository;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class StructureIndexTest {
+    private static final int REGIONS = 40;
+    private static final int WORLD_END_X = REGIONS * StructureIndex.REGION_BLOCKS;
+
+    private final BlockRepository blockRepository = new InMemoryBlockRepository();
+    private final List<Structure> templates = RailStructures.create(blockRepository);
+
+    @Test
+    @DisplayName("Placements depend only on the seed and stay in their region beside the track")
+    void shouldPlaceDeterministicallyBesideTheTrack() {
+        StructureIndex index = new StructureIndex(3, templates, WORLD_END_X);
+        StructureIndex again = new StructureIndex(3, templates, WORLD_END_X);
+        int placed = 0;
+        for (int regionX = -2; regionX < REGIONS + 2; regionX++) {
+            for (int regionZ = -3; regionZ <= 3; regionZ++) {
+                List<StructurePlacement> placements = index.getPlacements(regionX, regionZ);
+                List<StructurePlacement> replanned = again.getPlacements(regionX, regionZ);
+                assertEquals(placements.toString(), replanned.toString());
+                assertSame(placements, index.getPlacements(regionX, regionZ), "Regions are planned once");
+
+                for (StructurePlacement placement : placements) {
+                    Structure structure = placement.getStructure();
+                    int minX = placement.getOriginX();
+                    int minZ = placement.getOriginZ();
+                    int maxX = minX + structure.getSizeX() - 1;
+                    int maxZ = minZ + structure.getSizeZ() - 1;
+                    assertEquals(regionX, Math.floorDiv(minX, StructureIndex.REGION_BLOCKS));
+                    assertEquals(regionX, Math.floorDiv(maxX, StructureIndex.REGION_BLOCKS));
+                    assertEquals(regionZ, Math.floorDiv(minZ, StructureIndex.REGION_BLOCKS));
+                    assertEquals(regionZ, Math.floorDiv(maxZ, StructureIndex.REGION_BLOCKS));
+                    assertTrue(maxZ < 5 || minZ > 10, placement + " blocks the track");
+                    assertTrue(minX >= StructureIndex.REGION_BLOCKS, "The start of the track stays clear");
+                    assertTrue(maxX < WORLD_END_X, placement + " is past the end of the track");
+                    placed++;
+                }
+            }
+        }
+        assertTrue(placed > REGIONS / 2, "Only " + placed + " structures were placed");
+    }
+
+    @Test
+    @DisplayName("Chunks generated in parallel contain the structures intersecting them")
+    void shouldStampStructuresIntoGeneratedChunks() throws Exception {
+        StructureIndex index = new StructureIndex(3, templates, WORLD_END_X);
+        GenerateChunkInteractor generator = new GenerateChunkInteractor(blockRepository, new ChunkColumnCache(256),
+            GenerateChunkInteractor.terrainNoise(3), GenerateChunkInteractor.caveNoise(3), index);
+
+        StructurePlacement placement = null;
+        for (int regionX = 1; placement == null; regionX++) {
+            List<StructurePlacement> placements = index.getPlacements(regionX, 0);
+            if (!placements.isEmpty()) placement = placements.get(0);
+        }
+        Structure structure = placement.getStructure();
+        int firstChunkX = Math.floorDiv(placement.getOriginX(), Chunk.CHUNK_SIZE);
+        int lastChunkX = Math.floorDiv(placement.getOriginX() + structure.getSizeX() - 1, Chunk.CHUNK_SIZE);
+        int firstChunkZ = Math.floorDiv(placement.getOriginZ(), Chunk.CHUNK_SIZE);
+        int lastChunkZ = Math.floorDiv(placement.getOriginZ() + structure.getSizeZ() - 1, Chunk.CHUNK_SIZE);
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            LongObjectMap<Future<Chunk>> chunks = new LongObjectMap<>();
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                for (int chunkZ = firstChunkZ; chunkZ <= lastChunkZ; chunkZ++) {
+                    GamePosition pos = new GamePosition(chunkX, 0, chunkZ);
+                    chunks.put(ChunkKey.of(pos), workers.submit(
+                        () -> generator.execute(new GenerateChunkInputData(pos, WORLD_END_X)).getChunk()));
+                }
+            }
+
+            int checked = 0;
+            for (int x = 0; x < structure.getSizeX(); x++) {
+                for (int z = 0; z < structure.getSizeZ(); z++) {
+                    for (int y = 0; y < structure.getSizeY(); y++) {
+                        Block block = structure.getBlock(x, y, z);
+                        if (block == null) continue;
+                        int worldX = placement.getOriginX() + x;
+                        int worldZ = placement.getOriginZ() + z;
+                        Chunk chunk = chunks.get(ChunkKey.pack(Math.floorDiv(worldX, Chunk.CHUNK_SIZE), 0,
+                            Math.floorDiv(worldZ, Chunk.CHUNK_SIZE))).get();
+                        assertEquals(block.getId(), chunk.getBlock(Math.floorMod(worldX, Chunk.CHUNK_SIZE),
+                            placement.getOriginY() + y, Math.floorMod(worldZ, Chunk.CHUNK_SIZE)));
+                        checked++;
+                    }
+                }
+            }
+            assertTrue(checked > 0);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Regions away from the track have no structures")
+    void shouldLeaveOtherRegionsEmpty() {
+        StructureIndex index = new StructureIndex(3, templates, WORLD_END_X);
+        assertTrue(index.getPlacements(5, 1).isEmpty());
+        assertTrue(index.getPlacements(5, -2).isEmpty());
+        assertTrue(index.getPlacements(0, 0).isEmpty());
+        assertFalse(index.getPlacementsIntersecting(8, 3, 1).iterator().hasNext(), "Structures stand on the floor");
+    }
+}
@@ -0,0 +1,60 @@
+package application.game_features.generate_chunk.noise;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DensityLatticeTest {
+    private final NoiseGenerator noise = new NoiseGenerator(7, 2, 0.5, 0.04, 0);
+    private final DensityLattice lattice = new DensityLattice(noise, 4);
+
+    @Test
+    @DisplayName("Interpolated density matches the noise at lattice points and stays close between them")
+    void shouldApproximateNoise() {
+        int worldX = -32;
+        int worldY = 16;
+        int worldZ = 48;
+        double[] points = new double[5 * 5 * 5];
+        float[] density = new float[16 * 16 * 16];
+        double max = lattice.sampleLattice(points, worldX, worldY, worldZ, 16);
+        lattice.interpolate(points, 16, density);
+
+        double largestError = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < 16; y++) {
+                    double value = density[(x * 16 + z) * 16 + y];
+                    double exact = noise.sample(worldX + x, worldY + y, worldZ + z);
+                    if (x % 4 == 0 && y % 4 == 0 && z % 4 == 0) {
+                        assertEquals(exact, value, 1e-6, "Lattice points should be exact");
+                    }
+                    assertTrue(value <= max + 1e-6, "Interpolation should not exceed the lattice maximum");
+                    largestError = Math.max(largestError, Math.abs(exact - value));
+                }
+            }
+        }
+        assertTrue(largestError < 0.05, "Interpolation error " + largestError + " is too large");
+    }
+
+    @Test
+    @DisplayName("Neighbouring cubes agree along their shared face")
+    void shouldBeSeamless() {
+        double[] left = new double[125];
+        double[] right = new double[125];
+        lattice.sampleLattice(left, 0, 0, 0, 16);
+        lattice.sampleLattice(right, 16, 0, 0, 16);
+        for (int i = 0; i < 25; i++) {
+            assertEquals(left[100 + i], right[i], 0, "The last x plane of one cube is the first of the next");
+        }
+    }
+
+    @Test
+    @DisplayName("Cubes must be a whole number of cells")
+    void shouldRejectPartialCells() {
+        assertThrows(IllegalArgumentException.class, () -> lattice.latticePoints(18));
+        assertThrows(IllegalArgumentException.class, () -> new DensityLattice(noise, 0));
+    }
+}
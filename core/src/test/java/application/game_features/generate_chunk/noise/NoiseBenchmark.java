@@ -0,0 +1,60 @@
+package application.game_features.generate_chunk.noise;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares sampling a column of terrain noise one point at a time with sampling it as a grid.
+ * Run with ./gradlew :core:benchmark
+ */
+@Tag("benchmark")
+class NoiseBenchmark {
+    private static final int COLUMNS = 4096;
+    private static final int ROUNDS = 5;
+    private static final double STEP = 0.05;
+
+    private final NoiseGenerator noise = new NoiseGenerator(0, 4, 0.6, STEP, 0);
+
+    @Test
+    @DisplayName("Grid sampling of terrain columns against scalar sampling")
+    void reportColumnNoise() {
+        double[] grid = new double[256];
+        double scalarSum = 0;
+        double gridSum = 0;
+        long scalarNanos = Long.MAX_VALUE;
+        long gridNanos = Long.MAX_VALUE;
+
+        // Best of several rounds, the first ones include JIT warm up
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            scalarSum = 0;
+            for (int column = 0; column < COLUMNS; column++) {
+                double originX = column * 16 * STEP;
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        scalarSum += noise.octavePerlin(originX + x * STEP, 0, z * STEP, 4, 0.6);
+                    }
+                }
+            }
+            scalarNanos = Math.min(scalarNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            gridSum = 0;
+            for (int column = 0; column < COLUMNS; column++) {
+                noise.octavePerlinGrid(grid, column * 16 * STEP, 0, 0, STEP, 16, 16, 4, 0.6);
+                for (double value : grid) {
+                    gridSum += value;
+                }
+            }
+            gridNanos = Math.min(gridNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("Scalar noise: %.1f ns/column%n", (double) scalarNanos / COLUMNS);
+        System.out.printf("Grid noise:   %.1f ns/column (%.2fx)%n",
+            (double) gridNanos / COLUMNS, (double) scalarNanos / gridNanos);
+        assertEquals(scalarSum, gridSum, 1e-6, "Both paths should sample the same noise");
+    }
+}
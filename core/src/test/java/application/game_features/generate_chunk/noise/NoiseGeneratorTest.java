@@ -0,0 +1,122 @@
+package application.game_features.generate_chunk.noise;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class NoiseGeneratorTest {
+    private final NoiseGenerator noise = new NoiseGenerator(42, 4, 0.6, 0.05, 0);
+
+    @Test
+    @DisplayName("Grid sampling matches the scalar noise")
+    void shouldMatchScalarNoise() {
+        // Steps below, at and above one lattice cell, with negative origins crossing zero
+        double[][] grids = {{-3.3, 0.7, 12.1, 0.05}, {-0.5, 100, -0.5, 0.5}, {7.25, -2.4, -9.75, 1.3}};
+        for (double[] grid : grids) {
+            double originX = grid[0];
+            double y = grid[1];
+            double originZ = grid[2];
+            double step = grid[3];
+            double[] doubles = new double[16 * 12];
+            float[] floats = new float[16 * 12];
+            noise.octavePerlinGrid(doubles, originX, y, originZ, step, 16, 12, 4, 0.6);
+            noise.octavePerlinGrid(floats, originX, y, originZ, step, 16, 12, 4, 0.6);
+
+            for (int i = 0; i < 16; i++) {
+                for (int k = 0; k < 12; k++) {
+                    double expected = noise.octavePerlin(originX + i * step, y, originZ + k * step, 4, 0.6);
+                    assertEquals(expected, doubles[i * 12 + k], 1e-12);
+                    assertEquals(expected, floats[i * 12 + k], 1e-6);
+                }
+            }
+
+            noise.perlinGrid(doubles, originX, y, originZ, step, 16, 12);
+            noise.perlinGrid(floats, originX, y, originZ, step, 16, 12);
+            double expected = noise.perlin(originX + 5 * step, y, originZ + 7 * step);
+            assertEquals(expected, doubles[5 * 12 + 7], 1e-12);
+            assertEquals(expected, floats[5 * 12 + 7], 1e-6);
+        }
+    }
+
+    @Test
+    @DisplayName("World space grids agree with per column sampling to within rounding")
+    void shouldMatchWorldSpaceSamples() {
+        // Far from the origin the grid's stepped coordinates and (worldX + i) * scale round differently
+        NoiseGenerator terrain = new NoiseGenerator(7, 4, 0.6, 0.05f, 0);
+        double[] grid = new double[16 * 16];
+        float[] floats = new float[16 * 16];
+        terrain.sampleGrid(grid, 123456, -98304, 16, 16);
+        terrain.sampleGrid(floats, 123456, -98304, 16, 16);
+
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                double expected = terrain.sample(123456 + x, -98304 + z);
+                assertEquals(expected, grid[x * 16 + z], 1e-9);
+                assertEquals(expected, floats[x * 16 + z], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Grids must fit the output and move forwards")
+    void shouldRejectBadGrids() {
+        assertThrows(IllegalArgumentException.class,
+            () -> noise.perlinGrid(new double[10], 0, 0, 0, 1, 4, 4));
+        assertThrows(IllegalArgumentException.class,
+            () -> noise.perlinGrid(new double[16], 0, 0, 0, 0, 4, 4));
+        assertThrows(IllegalArgumentException.class,
+            () -> noise.perlinGrid(new float[10], 0, 0, 0, 1, 4, 4));
+    }
+
+    @Test
+    @DisplayName("World space sampling applies the configured scale, octaves and layer")
+    void shouldSampleWorldSpace() {
+        NoiseGenerator spawn = new NoiseGenerator(3, 2, 0.5, 0.5, 100);
+        double[] grid = new double[16 * 16];
+        spawn.sampleGrid(grid, -32, 48, 16, 16);
+
+        assertEquals(spawn.octavePerlin(-16, 100, 24, 2, 0.5), spawn.sample(-32, 48), 1e-12);
+        assertEquals(spawn.sample(-32 + 3, 48 + 9), grid[3 * 16 + 9], 1e-12);
+        assertEquals(spawn.octavePerlin(1, 2, 3, 2, 0.5), spawn.sample(2, 4, 6), 1e-12);
+    }
+
+    @Test
+    @DisplayName("The seed alone decides the noise, on every thread")
+    void shouldBeDeterministicPerSeed() throws Exception {
+        NoiseGenerator other = noise.withSeed(43);
+        assertEquals(noise.sample(10.5, 3.25), new NoiseGenerator(42, 4, 0.6, 0.05, 0).sample(10.5, 3.25));
+        assertNotEquals(noise.sample(10.5, 3.25), other.sample(10.5, 3.25));
+
+        double[] expected = new double[16 * 16];
+        noise.sampleGrid(expected, 160, -80, 16, 16);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<double[]>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                NoiseGenerator generator = i % 2 == 0 ? noise : other;
+                results.add(workers.submit(() -> {
+                    double[] grid = new double[16 * 16];
+                    generator.sampleGrid(grid, 160, -80, 16, 16);
+                    return grid;
+                }));
+            }
+            for (int i = 0; i < 16; i += 2) {
+                double[] grid = results.get(i).get();
+                for (int index = 0; index < grid.length; index++) {
+                    assertEquals(expected[index], grid[index]);
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -2,11 +2,15 @@ package application.game_features.populate_chunk;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import application.game_features.generate_chunk.RailStructures;
+import application.game_features.generate_chunk.StructureIndex;
+import application.game_features.generate_entity.GenerateEntityInputData;
 import application.game_features.generate_entity.pickup.GeneratePickupStrategy;
 import application.game_features.generate_entity.player_entity.GeneratePlayerEntityStrategy;
 import application.game_features.generate_entity.train.GenerateTrainStrategy;
@@ -17,7 +21,10 @@ import domain.entities.EntityFactory;
 import domain.entities.EntityType;
 import domain.world.Chunk;
 import domain.world.GamePosition;
+import domain.world.StructurePlacement;
 import domain.world.World;
+import framework.data_access.InMemoryBlockRepository;
+import java.util.List;
 
 class PopulateChunkEntitiesTest {
     World world;
@@ -57,7 +64,7 @@ class PopulateChunkEntitiesTest {
             }
         }
         interactor.execute(new PopulateChunkInputData(chunk));
-        assertEquals(0, chunk.getEntityIds().size(), "No entities should be near spawn");
+        assertEquals(0, chunk.getEntityCount(), "No entities should be near spawn");
     }
 
     @Test
@@ -85,7 +92,7 @@ class PopulateChunkEntitiesTest {
             }
         }
         interactor.execute(new PopulateChunkInputData(chunk));
-        assertEquals(0, chunk.getEntityIds().size(), "No entities should be in the air");
+        assertEquals(0, chunk.getEntityCount(), "No entities should be in the air");
     }
 
     @Test
@@ -103,4 +110,68 @@ class PopulateChunkEntitiesTest {
         }
         assertFalse(entityStorage.getAllIds().isEmpty(), "There should be entities away from spawn");
     }
+
+    private static Chunk flatChunk(int chunkX) {
+        Chunk flat = new Chunk(new GamePosition(chunkX, 0, 0));
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                flat.setHeight(x, 0, z);
+            }
+        }
+        return flat;
+    }
+
+    @Test
+    @DisplayName("A chunk plans the same spawns every time, without creating entities")
+    void deterministicPlan() {
+        int planned = 0;
+        for (int chunkX = 20; chunkX < 220; chunkX++) {
+            List<GenerateEntityInputData> first =
+                interactor.plan(new PopulateChunkInputData(flatChunk(chunkX))).getSpawns();
+            List<GenerateEntityInputData> second =
+                interactor.plan(new PopulateChunkInputData(flatChunk(chunkX))).getSpawns();
+
+            assertEquals(first.size(), second.size(), "Chunk " + chunkX + " planned different spawns");
+            for (int i = 0; i < first.size(); i++) {
+                assertEquals(first.get(i).getType(), second.get(i).getType());
+                assertEquals(first.get(i).getPosition(), second.get(i).getPosition());
+            }
+            planned += first.size();
+        }
+        assertTrue(planned > 0, "There should be spawns away from spawn");
+        assertTrue(entityStorage.getAllIds().isEmpty(), "Planning should not create entities");
+    }
+
+    @Test
+    @DisplayName("Committing a plan creates its entities")
+    void commitCreatesPlannedEntities() {
+        PopulateChunkOutputData plan = interactor.plan(new PopulateChunkInputData(flatChunk(0)));
+        interactor.commit(plan);
+        assertEquals(plan.getSpawns().size(), entityStorage.getAllIds().size());
+    }
+
+    @Test
+    @DisplayName("Structure spawn points are planned by the chunk they are in")
+    void structureSpawns() {
+        StructureIndex structures = new StructureIndex(
+            5, RailStructures.create(new InMemoryBlockRepository()), 64 * StructureIndex.REGION_BLOCKS);
+        interactor = new PopulateChunkInteractor(entityFactory, PopulateChunkInteractor.spawnNoise(5), structures);
+
+        int expected = 0;
+        int planned = 0;
+        for (int regionX = 2; regionX < 64; regionX++) {
+            for (StructurePlacement placement : structures.getPlacements(regionX, 0)) {
+                expected += placement.getStructure().getSpawnPoints().size();
+            }
+        }
+        for (int chunkX = 2 * StructureIndex.REGION_BLOCKS / Chunk.CHUNK_SIZE; chunkX < 64 * 4; chunkX++) {
+            for (int chunkZ = 0; chunkZ <= 1; chunkZ++) {
+                // Structures stand on the valley floor at height 0, the column is left out so only they spawn
+                Chunk structureChunk = new Chunk(new GamePosition(chunkX, 0, chunkZ));
+                planned += interactor.plan(new PopulateChunkInputData(structureChunk)).getSpawns().size();
+            }
+        }
+        assertTrue(expected > 0, "Some structures should stand along the track");
+        assertEquals(expected, planned, "Every structure spawn point should be planned once");
+    }
 }
@@ -0,0 +1,53 @@
+package application.game_features.render_radius;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChunkFootprintTest {
+    @Test
+    @DisplayName("A still capsule is a disc with its columns nearest first")
+    void discColumnsSortedByDistance() {
+        ChunkFootprint disc = ChunkFootprint.capsule(3, 0, 0);
+
+        int count = 0;
+        for (int dz = -3; dz <= 3; dz++) {
+            for (int dx = -3; dx <= 3; dx++) {
+                boolean inside = dx >= disc.getRowFrom(dz) && dx <= disc.getRowTo(dz);
+                assertEquals(dx * dx + dz * dz <= 9, inside, "Column " + dx + ", " + dz);
+                if (inside) count++;
+            }
+        }
+        assertTrue(disc.getRowFrom(4) > disc.getRowTo(4), "Rows outside the footprint are empty");
+
+        int[] columns = disc.getSortedColumns();
+        assertEquals(count, columns.length);
+        assertEquals(0, ChunkFootprint.unpackDx(columns[0]));
+        assertEquals(0, ChunkFootprint.unpackDz(columns[0]));
+        int lastDistance = 0;
+        for (int packed : columns) {
+            int dx = ChunkFootprint.unpackDx(packed);
+            int dz = ChunkFootprint.unpackDz(packed);
+            assertTrue(dx * dx + dz * dz >= lastDistance);
+            lastDistance = dx * dx + dz * dz;
+        }
+    }
+
+    @Test
+    @DisplayName("Lookahead stretches the footprint towards it")
+    void lookaheadStretches() {
+        ChunkFootprint capsule = ChunkFootprint.capsule(2, -4, 0);
+        assertEquals(-6, capsule.getRowFrom(0));
+        assertEquals(2, capsule.getRowTo(0));
+        assertEquals(-4, capsule.getRowFrom(2));
+        assertEquals(0, capsule.getRowTo(2));
+
+        ChunkFootprint square = ChunkFootprint.sweptSquare(2, 0, 3);
+        assertEquals(-2, square.getMinDz());
+        assertEquals(5, square.getMaxDz());
+        assertEquals(-2, square.getRowFrom(5));
+        assertEquals(2, square.getRowTo(5));
+    }
+}
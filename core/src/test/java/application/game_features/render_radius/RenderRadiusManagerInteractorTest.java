@@ -1,14 +1,21 @@
 package application.game_features.render_radius;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import domain.world.Chunk;
+import domain.world.ChunkKey;
 import domain.world.GamePosition;
 import domain.world.World;
+import java.util.Collections;
+import java.util.Set;
 
 class RenderRadiusManagerInteractorTest {
     World world;
@@ -63,11 +70,163 @@ class RenderRadiusManagerInteractorTest {
             new RenderRadiusManagerInputData(playerPos, 2)
         );
 
-        // Move to a new chunk
-        playerPos = new GamePosition(16, 0, 0);
+        // Move far enough that the chunks left behind are beyond the unload margin
+        playerPos = new GamePosition(16 * 3, 0, 0);
         RenderRadiusOutputData output2 = interactor.execute(
             new RenderRadiusManagerInputData(playerPos, 2)
         );
         assertFalse(output2.getChunksToUnload().isEmpty(), "Chunks to unload should be non-empty");
     }
+
+    @Test
+    @DisplayName("A moving ride streams chunks ahead of the player")
+    void movingRideLooksAhead() {
+        GamePosition playerPos = new GamePosition(8, 0, 8);
+        GamePosition velocity = new GamePosition(60, 0, 0);
+        RenderRadiusOutputData output = interactor.execute(
+            new RenderRadiusManagerInputData(playerPos, 2, velocity)
+        );
+
+        int generationLookahead = RenderRadiusManagerInteractor.lookaheadChunks(60, 2f);
+        int meshLookahead = RenderRadiusManagerInteractor.lookaheadChunks(60, 1f);
+        assertEquals(8, generationLookahead);
+        assertEquals(4, meshLookahead);
+        assertTrue(output.getChunksToGenerate().contains(new GamePosition(3 + generationLookahead, 0, 0)),
+            "Generation should reach ahead of the player");
+        assertFalse(output.getChunksToGenerate().contains(new GamePosition(-4, 0, 0)),
+            "Generation should not reach further behind the player");
+        assertTrue(output.getChunksToLoad().contains(new GamePosition(2 + meshLookahead, 0, 0)),
+            "Meshing should reach ahead of the player");
+        assertFalse(output.getChunksToLoad().contains(new GamePosition(3 + meshLookahead, 0, 0)));
+        assertTrue(output.getChunksToGenerate().containsAll(output.getChunksToLoad()),
+            "Chunks to load should a subset of generated chunks");
+    }
+
+    @Test
+    @DisplayName("Speeding up reaches further at once, slowing down waits for the next chunk")
+    void lookaheadFollowsSpeed() {
+        GamePosition playerPos = new GamePosition(8, 0, 8);
+        interactor.execute(new RenderRadiusManagerInputData(playerPos, 2));
+
+        RenderRadiusOutputData faster = interactor.execute(
+            new RenderRadiusManagerInputData(playerPos, 2, new GamePosition(30, 0, 0))
+        );
+        assertFalse(faster.getChunksToLoad().isEmpty(), "Speeding up should mesh chunks ahead");
+        assertTrue(faster.getChunksToUnload().isEmpty());
+
+        RenderRadiusOutputData slower = interactor.execute(
+            new RenderRadiusManagerInputData(playerPos, 2, GamePosition.Zero)
+        );
+        assertTrue(slower.getChunksToUnload().isEmpty(), "Chunks ahead should stay until the next chunk");
+        assertTrue(slower.getChunksToUpdate().containsAll(faster.getChunksToLoad()));
+    }
+
+    @Test
+    @DisplayName("Chunks left behind before they were generated are cancelled")
+    void leavingCancelsMissingChunks() {
+        interactor.execute(new RenderRadiusManagerInputData(new GamePosition(8, 0, 8), 2));
+        RenderRadiusOutputData output = interactor.execute(
+            new RenderRadiusManagerInputData(new GamePosition(8 + 16 * 3, 0, 8), 2)
+        );
+
+        assertTrue(output.getChunksToCancel().contains(new GamePosition(-3, 0, 0)));
+        assertTrue(output.getChunksToCancel().contains(new GamePosition(-1, 1, 2)));
+        assertFalse(output.getChunksToCancel().contains(new GamePosition(0, 0, 0)), "Still in the area");
+        for (GamePosition pos : output.getChunksToCancel()) {
+            assertFalse(output.getChunksToGenerate().contains(pos));
+        }
+    }
+
+    @Test
+    @DisplayName("Stepping back and forth over a chunk border never unloads or reloads chunks")
+    void borderHysteresis() {
+        // Along an edge and across a corner, where the distance to the diagonal columns changes most
+        GamePosition[][] borders = {
+            {new GamePosition(15, 0, 8), new GamePosition(17, 0, 8)},
+            {new GamePosition(15, 0, 15), new GamePosition(17, 0, 17)},
+        };
+        for (GamePosition[] border : borders) {
+            RenderRadiusManagerInteractor oscillating = new RenderRadiusManagerInteractor(world);
+            oscillating.execute(new RenderRadiusManagerInputData(border[0], 4));
+            RenderRadiusOutputData first = oscillating.execute(new RenderRadiusManagerInputData(border[1], 4));
+            assertTrue(first.getChunksToUnload().isEmpty(), "A single step should stay within the margin");
+
+            for (int step = 0; step < 6; step++) {
+                RenderRadiusOutputData output = oscillating.execute(
+                    new RenderRadiusManagerInputData(border[step % 2], 4));
+                assertTrue(output.getChunksToUnload().isEmpty(), "Nothing should unload at step " + step);
+                assertTrue(output.getChunksToLoad().isEmpty(), "Nothing should reload at step " + step);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Chunks evicted inside the generation area are generated again")
+    void evictedChunksAreRequestedAgain() {
+        GamePosition velocity = new GamePosition(60, 0, 0);
+        RenderRadiusOutputData output = interactor.execute(
+            new RenderRadiusManagerInputData(new GamePosition(8, 0, 8), 2, velocity));
+        for (GamePosition pos : output.getChunksToGenerate()) {
+            world.addChunk(pos, new Chunk(pos));
+        }
+
+        // At the far end of the lookahead, then the player stays in the same chunk
+        world.evictChunk(ChunkKey.pack(11, 1, 0));
+        RenderRadiusOutputData still = interactor.execute(
+            new RenderRadiusManagerInputData(new GamePosition(9, 0, 8), 2, velocity));
+        assertEquals(Collections.singleton(new GamePosition(11, 1, 0)), still.getChunksToGenerate());
+        world.addChunk(new GamePosition(11, 1, 0), new Chunk(11, 1, 0));
+
+        // Behind the columns that enter the area, then the player moves on
+        world.evictChunk(ChunkKey.pack(5, 0, -1));
+        RenderRadiusOutputData advanced = interactor.execute(
+            new RenderRadiusManagerInputData(new GamePosition(8 + 16, 0, 8), 2, velocity));
+        assertTrue(advanced.getChunksToGenerate().contains(new GamePosition(5, 0, -1)));
+        assertTrue(advanced.getChunksToGenerate().contains(new GamePosition(12, 0, 0)), "New columns still come");
+
+        RenderRadiusOutputData idle = interactor.execute(
+            new RenderRadiusManagerInputData(new GamePosition(8 + 16, 0, 8), 2, velocity));
+        assertTrue(idle.getChunksToGenerate().isEmpty(), "Without evictions nothing is checked again");
+    }
+
+    @Test
+    @DisplayName("Chunks to update are the same read-only view every update")
+    void activeChunksAreStableView() {
+        RenderRadiusOutputData output = interactor.execute(
+            new RenderRadiusManagerInputData(new GamePosition(8, 0, 8), 2)
+        );
+        RenderRadiusOutputData output2 = interactor.execute(
+            new RenderRadiusManagerInputData(new GamePosition(8 + 16, 0, 8), 2)
+        );
+
+        assertSame(output.getChunksToUpdate(), output2.getChunksToUpdate());
+        assertThrows(UnsupportedOperationException.class,
+            () -> output2.getChunksToUpdate().add(new GamePosition(0, 0, 0)));
+        for (GamePosition pos : output2.getChunksToUnload()) {
+            assertFalse(output2.getChunksToUpdate().contains(pos));
+        }
+    }
+
+    @Test
+    @DisplayName("Walking chunk by chunk keeps the same chunks as arriving at once")
+    void walkingMatchesFullUpdate() {
+        int radius = 3;
+        for (int step = 0; step <= 6; step++) {
+            GamePosition playerPos = new GamePosition(8 + 16 * step, 0, 8 + 16 * (step / 2));
+            interactor.execute(new RenderRadiusManagerInputData(playerPos, radius));
+        }
+        GamePosition end = new GamePosition(8 + 16 * 6, 0, 8 + 16 * 3);
+        Set<GamePosition> walked = interactor.execute(new RenderRadiusManagerInputData(end, radius))
+            .getChunksToUpdate();
+
+        RenderRadiusManagerInteractor arrived = new RenderRadiusManagerInteractor(world);
+        Set<GamePosition> loaded = arrived.execute(new RenderRadiusManagerInputData(end, radius)).getChunksToLoad();
+        assertTrue(walked.containsAll(loaded), "Everything within the radius should be meshed");
+        for (GamePosition pos : walked) {
+            float dx = pos.x - 6;
+            float dz = pos.z - 3;
+            float keep = radius + RenderRadiusManagerInteractor.UNLOAD_MARGIN;
+            assertTrue(dx * dx + dz * dz <= keep * keep, "Nothing beyond the unload margin should stay " + pos);
+        }
+    }
 }
@@ -1,8 +1,9 @@
 package application.game_features.update_entity;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.refEq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,16 +17,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import application.gateways.EntityStorage;
+import domain.collections.IntList;
 import domain.entities.Entity;
 import domain.entities.EntityType;
 import domain.world.Chunk;
+import domain.world.ChunkKey;
 import domain.world.GamePosition;
 import domain.world.World;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 class EntityBehaviourSystemTest {
 
@@ -88,7 +88,7 @@ class EntityBehaviourSystemTest {
         @Test
         @DisplayName("Should execute strategy if entity type is registered")
         void shouldExecuteStrategy() {
-            List<Integer> activeEntities = Collections.singletonList(ENTITY_ID);
+            IntList activeEntities = IntList.of(ENTITY_ID);
 
             system.update(activeEntities, 1f);
 
@@ -99,7 +99,7 @@ class EntityBehaviourSystemTest {
         @DisplayName("Should ignore entities with no registered strategy")
         void shouldIgnoreUnknownTypes() {
             when(mockEntity.getType()).thenReturn(EntityType.CHUNK); // Not registered in map
-            List<Integer> activeEntities = Collections.singletonList(ENTITY_ID);
+            IntList activeEntities = IntList.of(ENTITY_ID);
 
             system.update(activeEntities, 1f);
 
@@ -116,19 +116,11 @@ class EntityBehaviourSystemTest {
         private Chunk chunkA;
         @Mock
         private Chunk chunkB;
-        @Mock
-        private Set<Integer> chunkAEntities;
-        @Mock
-        private Set<Integer> chunkBEntities;
 
         @BeforeEach
         void setupSystem() {
             nestedCloseable = MockitoAnnotations.openMocks(this);
             system = new EntityBehaviourSystem(new HashMap<>(), storage, world);
-
-            // Setup Chunk sets
-            when(chunkA.getEntityIds()).thenReturn(chunkAEntities);
-            when(chunkB.getEntityIds()).thenReturn(chunkBEntities);
         }
 
         @Test
@@ -139,17 +131,17 @@ class EntityBehaviourSystemTest {
 
             when(mockEntity.getPosition()).thenReturn(startPos);
 
-            system.updateCache(Collections.singletonList(ENTITY_ID));
+            system.updateCache(IntList.of(ENTITY_ID));
 
             when(mockEntity.getPosition()).thenReturn(endPos);
 
-            when(world.getChunkFromWorldPos(refEq(startPos))).thenReturn(chunkA);
-            when(world.getChunkFromWorldPos(refEq(endPos))).thenReturn(chunkB);
+            when(world.getChunk(ChunkKey.fromWorldPosition(startPos))).thenReturn(chunkA);
+            when(world.getChunk(ChunkKey.fromWorldPosition(endPos))).thenReturn(chunkB);
 
-            system.unloadCache(Collections.singletonList(ENTITY_ID));
+            system.unloadCache(IntList.of(ENTITY_ID));
 
-            verify(chunkAEntities).remove(ENTITY_ID);
-            verify(chunkBEntities).add(ENTITY_ID);
+            verify(chunkA).removeEntity(ENTITY_ID);
+            verify(chunkB).addEntity(ENTITY_ID);
         }
 
         @Test
@@ -158,14 +150,14 @@ class EntityBehaviourSystemTest {
             GamePosition startPos = new GamePosition(0, 0, 0);
             when(mockEntity.getPosition()).thenReturn(startPos);
 
-            system.updateCache(Collections.singletonList(ENTITY_ID));
+            system.updateCache(IntList.of(ENTITY_ID));
 
-            when(world.getChunkFromWorldPos(any())).thenReturn(chunkA);
+            when(world.getChunk(anyLong())).thenReturn(chunkA);
 
-            system.unloadCache(Collections.singletonList(ENTITY_ID));
+            system.unloadCache(IntList.of(ENTITY_ID));
 
-            verify(chunkAEntities, never()).remove(any());
-            verify(chunkBEntities, never()).add(any());
+            verify(chunkA, never()).removeEntity(anyInt());
+            verify(chunkB, never()).addEntity(anyInt());
         }
 
         @AfterEach
@@ -2,8 +2,12 @@ package application.game_features.update_world;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -12,22 +16,30 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import application.game_features.generate_chunk.ChunkGenerationPipeline;
 import application.game_features.generate_chunk.GenerateChunkInputBoundary;
 import application.game_features.generate_chunk.GenerateChunkInputData;
 import application.game_features.generate_chunk.GenerateChunkOutputData;
 import application.game_features.populate_chunk.PopulateChunkInputBoundary;
-import application.game_features.populate_chunk.PopulateChunkInputData;
 import application.game_features.render_radius.RenderRadiusManagerInputBoundary;
 import application.game_features.render_radius.RenderRadiusManagerInputData;
 import application.game_features.render_radius.RenderRadiusOutputData;
+import application.gateways.ChunkRepository;
+import domain.collections.IntList;
 import domain.player.Player;
 import domain.world.Chunk;
+import domain.world.ChunkKey;
 import domain.world.GamePosition;
 import domain.world.World;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Unit test for UpdateWorldInteractor.
@@ -36,6 +48,7 @@ class UpdateWorldInteractorTest {
     private RenderRadiusManagerInputBoundary renderRadiusManager;
     private GenerateChunkInputBoundary chunkGenerator;
     private PopulateChunkInputBoundary chunkPopulator;
+    private ChunkRepository chunkRepository;
     private World world;
     private Player player;
 
@@ -46,6 +59,8 @@ class UpdateWorldInteractorTest {
         renderRadiusManager = mock(RenderRadiusManagerInputBoundary.class);
         chunkGenerator = mock(GenerateChunkInputBoundary.class);
         chunkPopulator = mock(PopulateChunkInputBoundary.class);
+        chunkRepository = mock(ChunkRepository.class);
+        when(chunkRepository.findByPosition(any())).thenReturn(Optional.empty());
         world = mock(World.class);
         player = mock(Player.class);
 
@@ -53,6 +68,7 @@ class UpdateWorldInteractorTest {
             renderRadiusManager,
             chunkGenerator,
             chunkPopulator,
+            chunkRepository,
             world,
             player
         );
@@ -71,10 +87,10 @@ class UpdateWorldInteractorTest {
 
             when(player.getPosition()).thenReturn(playerPos);
 
-            GamePosition posToGenerate = mock(GamePosition.class);
-            GamePosition posToLoad = mock(GamePosition.class);
-            GamePosition posToUnload = mock(GamePosition.class);
-            GamePosition posToUpdate = mock(GamePosition.class);
+            GamePosition posToGenerate = new GamePosition(1, 0, 0);
+            GamePosition posToLoad = new GamePosition(2, 0, 0);
+            GamePosition posToUnload = new GamePosition(3, 0, 0);
+            GamePosition posToUpdate = new GamePosition(4, 0, 0);
 
             Set<GamePosition> generateList = Collections.singleton(posToGenerate);
             Set<GamePosition> loadList = Collections.singleton(posToLoad);
@@ -90,8 +106,13 @@ class UpdateWorldInteractorTest {
             when(renderRadiusManager.execute(any(RenderRadiusManagerInputData.class)))
                 .thenReturn(mockRadiusOutput);
 
-            List<Integer> activeEntities = Arrays.asList(1, 2, 3);
-            when(world.getEntitiesInChunks(updateList)).thenReturn(activeEntities);
+            doAnswer(invocation -> {
+                IntList out = invocation.getArgument(1);
+                out.add(1);
+                out.add(2);
+                out.add(3);
+                return null;
+            }).when(world).collectEntitiesInChunks(eq(updateList), any(IntList.class));
 
             int worldDepth = 10;
             when(world.getWorldDepthChunks()).thenReturn(worldDepth);
@@ -102,27 +123,29 @@ class UpdateWorldInteractorTest {
 
             Chunk chunkToLoad = mock(Chunk.class);
             Chunk chunkToUnload = mock(Chunk.class);
-            when(world.getChunk(posToLoad)).thenReturn(chunkToLoad);
-            when(world.getChunk(posToUnload)).thenReturn(chunkToUnload);
+            when(world.getChunk(ChunkKey.of(posToLoad))).thenReturn(chunkToLoad);
+            when(world.getChunk(ChunkKey.of(posToUnload))).thenReturn(chunkToUnload);
 
             UpdateWorldOutputData result = interactor.execute(inputData);
 
             verify(player).getPosition();
             verify(renderRadiusManager).execute(any(RenderRadiusManagerInputData.class));
-            assertEquals(activeEntities, result.getActiveEntities());
+            assertEquals(IntList.of(1, 2, 3), result.getActiveEntities());
 
             // Should call generator
             verify(chunkGenerator).execute(any(GenerateChunkInputData.class));
+            // Should store the generated chunk
+            verify(chunkRepository).save(generatedChunk);
             // Should add chunk to world
             verify(world).addChunk(posToGenerate, generatedChunk);
             // Should populate chunk
-            verify(chunkPopulator).execute(any(PopulateChunkInputData.class));
+            verify(chunkPopulator).commit(any());
 
-            verify(world).getChunk(posToLoad);
+            verify(world).getChunk(ChunkKey.of(posToLoad));
             assertNotNull(result.getChunksToLoad());
             assertEquals(chunkToLoad, result.getChunksToLoad().get(posToLoad));
 
-            verify(world).getChunk(posToUnload);
+            verify(world).getChunk(ChunkKey.of(posToUnload));
             assertNotNull(result.getChunksToUnload());
             assertEquals(chunkToUnload, result.getChunksToUnload().get(posToUnload));
         }
@@ -143,8 +166,6 @@ class UpdateWorldInteractorTest {
             when(renderRadiusManager.execute(any(RenderRadiusManagerInputData.class)))
                 .thenReturn(mockRadiusOutput);
 
-            when(world.getEntitiesInChunks(any())).thenReturn(Collections.emptyList());
-
             UpdateWorldOutputData result = interactor.execute(new UpdateWorldInputData(5));
 
             assertEquals(0, result.getChunksToLoad().size());
@@ -154,5 +175,111 @@ class UpdateWorldInteractorTest {
             // Verify generator was never called because list was empty
             verify(chunkGenerator, org.mockito.Mockito.never()).execute(any());
         }
+
+        @Test
+        @DisplayName("Execute should load stored chunks instead of generating them")
+        void shouldPreferStoredChunks() {
+            when(player.getPosition()).thenReturn(mock(GamePosition.class));
+
+            GamePosition posToGenerate = new GamePosition(1, 0, 0);
+            RenderRadiusOutputData mockRadiusOutput = mock(RenderRadiusOutputData.class);
+            when(mockRadiusOutput.getChunksToGenerate()).thenReturn(Collections.singleton(posToGenerate));
+            when(mockRadiusOutput.getChunksToLoad()).thenReturn(Collections.emptySet());
+            when(mockRadiusOutput.getChunksToUnload()).thenReturn(Collections.emptySet());
+            when(mockRadiusOutput.getChunksToUpdate()).thenReturn(Collections.emptySet());
+            when(renderRadiusManager.execute(any(RenderRadiusManagerInputData.class)))
+                .thenReturn(mockRadiusOutput);
+
+            Chunk storedChunk = mock(Chunk.class);
+            when(chunkRepository.findByPosition(posToGenerate)).thenReturn(Optional.of(storedChunk));
+
+            interactor.execute(new UpdateWorldInputData(5));
+
+            verify(chunkGenerator, never()).execute(any());
+            verify(chunkRepository, never()).save(any());
+            verify(world).addChunk(posToGenerate, storedChunk);
+            // Entities are not stored, so stored chunks are populated again
+            verify(chunkPopulator).commit(any());
+        }
+
+        @Test
+        @DisplayName("Execute should not populate chunks returning after eviction")
+        void shouldNotRepopulateEvictedChunks() {
+            when(player.getPosition()).thenReturn(mock(GamePosition.class));
+
+            GamePosition posToGenerate = new GamePosition(1, 0, 0);
+            RenderRadiusOutputData mockRadiusOutput = mock(RenderRadiusOutputData.class);
+            when(mockRadiusOutput.getChunksToGenerate()).thenReturn(Collections.singleton(posToGenerate));
+            when(mockRadiusOutput.getChunksToLoad()).thenReturn(Collections.emptySet());
+            when(mockRadiusOutput.getChunksToUnload()).thenReturn(Collections.emptySet());
+            when(mockRadiusOutput.getChunksToUpdate()).thenReturn(Collections.emptySet());
+            when(renderRadiusManager.execute(any(RenderRadiusManagerInputData.class)))
+                .thenReturn(mockRadiusOutput);
+
+            Chunk storedChunk = mock(Chunk.class);
+            when(chunkRepository.findByPosition(posToGenerate)).thenReturn(Optional.of(storedChunk));
+            when(world.wasEvicted(ChunkKey.of(posToGenerate))).thenReturn(true);
+
+            interactor.execute(new UpdateWorldInputData(5));
+
+            verify(world).addChunk(posToGenerate, storedChunk);
+            verify(chunkPopulator, never()).commit(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Waiting Around The Player")
+    class PlayerChunkTests {
+
+        @Test
+        @DisplayName("Execute should not wait for chunks above or below the player")
+        void shouldOnlyWaitForHorizontalNeighbours() {
+            CountDownLatch release = new CountDownLatch(1);
+            GenerateChunkInputBoundary generator = inputData -> {
+                GamePosition pos = inputData.getPosition();
+                if (pos.y != 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new GenerateChunkOutputData(new Chunk(pos));
+            };
+            // One thread per chunk, so the blocked chunks cannot hold up the others
+            ExecutorService workers = Executors.newCachedThreadPool();
+            try {
+                ChunkGenerationPipeline pipeline = new ChunkGenerationPipeline(
+                    generator, chunkRepository, workers, Integer.MAX_VALUE);
+                UpdateWorldInteractor pipelined = new UpdateWorldInteractor(
+                    renderRadiusManager, pipeline, chunkPopulator, world, player, 0L);
+
+                when(player.getPosition()).thenReturn(new GamePosition(8, 8, 8));
+                Set<GamePosition> generateList = new HashSet<>(Arrays.asList(
+                    new GamePosition(0, 0, 0),
+                    new GamePosition(-1, 0, 0),
+                    new GamePosition(1, 0, 0),
+                    new GamePosition(0, 0, -1),
+                    new GamePosition(0, 0, 1),
+                    new GamePosition(0, 1, 0),
+                    new GamePosition(0, -1, 0)
+                ));
+                RenderRadiusOutputData mockRadiusOutput = mock(RenderRadiusOutputData.class);
+                when(mockRadiusOutput.getChunksToGenerate()).thenReturn(generateList);
+                when(renderRadiusManager.execute(any(RenderRadiusManagerInputData.class)))
+                    .thenReturn(mockRadiusOutput);
+
+                assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> pipelined.execute(new UpdateWorldInputData(5)));
+
+                verify(world).addChunk(eq(new GamePosition(0, 0, 0)), any(Chunk.class));
+                verify(world).addChunk(eq(new GamePosition(1, 0, 0)), any(Chunk.class));
+                verify(world).addChunk(eq(new GamePosition(0, 0, 1)), any(Chunk.class));
+                verify(world, never()).addChunk(eq(new GamePosition(0, 1, 0)), any(Chunk.class));
+            } finally {
+                release.countDown();
+                workers.shutdownNow();
+            }
+        }
     }
 }
@@ -5,25 +5,33 @@ import domain.entities.Entity;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 public class MockEntityStorage implements EntityStorage {
     Map<Integer, Entity> entities = new HashMap<>();
 
     @Override
-    public Entity getEntityByID(Integer id) {
+    public Entity getEntityByID(int id) {
         return entities.getOrDefault(id, null);
     }
 
     @Override
-    public void setIDEntityPair(Integer id, Entity e) {
+    public void setIDEntityPair(int id, Entity e) {
         entities.put(id, e);
     }
 
     @Override
-    public void removeEntity(Integer id) {
+    public void removeEntity(int id) {
         entities.remove(id);
     }
 
+    @Override
+    public void forEachEntity(IntConsumer consumer) {
+        for (int id : entities.keySet()) {
+            consumer.accept(id);
+        }
+    }
+
     @Override
     public Set<Integer> getAllIds() {
         return entities.keySet();
@@ -0,0 +1,80 @@
+package domain.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class IntSetTest {
+    private IntSet set;
+
+    @BeforeEach
+    void setUp() {
+        set = new IntSet();
+    }
+
+    @Test
+    @DisplayName("Add, contain and remove a single id")
+    void shouldAddAndRemove() {
+        assertTrue(set.add(7));
+        assertFalse(set.add(7), "Adding twice should not change the set");
+        assertTrue(set.contains(7));
+        assertEquals(1, set.size());
+
+        assertTrue(set.remove(7));
+        assertFalse(set.remove(7));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Random operations match java.util.HashSet")
+    void shouldMatchHashSet() {
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 20000; i++) {
+            // A small id range forces collisions, removals in the middle of probe chains and regrowth
+            int id = random.nextInt(300) - 150;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(id), set.add(id));
+            } else {
+                assertEquals(expected.remove(id), set.remove(id));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+
+        for (int id = -150; id < 150; id++) {
+            assertEquals(expected.contains(id), set.contains(id), "Mismatch for id " + id);
+        }
+
+        IntList collected = new IntList();
+        set.addAllTo(collected);
+        assertEquals(expected.size(), collected.size());
+        for (int i = 0; i < collected.size(); i++) {
+            assertTrue(expected.contains(collected.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("forEach visits every id exactly once")
+    void shouldVisitEveryId() {
+        for (int id = 0; id < 100; id++) {
+            set.add(id * 31);
+        }
+
+        IntList visited = new IntList();
+        set.forEach(visited::add);
+
+        assertEquals(100, visited.size());
+        Set<Integer> unique = new HashSet<>();
+        visited.forEach(unique::add);
+        assertEquals(100, unique.size());
+    }
+}
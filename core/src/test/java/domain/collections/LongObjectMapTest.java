@@ -0,0 +1,64 @@
+package domain.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class LongObjectMapTest {
+    private LongObjectMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new LongObjectMap<>(4);
+    }
+
+    @Test
+    @DisplayName("Put, get and remove a single key")
+    void shouldStoreAndRemove() {
+        assertNull(map.put(42L, "a"));
+        assertEquals("a", map.get(42L));
+        assertEquals("a", map.put(42L, "b"), "Put should return the replaced value");
+        assertEquals(1, map.size());
+
+        assertEquals("b", map.remove(42L));
+        assertFalse(map.containsKey(42L));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Random operations match java.util.HashMap")
+    void shouldMatchHashMap() {
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20000; i++) {
+            // A small key range forces collisions, removals in the middle of probe chains and regrowth
+            long key = random.nextInt(500) - 250;
+            if (random.nextBoolean()) {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        int iterated = 0;
+        for (String ignored : map.values()) {
+            iterated++;
+        }
+        assertEquals(expected.size(), iterated, "Values view should visit every entry");
+    }
+}
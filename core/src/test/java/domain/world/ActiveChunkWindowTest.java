@@ -0,0 +1,109 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import domain.collections.LongObjectMap;
+import java.util.Random;
+
+class ActiveChunkWindowTest {
+
+    @Test
+    @DisplayName("Window only covers the box around its centre")
+    void shouldCoverBoxAroundCentre() {
+        ActiveChunkWindow window = new ActiveChunkWindow(8, 4, 8);
+        assertFalse(window.contains(0, 0, 0), "An inactive window covers nothing");
+
+        window.recentre(10, 2, -3, new LongObjectMap<>());
+        assertTrue(window.contains(6, 0, -7));
+        assertTrue(window.contains(13, 3, 0));
+        assertFalse(window.contains(5, 0, -7));
+        assertFalse(window.contains(14, 0, 0));
+        assertFalse(window.contains(10, 4, 0));
+        assertFalse(window.contains(10, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Sizes must be powers of two")
+    void shouldRejectOtherSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new ActiveChunkWindow(6, 4, 8));
+    }
+
+    @Test
+    @DisplayName("Incremental recentring matches the chunk map")
+    void shouldMatchMapAfterMoves() {
+        ActiveChunkWindow window = new ActiveChunkWindow(8, 4, 8);
+        LongObjectMap<Chunk> chunks = new LongObjectMap<>();
+        Random random = new Random(5);
+        int centreX = 0;
+        int centreY = 1;
+        int centreZ = 0;
+        window.recentre(centreX, centreY, centreZ, chunks);
+
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(4);
+            int x = centreX + random.nextInt(16) - 8;
+            int y = random.nextInt(6) - 1;
+            int z = centreZ + random.nextInt(16) - 8;
+            long key = ChunkKey.pack(x, y, z);
+            if (action == 0) {
+                Chunk chunk = new Chunk(x, y, z);
+                chunks.put(key, chunk);
+                window.put(x, y, z, chunk);
+            } else if (action == 1) {
+                chunks.remove(key);
+                window.remove(x, y, z);
+            } else {
+                // Mostly small steps, sometimes a jump further than the window
+                int jump = random.nextInt(10) == 0 ? 20 : 2;
+                centreX += random.nextInt(2 * jump + 1) - jump;
+                centreY = random.nextInt(3);
+                centreZ += random.nextInt(2 * jump + 1) - jump;
+                window.recentre(centreX, centreY, centreZ, chunks);
+            }
+
+            for (int wx = centreX - 4; wx < centreX + 4; wx++) {
+                for (int wy = centreY - 2; wy < centreY + 2; wy++) {
+                    for (int wz = centreZ - 4; wz < centreZ + 4; wz++) {
+                        assertTrue(window.contains(wx, wy, wz));
+                        assertSame(chunks.get(ChunkKey.pack(wx, wy, wz)), window.get(wx, wy, wz),
+                            "Mismatch at " + wx + ", " + wy + ", " + wz + " on step " + step);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("World lookups agree inside and outside the window")
+    void shouldServeWorldLookups() {
+        World world = new World();
+        Chunk inside = new Chunk(1, 0, 1);
+        Chunk outside = new Chunk(100, 0, 1);
+        world.addChunk(new GamePosition(1, 0, 1), inside);
+        world.addChunk(new GamePosition(100, 0, 1), outside);
+
+        world.recentreActiveWindow(0, 2, 0);
+        assertSame(inside, world.getChunk(1, 0, 1));
+        assertSame(outside, world.getChunk(100, 0, 1));
+
+        Chunk added = new Chunk(2, 1, -3);
+        world.addChunk(new GamePosition(2, 1, -3), added);
+        assertSame(added, world.getChunk(ChunkKey.pack(2, 1, -3)));
+        assertEquals(World.UNLOADED_BLOCK_ID, world.getBlock(-16, 0, 0));
+
+        world.evictChunk(ChunkKey.pack(1, 0, 1));
+        assertNull(world.getChunk(1, 0, 1), "Evicted chunks should leave the window");
+
+        world.recentreActiveWindow(100, 2, 0);
+        assertSame(outside, world.getChunk(100, 0, 1));
+        assertSame(added, world.getChunk(2, 1, -3));
+    }
+}
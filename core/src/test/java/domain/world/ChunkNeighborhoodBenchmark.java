@@ -0,0 +1,118 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the six face neighbour checks done by the mesher through World.getBlock and ChunkNeighborhood.
+ * Run with ./gradlew :core:benchmark
+ */
+@Tag("benchmark")
+class ChunkNeighborhoodBenchmark {
+    private static final int RADIUS = 3;
+    private static final int ROUNDS = 50;
+    private static final Block STONE = new Block((short) 3, "STONE", true, false);
+
+    private static World createWorld() {
+        World world = new World();
+        for (int x = -RADIUS - 1; x <= RADIUS + 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -RADIUS - 1; z <= RADIUS + 1; z++) {
+                    Chunk chunk = new Chunk(x, y, z);
+                    for (int bx = 0; bx < Chunk.CHUNK_SIZE; bx++) {
+                        for (int bz = 0; bz < Chunk.CHUNK_SIZE; bz++) {
+                            chunk.fillColumn(bx, bz, 0, (bx * 3 + bz * 5 + x + z) & 15, STONE);
+                        }
+                    }
+                    world.addChunk(chunk.getPosition(), chunk);
+                }
+            }
+        }
+        return world;
+    }
+
+    private static long countExposedWithWorld(World world, Chunk chunk) {
+        long faces = 0;
+        int baseX = chunk.getChunkWorldX();
+        int baseY = chunk.getChunkWorldY();
+        int baseZ = chunk.getChunkWorldZ();
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                    int wx = baseX + x;
+                    int wy = baseY + y;
+                    int wz = baseZ + z;
+                    if (world.getBlock(wx, wy, wz) == 0) continue;
+                    if (world.getBlock(wx, wy + 1, wz) == 0) faces++;
+                    if (world.getBlock(wx, wy - 1, wz) == 0) faces++;
+                    if (world.getBlock(wx, wy, wz + 1) == 0) faces++;
+                    if (world.getBlock(wx, wy, wz - 1) == 0) faces++;
+                    if (world.getBlock(wx + 1, wy, wz) == 0) faces++;
+                    if (world.getBlock(wx - 1, wy, wz) == 0) faces++;
+                }
+            }
+        }
+        return faces;
+    }
+
+    private static long countExposedWithNeighborhood(World world, Chunk chunk, ChunkNeighborhood neighborhood) {
+        neighborhood.load(world, chunk);
+        long faces = 0;
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                int columnStart = ChunkNeighborhood.index(x, 0, z);
+                for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                    int i = columnStart + y;
+                    if (neighborhood.getBlock(i) == 0) continue;
+                    if (neighborhood.getBlock(i + ChunkNeighborhood.Y_STRIDE) == 0) faces++;
+                    if (neighborhood.getBlock(i - ChunkNeighborhood.Y_STRIDE) == 0) faces++;
+                    if (neighborhood.getBlock(i + ChunkNeighborhood.Z_STRIDE) == 0) faces++;
+                    if (neighborhood.getBlock(i - ChunkNeighborhood.Z_STRIDE) == 0) faces++;
+                    if (neighborhood.getBlock(i + ChunkNeighborhood.X_STRIDE) == 0) faces++;
+                    if (neighborhood.getBlock(i - ChunkNeighborhood.X_STRIDE) == 0) faces++;
+                }
+            }
+        }
+        return faces;
+    }
+
+    @Test
+    @DisplayName("Neighbourhood face checks agree with world lookups")
+    void compareNeighbourLookups() {
+        World world = createWorld();
+        ChunkNeighborhood neighborhood = new ChunkNeighborhood();
+        int chunks = (2 * RADIUS + 1) * (2 * RADIUS + 1);
+        long worldFaces = 0;
+        long neighborhoodFaces = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            worldFaces = 0;
+            for (int x = -RADIUS; x <= RADIUS; x++) {
+                for (int z = -RADIUS; z <= RADIUS; z++) {
+                    worldFaces += countExposedWithWorld(world, world.getChunk(x, 0, z));
+                }
+            }
+            long worldNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            neighborhoodFaces = 0;
+            for (int x = -RADIUS; x <= RADIUS; x++) {
+                for (int z = -RADIUS; z <= RADIUS; z++) {
+                    neighborhoodFaces += countExposedWithNeighborhood(world, world.getChunk(x, 0, z), neighborhood);
+                }
+            }
+            long neighborhoodNanos = System.nanoTime() - start;
+
+            if (round == ROUNDS - 1) {
+                System.out.printf("%-28s %10.1f ns/chunk%n", "world.getBlock", (double) worldNanos / chunks);
+                System.out.printf("%-28s %10.1f ns/chunk%n", "neighbourhood", (double) neighborhoodNanos / chunks);
+            }
+        }
+
+        assertEquals(worldFaces, neighborhoodFaces, "Both lookups should find the same exposed faces");
+    }
+}
@@ -0,0 +1,94 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChunkNeighborhoodTest {
+    private World world;
+    private ChunkNeighborhood neighborhood;
+
+    @BeforeEach
+    void setUp() {
+        world = new World();
+        neighborhood = new ChunkNeighborhood();
+    }
+
+    private void addPatternedChunk(int chunkX, int chunkY, int chunkZ) {
+        Chunk chunk = new Chunk(chunkX, chunkY, chunkZ);
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                    short id = (short) ((x * 7 + y * 3 + z + chunkX * 11 + chunkY * 13 + chunkZ * 17) & 31);
+                    chunk.setBlock(x, y, z, new Block(id, "TEST", true, false));
+                }
+            }
+        }
+        world.addChunk(chunk.getPosition(), chunk);
+    }
+
+    private void assertMatchesWorld(int chunkX, int chunkY, int chunkZ) {
+        for (int x = ChunkNeighborhood.MIN; x <= ChunkNeighborhood.MAX; x++) {
+            for (int y = ChunkNeighborhood.MIN; y <= ChunkNeighborhood.MAX; y++) {
+                for (int z = ChunkNeighborhood.MIN; z <= ChunkNeighborhood.MAX; z++) {
+                    short expected = world.getBlock(
+                        chunkX * Chunk.CHUNK_SIZE + x,
+                        chunkY * Chunk.CHUNK_SIZE + y,
+                        chunkZ * Chunk.CHUNK_SIZE + z);
+                    assertEquals(expected, neighborhood.getBlock(x, y, z),
+                        "Mismatch at local " + x + ", " + y + ", " + z);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Every local coordinate matches the world lookup when all neighbours are loaded")
+    void shouldMatchWorldWithAllNeighbours() {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    addPatternedChunk(-1 + dx, dy, 2 + dz);
+                }
+            }
+        }
+
+        neighborhood.load(world, -1, 0, 2);
+
+        assertMatchesWorld(-1, 0, 2);
+    }
+
+    @Test
+    @DisplayName("Missing neighbours read as unloaded blocks")
+    void shouldFallBackForMissingNeighbours() {
+        addPatternedChunk(0, 0, 0);
+        addPatternedChunk(1, 0, 0);
+
+        neighborhood.load(world, 0, 0, 0);
+
+        assertMatchesWorld(0, 0, 0);
+        assertEquals(World.UNLOADED_BLOCK_ID, neighborhood.getBlock(-1, 5, 5));
+    }
+
+    @Test
+    @DisplayName("Reloading replaces the previous chunk")
+    void shouldReuseBetweenLoads() {
+        addPatternedChunk(0, 0, 0);
+        addPatternedChunk(5, 0, 0);
+
+        neighborhood.load(world, 0, 0, 0);
+        neighborhood.load(world, 5, 0, 0);
+
+        assertMatchesWorld(5, 0, 0);
+        assertEquals(5, neighborhood.getCentre().getChunkX());
+    }
+
+    @Test
+    @DisplayName("Loading an absent chunk is rejected")
+    void shouldRejectMissingCentre() {
+        assertThrows(IllegalArgumentException.class, () -> neighborhood.load(world, 3, 3, 3));
+    }
+}
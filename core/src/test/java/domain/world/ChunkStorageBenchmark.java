@@ -0,0 +1,119 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares chunk block storage against the original jagged short[16][16][16] layout.
+ * Run with ./gradlew :core:benchmark
+ */
+@Tag("benchmark")
+class ChunkStorageBenchmark {
+    private static final int CHUNKS = 2000;
+    private static final int ROUNDS = 5;
+    private static final Block STONE = new Block((short) 3, "STONE", true, false);
+    private static final Block DIRT = new Block((short) 2, "DIRT", true, false);
+
+    // The layout Chunk used before it switched to indexed storage
+    private static final class JaggedBlocks {
+        private final short[][][] blocks = new short[Chunk.CHUNK_SIZE][Chunk.CHUNK_SIZE][Chunk.CHUNK_SIZE];
+
+        short get(int x, int y, int z) {
+            return blocks[x][y][z];
+        }
+
+        void set(int x, int y, int z, short id) {
+            blocks[x][y][z] = id;
+        }
+    }
+
+    private static long sumJagged(JaggedBlocks blocks) {
+        long sum = 0;
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                    sum += blocks.get(x, y, z);
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static long sumChunk(Chunk chunk, short[] scratch) {
+        chunk.copyBlocksTo(scratch);
+        long sum = 0;
+        for (int i = 0; i < Chunk.CHUNK_VOLUME; i++) {
+            sum += scratch[i];
+        }
+        return sum;
+    }
+
+    private static void report(String name, long nanos, int operations) {
+        System.out.printf("%-28s %10.1f ns/chunk%n", name, (double) nanos / operations);
+    }
+
+    @Test
+    @DisplayName("Chunk storage holds the same blocks as the jagged layout")
+    void compareLayouts() {
+        long jaggedSum = 0;
+        long chunkSum = 0;
+        short[] scratch = new short[Chunk.CHUNK_VOLUME];
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            JaggedBlocks[] jagged = new JaggedBlocks[CHUNKS];
+            for (int i = 0; i < CHUNKS; i++) {
+                jagged[i] = new JaggedBlocks();
+                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                        int height = (x + z + i) % Chunk.CHUNK_SIZE;
+                        for (int y = 0; y < height; y++) {
+                            jagged[i].set(x, y, z, y < height - 3 ? STONE.getId() : DIRT.getId());
+                        }
+                    }
+                }
+            }
+            long jaggedGenerate = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            jaggedSum = 0;
+            for (JaggedBlocks blocks : jagged) {
+                jaggedSum += sumJagged(blocks);
+            }
+            long jaggedScan = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Chunk[] chunks = new Chunk[CHUNKS];
+            for (int i = 0; i < CHUNKS; i++) {
+                chunks[i] = new Chunk(i, 0, 0);
+                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                        int height = (x + z + i) % Chunk.CHUNK_SIZE;
+                        chunks[i].fillColumn(x, z, 0, height - 3, STONE);
+                        chunks[i].fillColumn(x, z, height - 3, height, DIRT);
+                    }
+                }
+            }
+            long chunkGenerate = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            chunkSum = 0;
+            for (Chunk chunk : chunks) {
+                chunkSum += sumChunk(chunk, scratch);
+            }
+            long chunkScan = System.nanoTime() - start;
+
+            if (round == ROUNDS - 1) {
+                report("jagged generate", jaggedGenerate, CHUNKS);
+                report("chunk generate", chunkGenerate, CHUNKS);
+                report("jagged scan", jaggedScan, CHUNKS);
+                report("chunk scan", chunkScan, CHUNKS);
+            }
+        }
+
+        assertEquals(jaggedSum, chunkSum, "Both layouts should hold the same blocks");
+    }
+}
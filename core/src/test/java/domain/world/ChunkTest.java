@@ -0,0 +1,188 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChunkTest {
+    private static final Block AIR = new Block((short) 0, "AIR", false, true);
+    private static final Block DIRT = new Block((short) 2, "DIRT", true, false);
+    private static final Block STONE = new Block((short) 3, "STONE", true, false);
+
+    private Chunk chunk;
+
+    @BeforeEach
+    void setUp() {
+        chunk = new Chunk(0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Set blocks can be read back")
+    void shouldReadBackBlocks() {
+        chunk.setBlock(1, 2, 3, STONE);
+        chunk.setBlock(15, 15, 15, DIRT);
+
+        assertEquals(STONE.getId(), chunk.getBlock(1, 2, 3));
+        assertEquals(DIRT.getId(), chunk.getBlock(15, 15, 15));
+        assertEquals(AIR.getId(), chunk.getBlock(3, 2, 1), "Neighbouring index should be untouched");
+    }
+
+    @Test
+    @DisplayName("Fill column only touches the clamped range")
+    void shouldFillColumn() {
+        chunk.fillColumn(4, 7, -5, 3, STONE);
+        chunk.fillColumn(4, 7, 3, 40, DIRT);
+
+        assertEquals(STONE.getId(), chunk.getBlock(4, 0, 7));
+        assertEquals(STONE.getId(), chunk.getBlock(4, 2, 7));
+        assertEquals(DIRT.getId(), chunk.getBlock(4, 3, 7));
+        assertEquals(DIRT.getId(), chunk.getBlock(4, 15, 7));
+        assertEquals(AIR.getId(), chunk.getBlock(5, 0, 7), "Other columns should be untouched");
+    }
+
+    @Test
+    @DisplayName("Fill layer sets a single height")
+    void shouldFillLayer() {
+        chunk.fillLayer(5, STONE);
+
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                assertEquals(STONE.getId(), chunk.getBlock(x, 5, z));
+                assertEquals(AIR.getId(), chunk.getBlock(x, 4, z));
+                assertEquals(AIR.getId(), chunk.getBlock(x, 6, z));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Copy from duplicates every block")
+    void shouldCopyFromOtherChunk() {
+        Chunk other = new Chunk(1, 0, 0);
+        other.fill(DIRT);
+        other.setBlock(8, 8, 8, STONE);
+
+        chunk.copyFrom(other);
+
+        assertEquals(STONE.getId(), chunk.getBlock(8, 8, 8));
+        assertEquals(DIRT.getId(), chunk.getBlock(0, 0, 0));
+        assertEquals(DIRT.getId(), chunk.getBlock(15, 15, 15));
+    }
+
+    @Test
+    @DisplayName("New chunks are stored as a single value")
+    void shouldStartUniform() {
+        assertTrue(chunk.isUniform(), "Empty chunk should be uniform");
+
+        chunk.fillColumn(0, 0, 0, Chunk.CHUNK_SIZE, AIR);
+        assertTrue(chunk.isUniform(), "Writing the same block should not promote the chunk");
+    }
+
+    @Test
+    @DisplayName("First differing write promotes the chunk to a palette")
+    void shouldPromoteOnDifferentBlock() {
+        chunk.fill(STONE);
+        chunk.setBlock(3, 3, 3, AIR);
+
+        assertFalse(chunk.isUniform(), "Chunk should hold two block types");
+        assertEquals(AIR.getId(), chunk.getBlock(3, 3, 3));
+        assertEquals(STONE.getId(), chunk.getBlock(3, 3, 4));
+        assertTrue(chunk.estimateMemoryBytes() < Chunk.CHUNK_VOLUME * Short.BYTES,
+            "Two block types should pack tighter than one short per block");
+    }
+
+    @Test
+    @DisplayName("Palette grows as more block types are written")
+    void shouldGrowPalette() {
+        for (int i = 0; i < Chunk.CHUNK_VOLUME; i++) {
+            int x = i >> 8;
+            int z = (i >> 4) & 15;
+            int y = i & 15;
+            chunk.setBlock(x, y, z, new Block((short) (i % 300), "TEST", true, false));
+        }
+
+        for (int i = 0; i < Chunk.CHUNK_VOLUME; i++) {
+            assertEquals(i % 300, chunk.getBlock(i >> 8, i & 15, (i >> 4) & 15));
+        }
+    }
+
+    @Test
+    @DisplayName("Compact collapses a chunk that became uniform")
+    void shouldCompactBackToUniform() {
+        chunk.setBlock(1, 1, 1, STONE);
+        chunk.setBlock(1, 1, 1, AIR);
+        assertFalse(chunk.isUniform());
+
+        chunk.compact();
+
+        assertTrue(chunk.isUniform(), "Only AIR is left so the chunk should be uniform again");
+        assertEquals(AIR.getId(), chunk.getBlock(1, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Hibernated chunks thaw transparently on access")
+    void shouldThawAfterHibernate() {
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                chunk.setHeight(x, x + z, z);
+                chunk.fillColumn(x, z, 0, (x + z) & 15, STONE);
+            }
+        }
+        long residentBytes = chunk.estimateMemoryBytes();
+
+        assertTrue(chunk.hibernate());
+        assertTrue(chunk.isHibernated());
+        assertTrue(chunk.estimateMemoryBytes() < residentBytes, "Hibernated chunk should be smaller");
+
+        assertEquals(STONE.getId(), chunk.getBlock(3, 2, 4));
+        assertFalse(chunk.isHibernated(), "Reading a block should thaw the chunk");
+        assertEquals(AIR.getId(), chunk.getBlock(3, 7, 4));
+        assertEquals(7, chunk.getHeight(3, 4));
+        assertEquals(30, chunk.getMaxBlockHeight());
+    }
+
+    @Test
+    @DisplayName("Uniform chunks without heights are not hibernated")
+    void shouldSkipHibernatingEmptyChunks() {
+        assertFalse(chunk.hibernate());
+        assertFalse(chunk.isHibernated());
+    }
+
+    @Test
+    @DisplayName("Snapshots keep their blocks while the chunk is written")
+    void shouldCopyOnWriteAfterSnapshot() {
+        chunk.setBlock(1, 1, 1, STONE);
+        long before = chunk.getVersion();
+        ChunkSnapshot snapshot = chunk.snapshot();
+        assertEquals(before, snapshot.getVersion());
+
+        chunk.setBlock(1, 1, 1, DIRT);
+        chunk.fillColumn(2, 2, 0, 16, STONE);
+
+        assertTrue(chunk.getVersion() > before, "Writes should move the version on");
+        assertEquals(DIRT.getId(), chunk.getBlock(1, 1, 1));
+        assertEquals(STONE.getId(), snapshot.getBlock(1, 1, 1), "The snapshot should not see later writes");
+        assertEquals(AIR.getId(), snapshot.getBlock(2, 5, 2));
+
+        ChunkSnapshot second = chunk.snapshot();
+        chunk.fill(AIR);
+        assertEquals(STONE.getId(), second.getBlock(2, 5, 2));
+        assertEquals(AIR.getId(), chunk.getBlock(2, 5, 2));
+    }
+
+    @Test
+    @DisplayName("Reads do not move the version on")
+    void shouldKeepVersionOnReads() {
+        chunk.setBlock(3, 3, 3, STONE);
+        long version = chunk.getVersion();
+
+        chunk.getBlock(3, 3, 3);
+        chunk.snapshot();
+        chunk.compact();
+
+        assertEquals(version, chunk.getVersion());
+    }
+}
@@ -0,0 +1,84 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import domain.entities.EntityType;
+import java.util.ArrayList;
+import java.util.List;
+
+class StructurePlacementTest {
+    private static final Block AIR = new Block((short) 0, "AIR", false, true);
+    private static final Block STONE = new Block((short) 3, "STONE", true, false);
+
+    // A 4x2x3 slab of stone with a pillar in one corner and a spawn point at either end
+    private static final Structure SLAB = new Structure.StructureBuilder("slab", 4, 2, 3)
+        .box(0, 0, 0, 3, 0, 2, STONE)
+        .block(0, 1, 0, STONE)
+        .spawn(0, 1, 2, EntityType.ZOMBIE)
+        .spawn(3, 1, 1, EntityType.PICKUP)
+        .build();
+
+    @Test
+    @DisplayName("A placement across a chunk border is stamped half by each chunk")
+    void shouldStampOnlyInsideTheChunk() {
+        StructurePlacement placement = new StructurePlacement(SLAB, 14, 1, 5);
+        Chunk left = new Chunk(0, 0, 0);
+        Chunk right = new Chunk(1, 0, 0);
+        assertTrue(placement.intersectsChunk(0, 0, 0));
+        assertTrue(placement.intersectsChunk(1, 0, 0));
+        assertFalse(placement.intersectsChunk(2, 0, 0));
+        assertFalse(placement.intersectsChunk(0, 0, 1));
+
+        placement.stamp(left);
+        placement.stamp(right);
+
+        assertEquals(STONE.getId(), left.getBlock(14, 1, 5));
+        assertEquals(STONE.getId(), left.getBlock(14, 2, 5), "The pillar is in the left chunk");
+        assertEquals(STONE.getId(), left.getBlock(15, 1, 7));
+        assertEquals(STONE.getId(), right.getBlock(0, 1, 5));
+        assertEquals(STONE.getId(), right.getBlock(1, 1, 7));
+        assertEquals(AIR.getId(), right.getBlock(2, 1, 5), "Nothing past the structure");
+        assertEquals(AIR.getId(), right.getBlock(0, 2, 5), "Empty cells keep the terrain");
+    }
+
+    @Test
+    @DisplayName("Every spawn point is reported by exactly one chunk")
+    void shouldReportSpawnsOnce() {
+        StructurePlacement placement = new StructurePlacement(SLAB, 14, 1, 5);
+        List<GamePosition> left = new ArrayList<>();
+        List<GamePosition> right = new ArrayList<>();
+        placement.forEachSpawnIn(0, 0, 0, (spawn, pos) -> left.add(pos));
+        placement.forEachSpawnIn(1, 0, 0, (spawn, pos) -> right.add(pos));
+
+        assertEquals(1, left.size());
+        assertEquals(new GamePosition(14, 2, 7), left.get(0));
+        assertEquals(1, right.size());
+        assertEquals(new GamePosition(17, 2, 6), right.get(0));
+    }
+
+    @Test
+    @DisplayName("Mirrored templates face the other way")
+    void shouldMirrorAlongZ() {
+        Structure mirrored = SLAB.mirrorZ();
+
+        assertEquals(STONE, mirrored.getBlock(0, 1, 2));
+        assertNull(mirrored.getBlock(0, 1, 0));
+        assertEquals(0, mirrored.getSpawnPoints().get(0).getZ());
+        assertEquals(1, mirrored.getSpawnPoints().get(1).getZ());
+    }
+
+    @Test
+    @DisplayName("Blocks outside the template are rejected")
+    void shouldRejectBlocksOutsideTheTemplate() {
+        Structure.StructureBuilder builder = new Structure.StructureBuilder("small", 2, 2, 2);
+        assertThrows(IllegalArgumentException.class, () -> builder.block(2, 0, 0, STONE));
+        assertThrows(IllegalArgumentException.class, () -> builder.spawn(0, -1, 0, EntityType.ZOMBIE));
+    }
+}
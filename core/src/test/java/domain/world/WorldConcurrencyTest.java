@@ -0,0 +1,201 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Stress tests for the threading contract documented on World.
+ */
+class WorldConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int CHUNKS_PER_WRITER = 400;
+
+    private World world;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        world = new World();
+        executor = Executors.newFixedThreadPool(WRITERS + READERS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Every block of a test chunk encodes its chunk coordinates, so readers can spot a partly built chunk
+    private static short expectedBlock(int chunkX, int chunkZ, int y) {
+        return (short) (1 + ((chunkX * 31 + chunkZ * 17 + y) & 0xff));
+    }
+
+    private static Chunk buildChunk(int chunkX, int chunkZ) {
+        Chunk chunk = new Chunk(chunkX, 0, chunkZ);
+        for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+            chunk.fillLayer(y, new Block(expectedBlock(chunkX, chunkZ, y), "TEST", true, false));
+        }
+        return chunk;
+    }
+
+    private static void await(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            // Rethrows any assertion failure from the worker
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Readers only ever see fully built chunks while writers publish new ones")
+    void shouldPublishChunksSafely() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong chunksSeen = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int chunkZ = w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int chunkX = 0; chunkX < CHUNKS_PER_WRITER; chunkX++) {
+                    assertTrue(world.addChunk(new GamePosition(chunkX, 0, chunkZ), buildChunk(chunkX, chunkZ)));
+                }
+                return null;
+            }));
+        }
+
+        for (int r = 0; r < READERS; r++) {
+            int seed = r;
+            readers.add(executor.submit(() -> {
+                start.await();
+                int i = seed;
+                while (writing.get()) {
+                    int chunkX = (i * 7) % CHUNKS_PER_WRITER;
+                    int chunkZ = i % WRITERS;
+                    int y = i & 15;
+                    short block = world.getBlock(chunkX * Chunk.CHUNK_SIZE + 3, y, chunkZ * Chunk.CHUNK_SIZE + 5);
+                    if (block != World.UNLOADED_BLOCK_ID) {
+                        assertEquals(expectedBlock(chunkX, chunkZ, y), block);
+                        chunksSeen.incrementAndGet();
+                    }
+                    i++;
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        await(writers);
+        writing.set(false);
+        await(readers);
+
+        assertEquals(WRITERS * CHUNKS_PER_WRITER, world.getChunkCount());
+        for (int chunkZ = 0; chunkZ < WRITERS; chunkZ++) {
+            for (int chunkX = 0; chunkX < CHUNKS_PER_WRITER; chunkX++) {
+                assertNotNull(world.getChunk(chunkX, 0, chunkZ));
+            }
+        }
+        assertTrue(chunksSeen.get() > 0, "Readers should have found published chunks");
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Concurrent eviction and re-adding keeps the chunk map consistent")
+    void shouldSurviveEvictionChurn() throws Exception {
+        for (int chunkX = 0; chunkX < 64; chunkX++) {
+            world.addChunk(new GamePosition(chunkX, 0, 0), buildChunk(chunkX, 0));
+        }
+
+        AtomicBoolean churning = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> churners = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int offset = w;
+            churners.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < 2000; round++) {
+                    // Each writer owns the chunks congruent to its offset, so adds never collide
+                    int chunkX = offset + WRITERS * (round % 16);
+                    long key = ChunkKey.pack(chunkX, 0, 0);
+                    if (world.evictChunk(key) != null) {
+                        assertTrue(world.wasEvicted(key));
+                        world.addChunk(new GamePosition(chunkX, 0, 0), buildChunk(chunkX, 0));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                int i = 0;
+                while (churning.get()) {
+                    int chunkX = i & 63;
+                    Chunk chunk = world.getChunk(chunkX, 0, 0);
+                    if (chunk != null) {
+                        assertEquals(chunkX, chunk.getChunkX());
+                        assertEquals(expectedBlock(chunkX, 0, 9), chunk.getBlock(1, 9, 1));
+                    }
+                    world.getMemoryReport();
+                    i++;
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        await(churners);
+        churning.set(false);
+        await(readers);
+
+        assertEquals(64, world.getChunkCount());
+        assertEquals(0, world.getEvictedChunkCount(), "Every evicted chunk was added back");
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Many threads can thaw the same hibernated chunk")
+    void shouldThawHibernatedChunkOnce() throws Exception {
+        Chunk chunk = buildChunk(2, 3);
+        world.addChunk(chunk.getPosition(), chunk);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int r = 0; r < WRITERS + READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < 500; round++) {
+                    if (round % 50 == 0) chunk.hibernate();
+                    int y = round & 15;
+                    assertEquals(expectedBlock(2, 3, y), world.getBlock(2 * Chunk.CHUNK_SIZE, y, 3 * Chunk.CHUNK_SIZE));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        await(readers);
+    }
+}
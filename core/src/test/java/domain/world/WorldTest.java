@@ -0,0 +1,188 @@
+package domain.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class WorldTest {
+    private static final Block AIR = new Block((short) 0, "AIR", false, true);
+    private static final Block DIRT = new Block((short) 2, "DIRT", true, false);
+
+    private World world;
+
+    @BeforeEach
+    void setUp() {
+        world = new World();
+    }
+
+    @Test
+    @DisplayName("Chunk keys round trip negative coordinates")
+    void shouldPackNegativeCoordinates() {
+        long key = ChunkKey.pack(-8, 3, -1000);
+
+        assertEquals(-8, ChunkKey.x(key));
+        assertEquals(3, ChunkKey.y(key));
+        assertEquals(-1000, ChunkKey.z(key));
+        assertEquals(key, ChunkKey.of(new GamePosition(-8, 3, -1000)));
+    }
+
+    @Test
+    @DisplayName("Chunks can be found by position, coordinates or key")
+    void shouldLookUpChunks() {
+        Chunk chunk = new Chunk(-1, 0, 2);
+        assertTrue(world.addChunk(new GamePosition(-1, 0, 2), chunk));
+        assertFalse(world.addChunk(new GamePosition(-1, 0, 2), new Chunk(-1, 0, 2)), "Duplicates are rejected");
+
+        assertSame(chunk, world.getChunk(-1, 0, 2));
+        assertSame(chunk, world.getChunk(ChunkKey.pack(-1, 0, 2)));
+        assertSame(chunk, world.getChunk(new GamePosition(-1, 0, 2)));
+        assertTrue(world.hasChunk(-1, 0, 2));
+
+        world.removeChunk(-1, 0, 2);
+        assertFalse(world.hasChunk(-1, 0, 2));
+    }
+
+    @Test
+    @DisplayName("World block lookups resolve negative coordinates into the right chunk")
+    void shouldReadBlocksAcrossChunks() {
+        Chunk chunk = new Chunk(-1, 0, -1);
+        chunk.setBlock(15, 4, 0, DIRT);
+        world.addChunk(chunk.getPosition(), chunk);
+
+        assertEquals(DIRT.getId(), world.getBlock(-1, 4, -16));
+        assertEquals(0, world.getBlock(-2, 4, -16), "Unset blocks are AIR");
+        assertEquals(3, world.getBlock(0, 4, -16), "Ungenerated chunks read as STONE");
+    }
+
+    @Test
+    @DisplayName("Bulk block reads match single block lookups")
+    void shouldReadRegionLikeGetBlock() {
+        Random random = new Random(3);
+        for (int chunkX = -1; chunkX <= 0; chunkX++) {
+            for (int chunkY = 0; chunkY <= 1; chunkY++) {
+                Chunk chunk = new Chunk(chunkX, chunkY, 0);
+                for (int i = 0; i < 200; i++) {
+                    chunk.setBlock(random.nextInt(16), random.nextInt(16), random.nextInt(16), DIRT);
+                }
+                world.addChunk(chunk.getPosition(), chunk);
+            }
+        }
+        // A uniform chunk, and the chunks at z = 1 are left unloaded
+        Chunk stone = new Chunk(1, 0, 0);
+        stone.fill(new Block((short) 3, "STONE", true, false));
+        world.addChunk(stone.getPosition(), stone);
+
+        int minX = -20;
+        int minY = 3;
+        int minZ = 5;
+        int maxX = 21;
+        int maxY = 30;
+        int maxZ = 19;
+        short[] out = new short[(maxX - minX) * (maxY - minY) * (maxZ - minZ)];
+        world.readBlocks(minX, minY, minZ, maxX, maxY, maxZ, out);
+
+        int i = 0;
+        for (int x = minX; x < maxX; x++) {
+            for (int z = minZ; z < maxZ; z++) {
+                for (int y = minY; y < maxY; y++) {
+                    assertEquals(world.getBlock(x, y, z), out[i++], "Mismatch at " + x + ", " + y + ", " + z);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk height reads come from the loaded columns")
+    void shouldReadHeights() {
+        ChunkColumn column = new ChunkColumn(0, 0);
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                column.setHeight(x, z, x * 2 + z);
+            }
+        }
+        world.addChunk(new GamePosition(0, 0, 0), new Chunk(new GamePosition(0, 0, 0), column));
+        world.addChunk(new GamePosition(0, 1, 0), new Chunk(new GamePosition(0, 1, 0), column));
+
+        short[] out = new short[4 * 3];
+        world.readHeights(14, 2, 18, 5, out);
+        assertEquals(14 * 2 + 2, out[0]);
+        assertEquals(15 * 2 + 4, out[5]);
+        assertEquals(World.UNKNOWN_HEIGHT, out[6], "Columns without chunks have no height");
+
+        world.removeChunk(0, 0, 0);
+        assertSame(column, world.getColumn(0, 0), "The column is kept while any of its chunks is loaded");
+        world.evictChunk(ChunkKey.pack(0, 1, 0));
+        assertEquals(null, world.getColumn(0, 0));
+    }
+
+    // Surfaces between 20 and 38 in chunk rows 1 and 2, a low valley at 3 in the column to the east,
+    // with DIRT up to the surface in chunk rows 0 to 3
+    private void loadTerrain() {
+        for (int columnX = -2; columnX <= 2; columnX++) {
+            for (int columnZ = -1; columnZ <= 1; columnZ++) {
+                ChunkColumn column = new ChunkColumn(columnX, columnZ);
+                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                        column.setHeight(x, z, columnX == 1 ? 3 : 20 + x + z / 4);
+                    }
+                }
+                for (int chunkY = 0; chunkY <= 3; chunkY++) {
+                    GamePosition pos = new GamePosition(columnX, chunkY, columnZ);
+                    Chunk chunk = new Chunk(pos, column);
+                    for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                        for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                            chunk.fillColumn(x, z, 0, column.getHeight(x, z) - chunk.getChunkWorldY(), DIRT);
+                        }
+                    }
+                    world.addChunk(pos, chunk);
+                }
+            }
+        }
+    }
+
+    private boolean isHidden(int chunkX, int chunkY, int chunkZ) {
+        return world.isHiddenFromSurface(chunkX, chunkY, chunkZ, id -> id != AIR.getId());
+    }
+
+    @Test
+    @DisplayName("Chunks of air or buried below the surface are hidden")
+    void shouldHideChunksAwayFromSurface() {
+        loadTerrain();
+
+        assertTrue(isHidden(-1, 0, 0), "Below every surface around it");
+        assertFalse(isHidden(0, 0, 0), "The valley next to it shows its side");
+        assertFalse(isHidden(-1, 1, 0), "The surface runs through it");
+        assertFalse(isHidden(-1, 2, 0));
+        assertTrue(isHidden(-1, 3, 0), "Above the highest surface");
+        assertTrue(isHidden(1, 1, 0), "Above the valley");
+        assertFalse(isHidden(1, 0, 0));
+        assertFalse(isHidden(-1, 0, 1), "Next to a column with no loaded chunks");
+        assertFalse(isHidden(5, 3, 5), "Nothing is known without the chunk");
+        assertEquals(DIRT.getId(), world.getBlock(-16, 0, 0), "Hidden chunks still answer for their blocks");
+    }
+
+    @Test
+    @DisplayName("Caves carved under a low surface keep their chunks visible")
+    void shouldShowCarvedChunks() {
+        loadTerrain();
+        Chunk west = world.getChunk(-2, 0, 0);
+
+        west.setBlock(7, 8, 8, AIR);
+        assertTrue(isHidden(-1, 0, 0), "A cave that does not reach the border shows nothing of this chunk");
+
+        west.setBlock(15, 8, 8, AIR);
+        assertFalse(isHidden(-1, 0, 0), "A cave at the border shows this chunk's wall");
+        west.setBlock(15, 8, 8, DIRT);
+        assertTrue(isHidden(-1, 0, 0));
+
+        world.getChunk(-1, 0, 0).setBlock(8, 0, 8, AIR);
+        assertFalse(isHidden(-1, 0, 0), "A cave inside the chunk shows its walls");
+    }
+}
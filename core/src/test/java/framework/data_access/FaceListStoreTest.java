@@ -0,0 +1,94 @@
+package framework.data_access;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import application.gateways.BlockRepository;
+import domain.collections.LongObjectMap;
+import domain.world.Block;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.ChunkNeighborhood;
+import domain.world.GamePosition;
+import domain.world.World;
+import framework.rendering.ChunkFaces;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FaceListStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Stored faces read back per chunk, across regions")
+    void shouldReadBackStoredFaces() throws Exception {
+        short stone = 3;
+        LongObjectMap<int[]> faces = new LongObjectMap<>();
+        faces.put(ChunkKey.pack(0, 0, 0), new int[] {ChunkFaces.pack(1, 2, 3, ChunkFaces.TOP, stone)});
+        faces.put(ChunkKey.pack(-1, 4, 17), new int[] {
+            ChunkFaces.pack(15, 0, 15, ChunkFaces.WEST, stone), ChunkFaces.pack(0, 15, 0, ChunkFaces.NORTH, stone)
+        });
+        faces.put(ChunkKey.pack(5, 0, 0), new int[0]);
+        new FaceListStore(directory).writeAll(faces);
+
+        FaceListStore store = new FaceListStore(directory);
+        assertArrayEquals(faces.get(ChunkKey.pack(0, 0, 0)), store.find(0, 0, 0));
+        assertArrayEquals(faces.get(ChunkKey.pack(-1, 4, 17)), store.find(-1, 4, 17));
+        assertArrayEquals(new int[0], store.find(5, 0, 0));
+        assertNull(store.find(1, 0, 0));
+        assertNull(store.find(100, 0, 0));
+
+        int face = store.find(-1, 4, 17)[0];
+        assertEquals(15, ChunkFaces.x(face));
+        assertEquals(0, ChunkFaces.y(face));
+        assertEquals(15, ChunkFaces.z(face));
+        assertEquals(ChunkFaces.WEST, ChunkFaces.side(face));
+        assertEquals(stone, ChunkFaces.blockId(face));
+    }
+
+    @Test
+    @DisplayName("Files that are not face lists are rejected")
+    void shouldRejectOtherFiles() throws Exception {
+        Files.write(directory.resolve("r.0.0.0.faces"), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(UncheckedIOException.class, () -> new FaceListStore(directory).find(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Only faces next to blocks that do not hide them are extracted")
+    void shouldExtractVisibleFaces() {
+        BlockRepository blocks = new InMemoryBlockRepository();
+        Block stone = blocks.findByName("STONE").get();
+        short air = blocks.findByName("AIR").get().getId();
+        World world = new World();
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) {
+                    world.addChunk(new GamePosition(x, y, z), new Chunk(x, y, z));
+                }
+            }
+        }
+        Chunk chunk = world.getChunk(0, 0, 0);
+        // Two stacked blocks hide the faces they share
+        chunk.setBlock(4, 4, 4, stone);
+        chunk.setBlock(4, 5, 4, stone);
+
+        ChunkNeighborhood neighborhood = new ChunkNeighborhood();
+        neighborhood.load(world, chunk);
+        int[] faces = ChunkFaces.extract(neighborhood, blocks, air);
+
+        assertEquals(10, faces.length);
+        for (int face : faces) {
+            assertEquals(stone.getId(), ChunkFaces.blockId(face));
+            boolean upper = ChunkFaces.y(face) == 5;
+            assertFalse(upper && ChunkFaces.side(face) == ChunkFaces.BOTTOM);
+            assertFalse(!upper && ChunkFaces.side(face) == ChunkFaces.TOP);
+        }
+    }
+}
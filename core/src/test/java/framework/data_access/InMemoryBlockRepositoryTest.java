@@ -0,0 +1,77 @@
+package framework.data_access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import domain.world.Block;
+import java.io.StringReader;
+import java.util.List;
+
+class InMemoryBlockRepositoryTest {
+    private static final String DEFINITIONS = "{ \"blocks\": ["
+        + "{ \"id\": 0, \"name\": \"air\", \"solid\": false, \"transparent\": true },"
+        + "{ \"id\": 1, \"name\": \"GRASS\", \"solid\": true, \"transparent\": false },"
+        + "{ \"id\": 4, \"name\": \"GLASS\", \"solid\": true, \"transparent\": true },"
+        + "{ \"id\": 5, \"name\": \"LEAVES\", \"solid\": true, \"transparent\": true, \"opaqueForCulling\": true }"
+        + "] }";
+
+    @Test
+    @DisplayName("Definitions are read from JSON into dense property lookups")
+    void shouldReadDefinitions() {
+        List<Block> blocks = JsonBlockDefinitions.read(new StringReader(DEFINITIONS));
+        InMemoryBlockRepository repository = new InMemoryBlockRepository(blocks);
+
+        assertEquals(4, repository.findAll().size());
+        assertEquals(1, repository.findByName("grass").orElseThrow().getId());
+        assertEquals("AIR", repository.findById((short) 0).orElseThrow().getName());
+
+        assertFalse(repository.isSolid((short) 0));
+        assertTrue(repository.isTransparent((short) 0));
+        assertFalse(repository.isOpaqueForCulling((short) 0));
+
+        assertTrue(repository.isOpaqueForCulling((short) 1), "Solid blocks hide their neighbours by default");
+        assertFalse(repository.isOpaqueForCulling((short) 4), "Transparent blocks do not hide their neighbours");
+        assertTrue(repository.isOpaqueForCulling((short) 5), "The culling flag can be set explicitly");
+    }
+
+    @Test
+    @DisplayName("Unknown ids have no block and no properties")
+    void shouldHandleUnknownIds() {
+        InMemoryBlockRepository repository = new InMemoryBlockRepository(
+            JsonBlockDefinitions.read(new StringReader(DEFINITIONS)));
+
+        for (short id : new short[] {-1, 2, 3, 6, Short.MAX_VALUE}) {
+            assertFalse(repository.findById(id).isPresent());
+            assertFalse(repository.isSolid(id));
+            assertFalse(repository.isTransparent(id));
+            assertFalse(repository.isOpaqueForCulling(id));
+        }
+    }
+
+    @Test
+    @DisplayName("Duplicate ids and malformed definitions are rejected")
+    void shouldRejectBadDefinitions() {
+        String duplicate = "{ \"blocks\": [ { \"id\": 1, \"name\": \"A\" }, { \"id\": 1, \"name\": \"B\" } ] }";
+        assertThrows(IllegalArgumentException.class,
+            () -> new InMemoryBlockRepository(JsonBlockDefinitions.read(new StringReader(duplicate))));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonBlockDefinitions.read(new StringReader("{ \"blocks\": [ { \"name\": \"A\" } ] }")));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonBlockDefinitions.read(new StringReader("[1, 2")));
+    }
+
+    @Test
+    @DisplayName("Built-in blocks keep their ids")
+    void shouldProvideDefaultBlocks() {
+        InMemoryBlockRepository repository = new InMemoryBlockRepository();
+
+        assertEquals(0, repository.findByName("AIR").orElseThrow().getId());
+        assertEquals(3, repository.findByName("STONE").orElseThrow().getId());
+        assertTrue(repository.isSolid((short) 3));
+    }
+}
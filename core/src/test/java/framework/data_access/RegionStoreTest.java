@@ -0,0 +1,145 @@
+package framework.data_access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import application.game_features.generate_chunk.ChunkColumnCache;
+import domain.world.Block;
+import domain.world.Chunk;
+import domain.world.GamePosition;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RegionStoreTest {
+    private static final Block DIRT = new Block((short) 2, "DIRT", true, false);
+    private static final Block STONE = new Block((short) 3, "STONE", true, false);
+
+    @TempDir
+    Path directory;
+
+    private RegionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RegionStore(directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private static Chunk terrainChunk(int chunkX, int chunkY, int chunkZ) {
+        Chunk chunk = new Chunk(chunkX, chunkY, chunkZ);
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                int height = (x * 5 + z * 3 + chunkX) & 15;
+                chunk.setHeight(x, height, z);
+                chunk.fillColumn(x, z, 0, height, STONE);
+                chunk.fillColumn(x, z, height, height + 1, DIRT);
+            }
+        }
+        return chunk;
+    }
+
+    private static void assertSameTerrain(Chunk expected, Chunk actual) {
+        assertEquals(expected.getPosition(), actual.getPosition());
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                assertEquals(expected.getHeight(x, z), actual.getHeight(x, z));
+                for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                    assertEquals(expected.getBlock(x, y, z), actual.getBlock(x, y, z));
+                }
+            }
+        }
+        assertEquals(expected.getMinBlockHeight(), actual.getMinBlockHeight());
+        assertEquals(expected.getMaxBlockHeight(), actual.getMaxBlockHeight());
+    }
+
+    @Test
+    @DisplayName("Unknown chunks are not found")
+    void shouldMissUnsavedChunks() {
+        assertFalse(store.findByPosition(new GamePosition(3, 0, 3)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Saved chunks survive reopening the store")
+    void shouldPersistAcrossReopen() {
+        Chunk near = terrainChunk(0, 0, 0);
+        Chunk negative = terrainChunk(-17, 2, -1);
+        store.save(near);
+        store.save(negative);
+        store.close();
+
+        store = new RegionStore(directory);
+        Optional<Chunk> loadedNear = store.findByPosition(new GamePosition(0, 0, 0));
+        Optional<Chunk> loadedNegative = store.findByPosition(new GamePosition(-17, 2, -1));
+
+        assertTrue(loadedNear.isPresent());
+        assertTrue(loadedNegative.isPresent());
+        assertSameTerrain(near, loadedNear.get());
+        assertSameTerrain(negative, loadedNegative.get());
+    }
+
+    @Test
+    @DisplayName("Chunks loaded from one column share its column")
+    void shouldShareLoadedColumns() {
+        store.save(terrainChunk(2, 0, 3));
+        store.save(terrainChunk(2, 1, 3));
+        store.close();
+
+        ChunkColumnCache columns = new ChunkColumnCache(16);
+        store = new RegionStore(directory, columns);
+        Chunk bottom = store.findByPosition(new GamePosition(2, 0, 3)).get();
+        Chunk above = store.findByPosition(new GamePosition(2, 1, 3)).get();
+
+        assertSame(bottom.getColumn(), above.getColumn());
+        assertSame(columns.getIfPresent(2, 3), bottom.getColumn(), "Generated and loaded chunks share the cache");
+        assertSameTerrain(terrainChunk(2, 1, 3), above);
+    }
+
+    @Test
+    @DisplayName("Rewriting a chunk replaces its section")
+    void shouldOverwriteChunks() {
+        Chunk uniform = new Chunk(1, 0, 1);
+        uniform.fill(STONE);
+        store.save(uniform);
+
+        // The patterned chunk compresses to a larger section, so it has to move
+        Chunk patterned = terrainChunk(1, 0, 1);
+        for (int i = 0; i < Chunk.CHUNK_VOLUME; i += 7) {
+            patterned.setBlock(i >> 8, i & 15, (i >> 4) & 15, new Block((short) (i % 50), "TEST", true, false));
+        }
+        store.save(patterned);
+        store.save(terrainChunk(2, 0, 1));
+
+        assertSameTerrain(patterned, store.findByPosition(new GamePosition(1, 0, 1)).get());
+        assertSameTerrain(terrainChunk(2, 0, 1), store.findByPosition(new GamePosition(2, 0, 1)).get());
+    }
+
+    @Test
+    @DisplayName("Worlds of other seeds or generator versions are not served")
+    void shouldKeepWorldsApart() {
+        RegionStore seedZero = new RegionStore(RegionStore.worldDirectory(directory, 0, 1));
+        RegionStore seedOne = new RegionStore(RegionStore.worldDirectory(directory, 1, 1));
+        RegionStore newerGenerator = new RegionStore(RegionStore.worldDirectory(directory, 0, 2));
+        try {
+            seedZero.save(terrainChunk(0, 0, 0));
+
+            assertTrue(seedZero.findByPosition(new GamePosition(0, 0, 0)).isPresent());
+            assertFalse(seedOne.findByPosition(new GamePosition(0, 0, 0)).isPresent());
+            assertFalse(newerGenerator.findByPosition(new GamePosition(0, 0, 0)).isPresent());
+        } finally {
+            seedZero.close();
+            seedOne.close();
+            newerGenerator.close();
+        }
+    }
+}
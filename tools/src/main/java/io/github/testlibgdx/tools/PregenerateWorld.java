@@ -0,0 +1,248 @@
+package io.github.testlibgdx.tools;
+
+import application.game_features.generate_chunk.ChunkColumnCache;
+import application.game_features.generate_chunk.GenerateChunkInputData;
+import application.game_features.generate_chunk.GenerateChunkInteractor;
+import application.game_features.generate_chunk.RailStructures;
+import application.game_features.generate_chunk.StructureIndex;
+import application.game_features.render_radius.RenderRadiusManagerInteractor;
+import application.gateways.BlockRepository;
+import domain.collections.LongObjectMap;
+import domain.world.Chunk;
+import domain.world.ChunkKey;
+import domain.world.ChunkNeighborhood;
+import domain.world.GamePosition;
+import domain.world.World;
+import framework.data_access.FaceListStore;
+import framework.data_access.InMemoryBlockRepository;
+import framework.data_access.JsonBlockDefinitions;
+import framework.data_access.RegionStore;
+import framework.rendering.ChunkFaces;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the whole rail corridor for a seed into region files, so the game can load terrain from disk
+ * instead of generating it during play. Runs headless with a pool of generation threads and reports
+ * how many chunks it generated per second.
+ * The regions go into the seed's own directory under the save directory, the one the game reads for that seed
+ * and generator version, so terrain of one seed is never served for another.
+ * With --meshes it also stores the visible faces of every chunk in a {@link FaceListStore} next to the regions,
+ * which {@link framework.rendering.ChunkMeshGenerator#createMesh(Chunk, int[])} builds meshes from. This keeps
+ * every generated chunk in memory until the faces are written.
+ *
+ * <p>Usage: PregenerateWorld [--seed N] [--threads N] [--out DIR] [--meshes]
+ */
+public class PregenerateWorld {
+    private static final String DEFAULT_OUT = "saves/regions";
+
+    private final int seed;
+    private final int threads;
+    private final Path out;
+    private final boolean meshes;
+
+    /**
+     * @param out the save directory, the regions go into the world directory of the seed inside it
+     */
+    public PregenerateWorld(int seed, int threads, Path out) {
+        this(seed, threads, out, false);
+    }
+
+    /**
+     * @param meshes whether to store the visible faces of every chunk as well
+     */
+    public PregenerateWorld(int seed, int threads, Path out, boolean meshes) {
+        this.seed = seed;
+        this.threads = threads;
+        this.out = out;
+        this.meshes = meshes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = Paths.get(DEFAULT_OUT);
+        boolean meshes = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed":
+                    seed = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Math.max(1, Integer.parseInt(args[++i]));
+                    break;
+                case "--out":
+                    out = Paths.get(args[++i]);
+                    break;
+                case "--meshes":
+                    meshes = true;
+                    break;
+                default:
+                    System.err.println("Unknown argument " + args[i]);
+                    System.err.println("Usage: PregenerateWorld [--seed N] [--threads N] [--out DIR] [--meshes]");
+                    System.exit(1);
+            }
+        }
+
+        new PregenerateWorld(seed, threads, out, meshes).run();
+    }
+
+    /**
+     * Uses the block definitions the game ships with when run from the assets directory,
+     * otherwise the built-in blocks.
+     */
+    private static BlockRepository loadBlocks() throws IOException {
+        Path definitions = Paths.get(JsonBlockDefinitions.DEFAULT_PATH);
+        if (!Files.exists(definitions)) {
+            System.out.println("No " + definitions + " in the working directory, using the built-in blocks");
+            return new InMemoryBlockRepository();
+        }
+        try (Reader reader = Files.newBufferedReader(definitions, StandardCharsets.UTF_8)) {
+            return new InMemoryBlockRepository(JsonBlockDefinitions.read(reader));
+        }
+    }
+
+    public void run() throws IOException, InterruptedException, ExecutionException {
+        generate(RenderRadiusManagerInteractor.MIN_WORLD_X_CHUNKS,
+            RenderRadiusManagerInteractor.maxWorldXChunks(new World()),
+            RenderRadiusManagerInteractor.MIN_WORLD_Z_CHUNKS, RenderRadiusManagerInteractor.MAX_WORLD_Z_CHUNKS);
+    }
+
+    /**
+     * Generates every chunk of the columns x minX..maxX, z minZ..maxZ, over the full world height.
+     */
+    void generate(int minX, int maxX, int minZ, int maxZ)
+        throws IOException, InterruptedException, ExecutionException {
+        World world = new World();
+        int minY = RenderRadiusManagerInteractor.MIN_WORLD_Y_CHUNKS;
+        int maxY = RenderRadiusManagerInteractor.MAX_WORLD_Y_CHUNKS;
+        int worldEndX = world.getWorldDepthChunks() * Chunk.CHUNK_SIZE;
+        int columnCount = (maxX - minX + 1) * (maxZ - minZ + 1);
+        int chunkCount = columnCount * (maxY - minY + 1);
+
+        BlockRepository blockRepository = loadBlocks();
+        // Every column is generated by exactly one task, so the cache only needs room for the ones in flight
+        StructureIndex structures = new StructureIndex(seed, RailStructures.create(blockRepository), worldEndX);
+        GenerateChunkInteractor generator = new GenerateChunkInteractor(
+            blockRepository, new ChunkColumnCache(threads * 16), GenerateChunkInteractor.terrainNoise(seed),
+            GenerateChunkInteractor.caveNoise(seed), structures);
+        Path directory = RegionStore.worldDirectory(out, seed, GenerateChunkInteractor.GENERATOR_VERSION);
+        RegionStore store = new RegionStore(directory);
+
+        System.out.printf("Generating chunks x %d..%d, y %d..%d, z %d..%d (%d chunks) with seed %d on %d threads%n",
+            minX, maxX, minY, maxY, minZ, maxZ, chunkCount, seed, threads);
+        System.out.println("Writing regions to " + directory);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        AtomicInteger generated = new AtomicInteger();
+        // The world is not thread safe, so chunks kept for meshing are added to it once generation is done
+        Queue<Chunk> kept = meshes ? new ConcurrentLinkedQueue<>() : null;
+        long start = System.nanoTime();
+        List<Future<?>> tasks = new ArrayList<>(columnCount);
+        try {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    int columnX = x;
+                    int columnZ = z;
+                    tasks.add(workers.submit(() -> {
+                        for (int y = minY; y <= maxY; y++) {
+                            GamePosition pos = new GamePosition(columnX, y, columnZ);
+                            Chunk chunk = generator.execute(new GenerateChunkInputData(pos, worldEndX)).getChunk();
+                            store.save(chunk);
+                            if (kept != null) {
+                                kept.add(chunk);
+                            }
+                            generated.incrementAndGet();
+                        }
+                    }));
+                }
+            }
+            waitFor(tasks, generated, chunkCount);
+            report("Generated", generated.get(), System.nanoTime() - start);
+
+            if (meshes) {
+                long meshStart = System.nanoTime();
+                writeFaces(kept, blockRepository, workers, FaceListStore.meshDirectory(directory));
+                report("Stored faces of", kept.size(), System.nanoTime() - meshStart);
+            }
+        } finally {
+            // After a failure, columns not started yet are dropped but the ones being saved finish,
+            // interrupting them could leave a region file half written
+            for (Future<?> task : tasks) {
+                task.cancel(false);
+            }
+            workers.shutdown();
+            if (workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                store.close();
+            } else {
+                System.err.println("Generation workers did not stop, the regions in " + directory
+                    + " may be incomplete");
+            }
+        }
+    }
+
+    /**
+     * Extracts the visible faces of the chunks on the workers. Chunks at the edge of the area treat the chunks
+     * beyond it like the game treats chunks that are not loaded.
+     */
+    private static void writeFaces(Collection<Chunk> chunks, BlockRepository blockRepository,
+                                   ExecutorService workers, Path directory)
+        throws IOException, InterruptedException, ExecutionException {
+        World world = new World();
+        for (Chunk chunk : chunks) {
+            world.addChunk(chunk.getPosition(), chunk);
+        }
+        short air = blockRepository.findByName("AIR")
+            .orElseThrow(() -> new IllegalStateException("No AIR block defined")).getId();
+
+        List<Chunk> ordered = new ArrayList<>(chunks);
+        List<Future<int[]>> faces = new ArrayList<>(ordered.size());
+        for (Chunk chunk : ordered) {
+            faces.add(workers.submit(() -> {
+                ChunkNeighborhood neighborhood = new ChunkNeighborhood();
+                neighborhood.load(world, chunk);
+                return ChunkFaces.extract(neighborhood, blockRepository, air);
+            }));
+        }
+
+        LongObjectMap<int[]> facesByChunk = new LongObjectMap<>(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            facesByChunk.put(ChunkKey.of(ordered.get(i).getPosition()), faces.get(i).get());
+        }
+        new FaceListStore(directory).writeAll(facesByChunk);
+    }
+
+    private static void waitFor(List<Future<?>> tasks, AtomicInteger done, int total)
+        throws InterruptedException, ExecutionException {
+        int reportedTenths = 0;
+        for (Future<?> task : tasks) {
+            task.get();
+            int tenths = done.get() * 10 / total;
+            if (tenths > reportedTenths) {
+                reportedTenths = tenths;
+                System.out.printf("  %d%% (%d/%d chunks)%n", tenths * 10, done.get(), total);
+            }
+        }
+    }
+
+    private static void report(String action, int chunks, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%s %d chunks in %.2f s (%.0f chunks/s)%n", action, chunks, seconds, chunks / seconds);
+    }
+}
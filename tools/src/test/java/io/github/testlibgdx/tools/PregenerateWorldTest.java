@@ -0,0 +1,124 @@
+package io.github.testlibgdx.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import application.game_features.generate_chunk.ChunkColumnCache;
+import application.game_features.generate_chunk.GenerateChunkInputData;
+import application.game_features.generate_chunk.GenerateChunkInteractor;
+import application.game_features.generate_chunk.RailStructures;
+import application.game_features.generate_chunk.StructureIndex;
+import application.game_features.render_radius.RenderRadiusManagerInteractor;
+import application.gateways.BlockRepository;
+import domain.world.Chunk;
+import domain.world.ChunkNeighborhood;
+import domain.world.GamePosition;
+import domain.world.World;
+import framework.data_access.FaceListStore;
+import framework.data_access.InMemoryBlockRepository;
+import framework.data_access.RegionStore;
+import framework.rendering.ChunkFaces;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PregenerateWorldTest {
+    private static final int SEED = 11;
+
+    @TempDir
+    Path saves;
+
+    @Test
+    @DisplayName("Pregenerated chunks load back the same as chunks generated during play")
+    void shouldStoreTheGeneratedTerrain() throws Exception {
+        // Crosses the rails at z 0 and the start of the corridor at x 0
+        new PregenerateWorld(SEED, 2, saves).generate(-1, 1, -1, 0);
+
+        Path directory = RegionStore.worldDirectory(saves, SEED, GenerateChunkInteractor.GENERATOR_VERSION);
+        assertTrue(Files.isDirectory(directory), "Regions go into the seed's own directory");
+
+        int worldEndX = new World().getWorldDepthChunks() * Chunk.CHUNK_SIZE;
+        BlockRepository blocks = new InMemoryBlockRepository();
+        GenerateChunkInteractor generator = new GenerateChunkInteractor(blocks, new ChunkColumnCache(16),
+            GenerateChunkInteractor.terrainNoise(SEED), GenerateChunkInteractor.caveNoise(SEED),
+            new StructureIndex(SEED, RailStructures.create(blocks), worldEndX));
+
+        RegionStore store = new RegionStore(directory);
+        try {
+            for (int x = -1; x <= 1; x++) {
+                for (int z = -1; z <= 0; z++) {
+                    for (int y = RenderRadiusManagerInteractor.MIN_WORLD_Y_CHUNKS;
+                         y <= RenderRadiusManagerInteractor.MAX_WORLD_Y_CHUNKS; y++) {
+                        GamePosition pos = new GamePosition(x, y, z);
+                        Optional<Chunk> stored = store.findByPosition(pos);
+                        assertTrue(stored.isPresent(), "Missing chunk at " + pos);
+                        Chunk expected = generator.execute(new GenerateChunkInputData(pos, worldEndX)).getChunk();
+                        assertSameTerrain(expected, stored.get());
+                    }
+                }
+            }
+            assertFalse(store.findByPosition(new GamePosition(2, 0, 0)).isPresent());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    @DisplayName("With meshes, the visible faces of every stored chunk are written next to its region")
+    void shouldStoreVisibleFaces() throws Exception {
+        new PregenerateWorld(SEED, 2, saves, true).generate(0, 1, 0, 0);
+
+        Path directory = RegionStore.worldDirectory(saves, SEED, GenerateChunkInteractor.GENERATOR_VERSION);
+        BlockRepository blocks = new InMemoryBlockRepository();
+        short air = blocks.findByName("AIR").get().getId();
+        World world = new World();
+        RegionStore store = new RegionStore(directory);
+        try {
+            for (int x = 0; x <= 1; x++) {
+                for (int y = RenderRadiusManagerInteractor.MIN_WORLD_Y_CHUNKS;
+                     y <= RenderRadiusManagerInteractor.MAX_WORLD_Y_CHUNKS; y++) {
+                    GamePosition pos = new GamePosition(x, y, 0);
+                    world.addChunk(pos, store.findByPosition(pos).get());
+                }
+            }
+        } finally {
+            store.close();
+        }
+
+        FaceListStore faces = new FaceListStore(FaceListStore.meshDirectory(directory));
+        ChunkNeighborhood neighborhood = new ChunkNeighborhood();
+        int visible = 0;
+        for (int x = 0; x <= 1; x++) {
+            for (int y = RenderRadiusManagerInteractor.MIN_WORLD_Y_CHUNKS;
+                 y <= RenderRadiusManagerInteractor.MAX_WORLD_Y_CHUNKS; y++) {
+                int[] stored = faces.find(x, y, 0);
+                assertNotNull(stored, "Missing faces of chunk " + x + "," + y + ",0");
+                neighborhood.load(world, x, y, 0);
+                assertArrayEquals(ChunkFaces.extract(neighborhood, blocks, air), stored);
+                visible += stored.length;
+            }
+        }
+        assertTrue(visible > 0, "The surface has visible faces");
+        assertNull(faces.find(2, 0, 0));
+    }
+
+    private static void assertSameTerrain(Chunk expected, Chunk actual) {
+        assertEquals(expected.getPosition(), actual.getPosition());
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                assertEquals(expected.getHeight(x, z), actual.getHeight(x, z));
+                for (int y = 0; y < Chunk.CHUNK_SIZE; y++) {
+                    assertEquals(expected.getBlock(x, y, z), actual.getBlock(x, y, z),
+                        "Block " + x + "," + y + "," + z + " of " + expected.getPosition());
+                }
+            }
+        }
+    }
+}